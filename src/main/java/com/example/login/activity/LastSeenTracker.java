@@ -0,0 +1,168 @@
+package com.example.login.activity;
+
+import com.example.login.datasource.shard.ShardContext;
+import com.example.login.datasource.shard.ShardRouter;
+import com.example.login.model.id.UserIds;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro do último acesso autenticado dos usuários ({@code last_seen_at}) com escrita adiada.
+ * <p>
+ * Cada requisição autenticada apenas atualiza o horário do usuário em um mapa concorrente em memória; acessos
+ * repetidos do mesmo usuário se sobrepõem. A cada {@code user.last-seen.flush-interval} o mapa é esvaziado e os
+ * horários são gravados em lotes JDBC de {@code user.last-seen.batch-size}, de modo que cada usuário recebe no máximo
+ * uma escrita por intervalo. O {@code UPDATE} não altera {@code updated_at} nem {@code version}, e nunca retrocede o
+ * horário gravado. Os horários pendentes são gravados também no encerramento da aplicação.
+ * <p>
+ * Com o particionamento habilitado, os usuários de buckets congelados por um reparticionamento (e os de ID legado,
+ * enquanto houver algum bucket congelado) permanecem pendentes até o intervalo seguinte.
+ */
+@Slf4j
+@Component
+public class LastSeenTracker {
+
+    private static final String UPDATE = "UPDATE tb_users SET last_seen_at = GREATEST(COALESCE(last_seen_at, ?), ?), " +
+            "updated_at = updated_at WHERE id = ?";
+
+    private final ConcurrentHashMap<Long, Long> pending = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final int batchSize;
+    private final Counter flushed;
+
+    public LastSeenTracker(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                           ObjectProvider<ShardRouter> shardRouter, MeterRegistry meterRegistry,
+                           @Value("${user.last-seen.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.batchSize = batchSize;
+        this.flushed = Counter.builder("user.last-seen.flushed")
+                .description("Horários de último acesso gravados no banco")
+                .register(meterRegistry);
+        Gauge.builder("user.last-seen.pending", pending, Map::size)
+                .description("Usuários com último acesso ainda não gravado")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra um acesso do usuário agora.
+     *
+     * @param userId ID do usuário.
+     */
+    public void record(Long userId) {
+        if (userId != null) {
+            pending.merge(userId, System.currentTimeMillis(), Math::max);
+        }
+    }
+
+    /**
+     * Grava os acessos pendentes conforme o intervalo configurado em {@code user.last-seen.flush-interval}.
+     */
+    @Scheduled(fixedDelayString = "${user.last-seen.flush-interval:1m}")
+    public void flush() {
+        Map<Long, Long> drained = drain();
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        ShardRouter router = shardRouter.getIfAvailable();
+        if (router == null) {
+            write(drained, Map.of("", new ArrayList<>(drained.entrySet())));
+            return;
+        }
+        try (ShardRouter.WriteFence fence = router.enterWrite()) {
+            write(drained, byShard(router, fence, drained));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void write(Map<Long, Long> drained, Map<String, List<Map.Entry<Long, Long>>> byShard) {
+        try {
+            byShard.forEach((shard, entries) -> {
+                if (shard.isEmpty()) {
+                    write(entries);
+                } else {
+                    ShardContext.call(shard, () -> {
+                        write(entries);
+                        return null;
+                    });
+                }
+            });
+            flushed.increment(drained.size());
+        } catch (RuntimeException e) {
+            // Devolve os horários ao mapa para a próxima tentativa, sem sobrescrever acessos mais recentes.
+            drained.forEach((userId, seenAt) -> pending.merge(userId, seenAt, Math::max));
+            log.warn("Falha ao gravar o último acesso de {} usuário(s)", drained.size(), e);
+        }
+    }
+
+    private Map<Long, Long> drain() {
+        Map<Long, Long> drained = new LinkedHashMap<>();
+        for (Long userId : pending.keySet()) {
+            Long seenAt = pending.remove(userId);
+            if (seenAt != null) {
+                drained.put(userId, seenAt);
+            }
+        }
+        return drained;
+    }
+
+    private void write(List<Map.Entry<Long, Long>> entries) {
+        List<Object[]> args = entries.stream()
+                .map(entry -> {
+                    Timestamp seenAt = new Timestamp(entry.getValue());
+                    return new Object[]{seenAt, seenAt, entry.getKey()};
+                })
+                .toList();
+
+        for (int from = 0; from < args.size(); from += batchSize) {
+            List<Object[]> batch = args.subList(from, Math.min(from + batchSize, args.size()));
+            transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.batchUpdate(UPDATE, batch));
+        }
+    }
+
+    /**
+     * Agrupa os horários por shard, devolvendo ao mapa pendente (e removendo de {@code drained}) os que não podem ser
+     * gravados agora por estarem em buckets congelados.
+     */
+    private Map<String, List<Map.Entry<Long, Long>>> byShard(ShardRouter router, ShardRouter.WriteFence fence,
+                                                             Map<Long, Long> drained) {
+        Map<String, List<Map.Entry<Long, Long>>> byShard = new LinkedHashMap<>();
+        for (Iterator<Map.Entry<Long, Long>> it = drained.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Long, Long> entry = it.next();
+            int bucket = UserIds.bucketOf(entry.getKey());
+            if (bucket == UserIds.LEGACY_BUCKET ? fence.hasFrozen() : fence.isFrozen(bucket)) {
+                pending.merge(entry.getKey(), entry.getValue(), Math::max);
+                it.remove();
+                continue;
+            }
+            List<String> shards = bucket == UserIds.LEGACY_BUCKET ? router.shards() : List.of(router.shardOf(bucket));
+            shards.forEach(shard -> byShard.computeIfAbsent(shard, s -> new ArrayList<>()).add(entry));
+        }
+        return byShard;
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.login.archive;
+
+import com.example.login.cache.UserCache;
+import com.example.login.datasource.shard.ShardContext;
+import com.example.login.datasource.shard.ShardRouter;
+import com.example.login.exception.InternalServerErrorException;
+import com.example.login.model.id.UserIds;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Arquivamento de usuários inativos ou nunca validados em {@code tb_users_archive}.
+ * <p>
+ * Mantém {@code tb_users} (e o índice de {@code email} percorrido a cada login) com apenas os usuários em uso. Um
+ * usuário arquivado é restaurado de forma transparente na próxima tentativa de login ou de cadastro com o seu e-mail,
+ * mantendo ID, senha e datas. As métricas {@code user.archive.archived} (tag {@code reason}) e
+ * {@code user.archive.restored} (tag {@code trigger}) contam as movimentações.
+ * <p>
+ * Com o particionamento habilitado, os usuários de buckets congelados por um reparticionamento não são arquivados
+ * (ficam para a próxima execução) nem restaurados.
+ */
+@Slf4j
+@Component
+public class UserArchive {
+
+    private static final String COLUMNS = "id, username, email, password, last_password, last_alter_pass, " +
+            "created_at, updated_at, enabled, role, version, last_seen_at, verified_at";
+
+    /** Restaura com {@code updated_at} atual, para que o usuário não volte a ser arquivado na próxima execução. */
+    private static final String RESTORE = "INSERT IGNORE INTO tb_users (" + COLUMNS + ") SELECT id, username, " +
+            "email, password, last_password, last_alter_pass, created_at, CURRENT_TIMESTAMP, enabled, role, version, " +
+            "last_seen_at, verified_at FROM tb_users_archive WHERE id = ?";
+
+    /**
+     * Exclui os usuários cujo ID ou e-mail já está no arquivo (e-mail cadastrado novamente enquanto o anterior
+     * estava arquivado); eles permanecem em {@code tb_users}.
+     */
+    private static final String NOT_ARCHIVED = "AND NOT EXISTS (SELECT 1 FROM tb_users_archive a WHERE a.id = u.id) " +
+            "AND NOT EXISTS (SELECT 1 FROM tb_users_archive a WHERE a.email = u.email) ";
+
+    private static final String ARCHIVE = "INSERT INTO tb_users_archive (" + COLUMNS + ") SELECT " + COLUMNS +
+            " FROM tb_users WHERE id IN (:ids)";
+
+    /** Motivo do arquivamento. */
+    public enum Reason {
+        /**
+         * Cadastro nunca validado: desabilitado e nunca habilitado ({@code verified_at} nulo). Usuários desabilitados
+         * por um administrador após a validação não são arquivados por este motivo.
+         */
+        UNVERIFIED("SELECT id, email FROM tb_users u WHERE enabled = false AND verified_at IS NULL " +
+                "AND created_at < ? AND updated_at < ? " + NOT_ARCHIVED + "ORDER BY created_at LIMIT ? FOR UPDATE"),
+        /**
+         * Usuário habilitado sem acessos há muito tempo ({@code last_seen_at}, ou {@code updated_at} se nunca
+         * registrado). Administradores nunca são arquivados.
+         */
+        INACTIVE("SELECT id, email FROM tb_users u WHERE enabled = true AND created_at < ? " +
+                "AND COALESCE(last_seen_at, updated_at) < ? AND (role IS NULL OR role <> 'ADMIN') " + NOT_ARCHIVED +
+                "ORDER BY created_at LIMIT ? FOR UPDATE");
+
+        private final String select;
+
+        Reason(String select) {
+            this.select = select;
+        }
+    }
+
+    /** Operação que encontrou o usuário arquivado. */
+    public enum Trigger {
+        LOGIN, REGISTRATION
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserCache userCache;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final MeterRegistry meterRegistry;
+
+    public UserArchive(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, UserCache userCache,
+                       ObjectProvider<ShardRouter> shardRouter,
+                       MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        // Independente da transação do chamador: o cadastro restaura o usuário e em seguida falha.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.userCache = userCache;
+        this.shardRouter = shardRouter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Move um lote de usuários para o arquivo, no shard corrente.
+     *
+     * @param reason Motivo do arquivamento, que define os usuários selecionados.
+     * @param cutoff Usuários criados e sem atividade desde antes deste momento são arquivados.
+     * @param limit  Quantidade máxima de usuários no lote.
+     * @return A quantidade de usuários movidos para o arquivo.
+     */
+    public int archive(Reason reason, LocalDateTime cutoff, int limit) {
+        Map<Long, String> users = transactionTemplate.execute(tx -> {
+            Map<Long, String> selected = new LinkedHashMap<>();
+            Timestamp before = Timestamp.valueOf(cutoff);
+            RowCallbackHandler handler = rs -> selected.put(rs.getLong("id"), rs.getString("email"));
+            jdbcTemplate.query(reason.select, handler, before, before, limit);
+            try (ShardRouter.WriteFence fence = enterWrite()) {
+                if (fence != null) {
+                    selected.values().removeIf(email -> fence.isFrozen(UserIds.bucketOf(email)));
+                }
+                return move(selected);
+            }
+        });
+
+        if (!users.isEmpty()) {
+            userCache.invalidateAll(users);
+            counter("user.archive.archived", "reason", reason).increment(users.size());
+        }
+        return users.size();
+    }
+
+    /**
+     * Copia os usuários para o arquivo e os remove de {@code tb_users}. Qualquer divergência entre as linhas copiadas
+     * e removidas desfaz a transação, para que nenhum usuário seja removido sem estar no arquivo.
+     */
+    private Map<Long, String> move(Map<Long, String> selected) {
+        if (selected.isEmpty()) {
+            return selected;
+        }
+
+        var ids = new MapSqlParameterSource("ids", selected.keySet());
+        int archived = namedJdbcTemplate.update(ARCHIVE, ids);
+        int deleted = namedJdbcTemplate.update("DELETE FROM tb_users WHERE id IN (:ids)", ids);
+        if (archived != selected.size() || deleted != archived) {
+            throw new IllegalStateException("Arquivamento divergente: " + selected.size() + " selecionado(s), " +
+                    archived + " arquivado(s), " + deleted + " removido(s)");
+        }
+        return selected;
+    }
+
+    /**
+     * Restaura o usuário arquivado com o e-mail informado, se houver.
+     *
+     * @param email   E-mail do usuário.
+     * @param trigger Operação que procurou o usuário.
+     * @return {@code true} se o usuário foi restaurado para {@code tb_users}.
+     */
+    public boolean restore(String email, Trigger trigger) {
+        if (email == null || email.isBlank()) {
+            return false;
+        }
+
+        ShardRouter router = shardRouter.getIfAvailable();
+        Boolean restored = router == null
+                ? moveBack(email)
+                : ShardContext.call(router.shardOfEmail(email), () -> moveBack(email));
+        if (Boolean.TRUE.equals(restored)) {
+            counter("user.archive.restored", "trigger", trigger).increment();
+            log.info("Usuário arquivado restaurado no {}: {}", trigger.name().toLowerCase(Locale.ROOT), email);
+            return true;
+        }
+        return false;
+    }
+
+    private Boolean moveBack(String email) {
+        return transactionTemplate.execute(tx -> {
+            try (ShardRouter.WriteFence fence = enterWrite()) {
+                if (fence != null && fence.isFrozen(UserIds.bucketOf(email))) {
+                    throw new InternalServerErrorException(
+                            "Usuário em migração entre shards; tente novamente em instantes");
+                }
+
+                List<Long> ids = jdbcTemplate.queryForList(
+                        "SELECT id FROM tb_users_archive WHERE email = ? FOR UPDATE", Long.class, email);
+                if (ids.isEmpty()) {
+                    return false;
+                }
+
+                Long id = ids.getFirst();
+                if (jdbcTemplate.update(RESTORE, id) == 0) {
+                    // O e-mail já foi cadastrado novamente em tb_users; o registro arquivado é mantido.
+                    log.warn("Usuário arquivado {} não restaurado: e-mail já cadastrado", id);
+                    return false;
+                }
+                jdbcTemplate.update("DELETE FROM tb_users_archive WHERE id = ?", id);
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Inicia uma escrita no roteador de shards; nulo se o particionamento está desabilitado.
+     */
+    private ShardRouter.WriteFence enterWrite() {
+        ShardRouter router = shardRouter.getIfAvailable();
+        return router != null ? router.enterWrite() : null;
+    }
+
+    private Counter counter(String name, String tag, Enum<?> value) {
+        return Counter.builder(name)
+                .tag(tag, value.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.login.archive;
+
+import com.example.login.datasource.shard.ShardContext;
+import com.example.login.datasource.shard.ShardRouter;
+import com.example.login.lock.ClusterLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Tarefa agendada que move para o {@link UserArchive} os cadastros não validados há mais de
+ * {@code user.archive.unverified-days} dias e os usuários sem acessos há mais de
+ * {@code user.archive.inactive-days} dias ({@code 0} desativa cada critério).
+ * <p>
+ * Os usuários são movidos em lotes de {@code user.archive.batch-size}, limitados a
+ * {@code user.archive.max-batches-per-run} lotes por critério e shard em cada execução.
+ * <p>
+ * Com várias instâncias, apenas a que obtém a trava {@code user-archive} no Redis executa cada agendamento (a trava
+ * expira após {@code user.archive.lock-lease}, caso a instância caia).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "user.archive.enabled", havingValue = "true")
+public class UserArchiveJob {
+
+    private final UserArchive userArchive;
+    private final ClusterLock clusterLock;
+    private final ObjectProvider<ShardRouter> shardRouter;
+
+    @Value("${user.archive.unverified-days:30}")
+    private int unverifiedDays;
+
+    @Value("${user.archive.inactive-days:0}")
+    private int inactiveDays;
+
+    @Value("${user.archive.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${user.archive.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    @Value("${user.archive.lock-lease:2h}")
+    private Duration lockLease;
+
+    /**
+     * Executa o arquivamento conforme o agendamento configurado em {@code user.archive.cron}.
+     */
+    @Scheduled(cron = "${user.archive.cron:0 0 3 * * *}")
+    public void archive() {
+        if (!clusterLock.runExclusive("user-archive", lockLease, this::archiveAll)) {
+            log.info("Arquivamento de usuários ignorado: em execução em outra instância");
+        }
+    }
+
+    private void archiveAll() {
+        archive(UserArchive.Reason.UNVERIFIED, unverifiedDays);
+        archive(UserArchive.Reason.INACTIVE, inactiveDays);
+    }
+
+    private void archive(UserArchive.Reason reason, int days) {
+        if (days <= 0) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(days);
+        ShardRouter router = shardRouter.getIfAvailable();
+        long archived = 0;
+        for (String shard : router != null ? router.shards() : List.of("")) {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                int count = shard.isEmpty()
+                        ? userArchive.archive(reason, cutoff, batchSize)
+                        : ShardContext.call(shard, () -> userArchive.archive(reason, cutoff, batchSize));
+                archived += count;
+                if (count < batchSize) {
+                    break;
+                }
+            }
+        }
+
+        log.info("Arquivamento de usuários ({}) concluído: {} usuário(s) anteriores a {}", reason, archived, cutoff);
+    }
+}
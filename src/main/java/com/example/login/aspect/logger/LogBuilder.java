@@ -1,8 +1,9 @@
 package com.example.login.aspect.logger;
 
+import com.example.login.audit.AuditListener;
+import com.example.login.audit.sink.AuditSink;
 import com.example.login.enums.Role;
 import com.example.login.model.collection.AuditLog;
-import com.example.login.repository.mongo.AuditLogRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,6 +12,7 @@ import org.springframework.stereotype.Component;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -18,7 +20,8 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class LogBuilder {
 
-    private final AuditLogRepository auditLogRepository;
+    private final AuditSink auditSink;
+    private final List<AuditListener> auditListeners;
     private final HttpServletRequest request;
 
     /**
@@ -63,7 +66,7 @@ public class LogBuilder {
     }
 
     /**
-     * Registra um log de auditoria no banco de dados.
+     * Registra um log de auditoria no destino configurado ({@link AuditSink}).
      *
      * <p>Este método cria e salva um registro de auditoria contendo informações sobre a execução de um método,
      * como classe, nome do método, detalhes, parâmetros, exceções e tempo de execução. Também armazena
@@ -102,7 +105,22 @@ public class LogBuilder {
                 .timeExecution(executionTime)
                 .build();
 
-        auditLogRepository.save(auditLog);
+        auditSink.write(auditLog);
+        notifyListeners(auditLog);
+    }
+
+    /**
+     * Repassa o registro aos consumidores em processo (ex: fluxo SSE), sem deixar que uma falha deles
+     * interrompa a requisição auditada.
+     */
+    private void notifyListeners(AuditLog auditLog) {
+        for (AuditListener listener : auditListeners) {
+            try {
+                listener.onAudit(auditLog);
+            } catch (RuntimeException e) {
+                log.warn("Falha ao notificar {} sobre registro de auditoria", listener.getClass().getSimpleName(), e);
+            }
+        }
     }
 
     /**
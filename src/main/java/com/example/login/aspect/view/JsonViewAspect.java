@@ -5,9 +5,13 @@ import lombok.RequiredArgsConstructor;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
 
 /**
  * Aspecto responsável por aplicar diferentes visualizações JSON em respostas baseadas no parâmetro "view" na URI.
@@ -16,6 +20,9 @@ import org.springframework.stereotype.Component;
  * `@GetMapping`, `@PostMapping`, etc.) e modifica a resposta para incluir uma visualização específica do JSON.
  * As visualizações são determinadas com base em um parâmetro na URI (`/view/{view}`) e utilizam as classes
  * de visualização definidas no pacote `Views`.
+ * <p>
+ * A necessidade de visualização de cada método é decidida uma única vez por {@link JsonViewBindings}; métodos
+ * cujas respostas não dependem de visualização têm o resultado devolvido sem alteração.
  */
 @Aspect
 @Component
@@ -23,6 +30,7 @@ import org.springframework.stereotype.Component;
 public class JsonViewAspect {
 
     private final HttpServletRequest request;
+    private final JsonViewBindings bindings;
 
     /**
      * Intercepta métodos com mapeamentos de requisição e aplica a visualização JSON apropriada.
@@ -43,58 +51,30 @@ public class JsonViewAspect {
     public Object applyJsonView(ProceedingJoinPoint joinPoint) throws Throwable {
         Object result = joinPoint.proceed();
 
-        if (result instanceof ResponseEntity<?> responseEntity) {
-            String viewParam = extractPathVariable();
-            Class<?> viewClass = resolveViewClass(viewParam);
-
-            Object body = responseEntity.getBody();
-            MappingJacksonValue mapping = new MappingJacksonValue(body);
-            mapping.setSerializationView(viewClass);
-            return ResponseEntity
-                    .status(responseEntity.getStatusCode())
-                    .headers(responseEntity.getHeaders())
-                    .body(mapping);
+        if (!(result instanceof ResponseEntity<?> responseEntity) || responseEntity.getBody() == null) {
+            return result;
         }
 
-        return result;
-    }
-
-    /**
-     * Extrai o valor do parâmetro "view" da URI da requisição.
-     * <p>
-     * Este método busca no caminho da URI a presença de um segmento "view" seguido por um valor.
-     *
-     * @return O valor do parâmetro "view", ou `null` se não estiver presente.
-     */
-    private String extractPathVariable() {
-        String uri = request.getRequestURI();
-        String[] parts = uri.split("/");
-        for (int i = 0; i < parts.length; i++) {
-            if (parts[i].equalsIgnoreCase("view") && i + 1 < parts.length) {
-                return parts[i + 1];
-            }
+        JsonViewBinding binding = bindings.bindingFor(((MethodSignature) joinPoint.getSignature()).getMethod());
+        if (!binding.enabled()) {
+            return result;
         }
-        return null;
+
+        MappingJacksonValue mapping = new MappingJacksonValue(responseEntity.getBody());
+        mapping.setSerializationView(binding.resolve(uriVariables()));
+        return ResponseEntity
+                .status(responseEntity.getStatusCode())
+                .headers(responseEntity.getHeaders())
+                .body(mapping);
     }
 
     /**
-     * Resolve a classe de visualização JSON com base no parâmetro fornecido.
-     * <p>
-     * Este método mapeia o valor do parâmetro `view` para uma classe específica de visualização definida em `Views`.
-     * Caso o parâmetro seja nulo ou inválido, a visualização padrão (`Views.Basic.class`) será utilizada.
+     * Obtém as variáveis da URI já extraídas pelo Spring MVC ao selecionar o método.
      *
-     * @param view O valor do parâmetro "view".
-     * @return A classe de visualização correspondente.
+     * @return As variáveis da URI, ou `null` se não estiverem disponíveis.
      */
-    private Class<?> resolveViewClass(String view) {
-        if (view == null || view.isBlank()) {
-            return Views.Basic.class;
-        }
-        return switch (view.toLowerCase()) {
-            case "regular" -> Views.Regular.class;
-            case "details" -> Views.Details.class;
-            case "complete" -> Views.Complete.class;
-            default -> Views.Basic.class;
-        };
+    @SuppressWarnings("unchecked")
+    private Map<String, String> uriVariables() {
+        return (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
     }
 }
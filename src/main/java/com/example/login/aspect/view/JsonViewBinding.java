@@ -0,0 +1,30 @@
+package com.example.login.aspect.view;
+
+import java.util.Map;
+
+/**
+ * Forma como a visualização JSON é aplicada às respostas de um método de controller, decidida uma única vez.
+ *
+ * @param enabled  Indica se a resposta precisa de visualização. Quando {@code false}, o corpo é serializado
+ *                 sem alterações.
+ * @param fromPath Indica se a visualização vem da variável {@code {view}} da URI.
+ */
+record JsonViewBinding(boolean enabled, boolean fromPath) {
+
+    static final JsonViewBinding NONE = new JsonViewBinding(false, false);
+    static final JsonViewBinding DEFAULT_VIEW = new JsonViewBinding(true, false);
+    static final JsonViewBinding PATH_VIEW = new JsonViewBinding(true, true);
+
+    /**
+     * Resolve a visualização da requisição atual.
+     *
+     * @param uriVariables Variáveis da URI extraídas pelo Spring MVC, ou {@code null}.
+     * @return A classe de visualização a ser aplicada.
+     */
+    Class<?> resolve(Map<String, String> uriVariables) {
+        if (!fromPath || uriVariables == null) {
+            return Views.Basic.class;
+        }
+        return Views.resolve(uriVariables.get(JsonViewBindings.VIEW_VARIABLE));
+    }
+}
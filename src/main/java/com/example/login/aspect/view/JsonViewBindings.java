@@ -0,0 +1,169 @@
+package com.example.login.aspect.view;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Decide, uma única vez por método de controller, como a visualização JSON deve ser aplicada.
+ * <p>
+ * Respostas cujo corpo é inteiramente visível na visualização {@link Views.Basic} (ex: {@code HttpSuccessResponse},
+ * {@code TokenResponse}) produzem o mesmo JSON com ou sem visualização, e por isso são devolvidas sem alteração.
+ * Para os demais corpos, a visualização vem da variável {@code {view}} quando o mapeamento a declara, ou é a
+ * {@link Views.Basic} caso contrário. As decisões são calculadas na inicialização a partir dos mapeamentos
+ * registrados no Spring MVC.
+ */
+@Slf4j
+@Component
+public class JsonViewBindings {
+
+    static final String VIEW_VARIABLE = "view";
+
+    private final Map<Method, JsonViewBinding> bindings = new ConcurrentHashMap<>();
+
+    /**
+     * Pré-calcula a decisão de todos os métodos mapeados assim que o contexto é inicializado.
+     */
+    @EventListener
+    public void precompute(ContextRefreshedEvent event) {
+        event.getApplicationContext().getBeansOfType(RequestMappingHandlerMapping.class).values().stream()
+                .flatMap(mapping -> mapping.getHandlerMethods().values().stream())
+                .forEach(handlerMethod -> {
+                    JsonViewBinding binding = bindingFor(handlerMethod.getMethod());
+                    log.debug("Visualização JSON de {}: {}", handlerMethod.getShortLogMessage(), binding);
+                });
+    }
+
+    /**
+     * Retorna a decisão de visualização do método, calculando-a caso ainda não exista.
+     *
+     * @param method O método do controller.
+     * @return A forma como a visualização deve ser aplicada.
+     */
+    JsonViewBinding bindingFor(Method method) {
+        return bindings.computeIfAbsent(method, JsonViewBindings::compute);
+    }
+
+    private static JsonViewBinding compute(Method method) {
+        ResolvableType returnType = ResolvableType.forMethodReturnType(method);
+        if (!ResponseEntity.class.isAssignableFrom(returnType.toClass())) {
+            return JsonViewBinding.NONE;
+        }
+
+        ResolvableType bodyType = returnType.as(ResponseEntity.class).getGeneric(0);
+        if (!needsView(bodyType, new HashSet<>())) {
+            return JsonViewBinding.NONE;
+        }
+        return declaresViewVariable(method) ? JsonViewBinding.PATH_VIEW : JsonViewBinding.DEFAULT_VIEW;
+    }
+
+    private static boolean declaresViewVariable(Method method) {
+        String variable = "{" + VIEW_VARIABLE + "}";
+        return Stream.of(method, method.getDeclaringClass())
+                .map(element -> AnnotatedElementUtils.findMergedAnnotation(element, RequestMapping.class))
+                .filter(Objects::nonNull)
+                .flatMap(mapping -> Stream.concat(Arrays.stream(mapping.path()), Arrays.stream(mapping.value())))
+                .anyMatch(path -> path.contains(variable));
+    }
+
+    /**
+     * Verifica se a serialização do tipo muda quando a visualização {@link Views.Basic} está ativa. Tipos
+     * desconhecidos são tratados como dependentes de visualização, preservando o comportamento anterior.
+     */
+    private static boolean needsView(ResolvableType type, Set<Class<?>> visited) {
+        if (type.isArray()) {
+            return needsView(type.getComponentType(), visited);
+        }
+
+        Class<?> raw = type.resolve(Object.class);
+        if (Collection.class.isAssignableFrom(raw)) {
+            return needsView(type.asCollection().getGeneric(0), visited);
+        }
+        if (Map.class.isAssignableFrom(raw)) {
+            return needsView(type.asMap().getGeneric(1), visited);
+        }
+        if (Optional.class.equals(raw)) {
+            return needsView(type.getGeneric(0), visited);
+        }
+        if (raw.equals(Object.class) || raw.isInterface() && !isScalar(raw)) {
+            return true;
+        }
+        if (isScalar(raw) || !visited.add(raw)) {
+            return false;
+        }
+
+        if (!visibleInBasic(raw.getAnnotation(JsonView.class))) {
+            return true;
+        }
+
+        for (Class<?> current = raw; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (var field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                if (hasRestrictedView(field) || needsView(ResolvableType.forField(field, type), visited)) {
+                    return true;
+                }
+            }
+            for (Method method : current.getDeclaredMethods()) {
+                if (hasRestrictedView(method)) {
+                    return true;
+                }
+            }
+        }
+
+        if (raw.isRecord()) {
+            for (RecordComponent component : raw.getRecordComponents()) {
+                if (hasRestrictedView(component)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasRestrictedView(AnnotatedElement element) {
+        JsonView view = element.getAnnotation(JsonView.class);
+        return view != null && !visibleInBasic(view);
+    }
+
+    private static boolean visibleInBasic(JsonView view) {
+        return view != null && Arrays.stream(view.value()).anyMatch(v -> v.isAssignableFrom(Views.Basic.class));
+    }
+
+    private static boolean isScalar(Class<?> type) {
+        return type.isPrimitive()
+                || type.isEnum()
+                || CharSequence.class.isAssignableFrom(type)
+                || Number.class.isAssignableFrom(type)
+                || Boolean.class.equals(type)
+                || Character.class.equals(type)
+                || StreamingResponseBody.class.isAssignableFrom(type)
+                || Resource.class.isAssignableFrom(type)
+                || type.getName().startsWith("java.");
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.login.aspect.view;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConversionException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Conversor JSON que reutiliza um {@link ObjectWriter} por visualização.
+ * <p>
+ * O conversor padrão do Spring cria um novo {@code ObjectWriter} a cada resposta com {@link MappingJacksonValue}.
+ * Aqui os writers de todas as {@link Views} são criados na inicialização e reaproveitados; os demais casos
+ * (sem visualização, com filtros ou SSE) seguem o fluxo padrão.
+ */
+public class JsonViewHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public JsonViewHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+        Views.ALL.forEach(this::writerFor);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        MediaType contentType = outputMessage.getHeaders().getContentType();
+
+        if (!(object instanceof MappingJacksonValue value)
+                || value.getSerializationView() == null
+                || value.getFilters() != null
+                || MediaType.TEXT_EVENT_STREAM.isCompatibleWith(contentType)) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+
+        ObjectWriter writer = writerFor(value.getSerializationView());
+        JsonEncoding encoding = getJsonEncoding(contentType);
+        try (JsonGenerator generator = writer.createGenerator(StreamUtils.nonClosing(outputMessage.getBody()), encoding)) {
+            writer.writeValue(generator, value.getValue());
+        } catch (InvalidDefinitionException ex) {
+            throw new HttpMessageConversionException("Type definition error: " + ex.getType(), ex);
+        } catch (JsonProcessingException ex) {
+            throw new HttpMessageNotWritableException("Could not write JSON: " + ex.getOriginalMessage(), ex);
+        }
+    }
+
+    private ObjectWriter writerFor(Class<?> view) {
+        return writers.computeIfAbsent(view, v -> getObjectMapper().writerWithView(v));
+    }
+}
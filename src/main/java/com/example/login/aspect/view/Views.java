@@ -1,11 +1,18 @@
 package com.example.login.aspect.view;
 
+import java.util.List;
+
 /**
  * Classe que define diferentes níveis de visualização para serialização JSON.
  * Utilizada para controlar quais campos devem ser incluídos na resposta, dependendo do nível especificado.
  */
 public class Views {
 
+    /**
+     * Todas as visualizações, da mais restrita para a mais completa.
+     */
+    public static final List<Class<?>> ALL = List.of(Basic.class, Regular.class, Details.class, Complete.class);
+
     public static class Basic {}
 
     public static class Regular extends Basic {}
@@ -13,4 +20,23 @@ public class Views {
     public static class Details extends Regular {}
 
     public static class Complete extends Details {}
+
+    /**
+     * Resolve a classe de visualização a partir do nome informado na URI.
+     * Caso o nome seja nulo ou inválido, a visualização padrão ({@link Basic}) é utilizada.
+     *
+     * @param view O nome da visualização (basic, regular, details ou complete).
+     * @return A classe de visualização correspondente.
+     */
+    public static Class<?> resolve(String view) {
+        if (view == null || view.isBlank()) {
+            return Basic.class;
+        }
+        return switch (view.toLowerCase()) {
+            case "regular" -> Regular.class;
+            case "details" -> Details.class;
+            case "complete" -> Complete.class;
+            default -> Basic.class;
+        };
+    }
 }
@@ -0,0 +1,15 @@
+package com.example.login.audit;
+
+import com.example.login.model.collection.AuditLog;
+
+/**
+ * Consumidor em processo dos registros de auditoria, notificado pelo
+ * {@link com.example.login.aspect.logger.LogBuilder} logo após a gravação no {@link com.example.login.audit.sink.AuditSink}.
+ * <p>
+ * As implementações são chamadas na thread da requisição e, portanto, não devem bloquear: qualquer trabalho
+ * custoso deve ser apenas enfileirado.
+ */
+public interface AuditListener {
+
+    void onAudit(AuditLog auditLog);
+}
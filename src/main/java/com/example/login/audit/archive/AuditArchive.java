@@ -0,0 +1,215 @@
+package com.example.login.audit.archive;
+
+import com.example.login.exception.InternalServerErrorException;
+import com.example.login.model.collection.AuditLog;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Armazenamento frio (cold tier) dos registros de auditoria.
+ * <p>
+ * Os registros são gravados no formato colunar de {@link AuditColumnarCodec}, particionados por dia em
+ * subdiretórios {@code yyyy-MM-dd}. Cada lote arquivado gera um novo arquivo imutável na partição do dia.
+ * <p>
+ * O diretório deve ser um armazenamento compartilhado por todas as instâncias (ex: NFS, EFS), pois o arquivamento
+ * roda em uma única instância e as consultas são atendidas por qualquer uma. Com {@code audit.archive.enabled=true},
+ * o {@link AuditArchiveJob} chama {@link #verifySharedStorage()} na inicialização: o identificador gravado em
+ * {@code .storage-id} no diretório é comparado ao registrado no Redis ({@code audit:archive:storage-id}) pela
+ * primeira instância; se divergirem, o diretório não é o mesmo e a inicialização falha. Ao substituir o armazenamento
+ * intencionalmente, remova a chave do Redis. As consultas não criam o diretório.
+ */
+@Slf4j
+@Component
+public class AuditArchive {
+
+    private static final String EXTENSION = ".alc.gz";
+    private static final String STORAGE_ID_FILE = ".storage-id";
+    private static final String STORAGE_ID_KEY = "audit:archive:storage-id";
+
+    private final Path directory;
+    private final StringRedisTemplate redisTemplate;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public AuditArchive(@Value("${audit.archive.directory:audit-archive}") Path directory,
+                        StringRedisTemplate redisTemplate) {
+        this.directory = directory;
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Garante que todas as instâncias enxergam o mesmo diretório de arquivo, criando-o se necessário.
+     *
+     * @throws IllegalStateException Se o diretório não for o registrado pelas demais instâncias.
+     */
+    public void verifySharedStorage() {
+        String localId = readOrCreateStorageId();
+        Boolean registered = redisTemplate.opsForValue().setIfAbsent(STORAGE_ID_KEY, localId);
+        if (Boolean.TRUE.equals(registered)) {
+            return;
+        }
+
+        String clusterId = redisTemplate.opsForValue().get(STORAGE_ID_KEY);
+        if (clusterId != null && !clusterId.equals(localId)) {
+            throw new IllegalStateException("audit.archive.directory (" + directory.toAbsolutePath() + ") não é o "
+                    + "armazenamento compartilhado usado pelas demais instâncias; se ele foi substituído "
+                    + "intencionalmente, remova a chave " + STORAGE_ID_KEY + " do Redis");
+        }
+    }
+
+    private String readOrCreateStorageId() {
+        Path marker = directory.resolve(STORAGE_ID_FILE);
+        try {
+            Files.createDirectories(directory);
+            try {
+                Files.writeString(marker, UUID.randomUUID().toString(), StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.WRITE);
+            } catch (FileAlreadyExistsException e) {
+                // criado por outra instância ou execução anterior
+            }
+            return Files.readString(marker).trim();
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao identificar o diretório de auditoria " + directory, e);
+        }
+    }
+
+    /**
+     * Grava um lote de registros de um mesmo dia e confirma que o arquivo pode ser lido integralmente
+     * antes de torná-lo visível.
+     *
+     * @param day  Dia da partição.
+     * @param logs Registros do dia (todos com {@code startTime} dentro do dia).
+     * @return O caminho do arquivo gravado.
+     * @throws InternalServerErrorException Caso a gravação ou a verificação falhe.
+     */
+    public Path write(LocalDate day, List<AuditLog> logs) {
+        Path partition = directory.resolve(day.toString());
+        String name = "part-" + System.currentTimeMillis() + "-" + sequence.incrementAndGet() + EXTENSION;
+        Path temp = partition.resolve(name + ".tmp");
+        Path target = partition.resolve(name);
+
+        try {
+            Files.createDirectories(partition);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                 OutputStream out = Channels.newOutputStream(channel)) {
+                AuditColumnarCodec.write(logs, out);
+                out.flush();
+                channel.force(true);
+            }
+
+            verify(temp, logs);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            return target;
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new InternalServerErrorException("Falha ao arquivar auditoria do dia " + day + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Busca no arquivo os registros cujo {@code startTime} esteja no intervalo informado.
+     * <p>
+     * Apenas as partições dos dias do intervalo são abertas e, dentro delas, arquivos cujo cabeçalho
+     * indica estar fora do intervalo são ignorados sem descompressão.
+     *
+     * @param from  Início do intervalo (inclusivo).
+     * @param to    Fim do intervalo (inclusivo).
+     * @param limit Quantidade máxima de registros retornados.
+     * @return Os registros encontrados, ordenados por {@code startTime}.
+     */
+    public List<AuditLog> scan(LocalDateTime from, LocalDateTime to, int limit) {
+        List<AuditLog> result = new ArrayList<>();
+
+        for (LocalDate day = from.toLocalDate(); !day.isAfter(to.toLocalDate()) && result.size() < limit; day = day.plusDays(1)) {
+            for (Path file : listFiles(directory.resolve(day.toString()))) {
+                readMatching(file, from, to, result);
+            }
+        }
+
+        return result.stream()
+                .sorted(Comparator.comparing(AuditLog::getStartTime, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .limit(limit)
+                .toList();
+    }
+
+    private void readMatching(Path file, LocalDateTime from, LocalDateTime to, List<AuditLog> result) {
+        try {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+                if (!AuditColumnarCodec.readHeader(in).overlaps(from, to)) {
+                    return;
+                }
+            }
+
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+                AuditColumnarCodec.read(in).stream()
+                        .filter(log -> log.getStartTime() != null
+                                && !log.getStartTime().isBefore(from)
+                                && !log.getStartTime().isAfter(to))
+                        .forEach(result::add);
+            }
+        } catch (IOException e) {
+            log.warn("Arquivo de auditoria arquivada ilegível: {}", file, e);
+        }
+    }
+
+    private void verify(Path file, List<AuditLog> expected) throws IOException {
+        List<AuditLog> written;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            written = AuditColumnarCodec.read(in);
+        }
+
+        if (written.size() != expected.size()) {
+            throw new IOException("quantidade de registros divergente após gravação");
+        }
+        for (int i = 0; i < written.size(); i++) {
+            if (!Objects.equals(written.get(i).getId(), expected.get(i).getId())) {
+                throw new IOException("registro " + expected.get(i).getId() + " divergente após gravação");
+            }
+        }
+    }
+
+    private List<Path> listFiles(Path partition) {
+        if (!Files.isDirectory(partition)) {
+            return List.of();
+        }
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(partition, "*" + EXTENSION)) {
+            List<Path> files = new ArrayList<>();
+            stream.forEach(files::add);
+            return files;
+        } catch (IOException e) {
+            log.warn("Falha ao listar partição de auditoria {}", partition, e);
+            return List.of();
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Falha ao remover arquivo temporário {}", file, e);
+        }
+    }
+}
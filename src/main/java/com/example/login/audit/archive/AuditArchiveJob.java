@@ -0,0 +1,109 @@
+package com.example.login.audit.archive;
+
+import com.example.login.lock.ClusterLock;
+import com.example.login.model.collection.AuditLog;
+import com.example.login.repository.mongo.AuditLogRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Tarefa agendada que move os registros de auditoria antigos do MongoDB para o {@link AuditArchive}.
+ * <p>
+ * Os registros mais antigos que {@code audit.archive.retention-days} são lidos em lotes ordenados por
+ * {@code startTime}, gravados por dia no arquivo colunar e, somente após a verificação do arquivo, removidos
+ * do MongoDB com uma única operação de exclusão por lote. Assim a coleção {@code auditLogs} permanece pequena
+ * e seus índices cabem em memória.
+ * <p>
+ * Com várias instâncias, apenas a que obtém a trava {@code audit-archive} no Redis executa cada agendamento (a trava
+ * expira após {@code audit.archive.lock-lease}, caso a instância caia). O diretório do arquivo deve ser compartilhado
+ * entre as instâncias, o que é verificado na inicialização ({@link AuditArchive#verifySharedStorage()}).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "audit.archive.enabled", havingValue = "true")
+public class AuditArchiveJob {
+
+    private final AuditArchive auditArchive;
+    private final MongoTemplate mongoTemplate;
+    private final AuditLogRepository auditLogRepository;
+    private final ClusterLock clusterLock;
+
+    @Value("${audit.archive.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${audit.archive.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${audit.archive.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    @Value("${audit.archive.lock-lease:2h}")
+    private Duration lockLease;
+
+    /**
+     * Verifica o diretório compartilhado do arquivo e garante o índice em {@code startTime}, necessário para localizar
+     * os registros antigos sem varrer a coleção.
+     */
+    @PostConstruct
+    public void initialize() {
+        auditArchive.verifySharedStorage();
+        mongoTemplate.indexOps(AuditLog.class).ensureIndex(new Index().on("startTime", Sort.Direction.ASC));
+    }
+
+    /**
+     * Executa o arquivamento conforme o agendamento configurado em {@code audit.archive.cron}.
+     */
+    @Scheduled(cron = "${audit.archive.cron:0 30 3 * * *}")
+    public void archive() {
+        if (!clusterLock.runExclusive("audit-archive", lockLease, this::archiveOldLogs)) {
+            log.info("Arquivamento de auditoria ignorado: em execução em outra instância");
+        }
+    }
+
+    private void archiveOldLogs() {
+        LocalDateTime cutoff = LocalDate.now().minusDays(retentionDays).atStartOfDay();
+        long archived = 0;
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<AuditLog> logs = auditLogRepository.findByStartTimeBefore(
+                    cutoff, PageRequest.of(0, batchSize, Sort.by("startTime")));
+            if (logs.isEmpty()) {
+                break;
+            }
+
+            archived += archiveBatch(logs);
+        }
+
+        log.info("Arquivamento de auditoria concluído: {} registros anteriores a {}", archived, cutoff);
+    }
+
+    private int archiveBatch(List<AuditLog> logs) {
+        Map<LocalDate, List<AuditLog>> byDay = logs.stream()
+                .collect(Collectors.groupingBy(l -> l.getStartTime().toLocalDate(), TreeMap::new, Collectors.toList()));
+
+        byDay.forEach((day, dayLogs) -> {
+            auditArchive.write(day, dayLogs);
+            auditLogRepository.deleteAllById(dayLogs.stream().map(AuditLog::getId).toList());
+        });
+
+        return logs.size();
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.login.audit.archive;
+
+import com.example.login.enums.Role;
+import com.example.login.model.collection.AuditLog;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Codificador do formato colunar utilizado no arquivamento de {@link AuditLog}.
+ * <p>
+ * Estrutura do arquivo:
+ * <pre>
+ * cabeçalho (não comprimido): magic "ALC1" | quantidade de linhas | menor startTime | maior startTime
+ * corpo (gzip): uma coluna após a outra, na ordem de {@link #STRING_COLUMNS} seguida das colunas numéricas
+ * </pre>
+ * Colunas de texto são gravadas com dicionário (valores distintos + índices), o que reduz bastante colunas
+ * repetitivas como {@code level}, {@code className} e {@code methodName}. Colunas numéricas e datas são
+ * gravadas como deltas em varint. O cabeçalho permite descartar arquivos fora do intervalo consultado sem
+ * descomprimi-los.
+ */
+public final class AuditColumnarCodec {
+
+    private static final int MAGIC = 0x414C4331; // "ALC1"
+
+    private static final List<Column<String>> STRING_COLUMNS = List.of(
+            new Column<>(AuditLog::getId, AuditLog::setId),
+            new Column<>(AuditLog::getLevel, AuditLog::setLevel),
+            new Column<>(AuditLog::getClassName, AuditLog::setClassName),
+            new Column<>(AuditLog::getMethodName, AuditLog::setMethodName),
+            new Column<>(AuditLog::getDetails, AuditLog::setDetails),
+            new Column<>(AuditLog::getParameters, AuditLog::setParameters),
+            new Column<>(AuditLog::getException, AuditLog::setException),
+            new Column<>(AuditLog::getIp, AuditLog::setIp),
+            new Column<>(a -> a.getUserRole() != null ? a.getUserRole().name() : null,
+                    (a, v) -> a.setUserRole(v != null ? Role.valueOf(v) : null)));
+
+    private static final List<Column<Long>> LONG_COLUMNS = List.of(
+            new Column<>(AuditLog::getUserId, AuditLog::setUserId),
+            new Column<>(a -> toEpochMillis(a.getStartTime()), (a, v) -> a.setStartTime(fromEpochMillis(v))),
+            new Column<>(a -> toEpochMillis(a.getEndTime()), (a, v) -> a.setEndTime(fromEpochMillis(v))),
+            new Column<>(AuditLog::getTimeExecution, AuditLog::setTimeExecution));
+
+    private AuditColumnarCodec() {
+    }
+
+    /**
+     * Cabeçalho de um arquivo arquivado.
+     *
+     * @param rowCount  Quantidade de registros no arquivo.
+     * @param minStart  Menor {@code startTime} do arquivo (epoch millis UTC).
+     * @param maxStart  Maior {@code startTime} do arquivo (epoch millis UTC).
+     */
+    public record Header(int rowCount, long minStart, long maxStart) {
+
+        public boolean overlaps(LocalDateTime from, LocalDateTime to) {
+            return maxStart >= toEpochMillis(from) && minStart <= toEpochMillis(to);
+        }
+    }
+
+    /**
+     * Grava os registros no formato colunar.
+     *
+     * @param logs Registros a serem gravados.
+     * @param out  Destino dos bytes. Não é fechado por este método.
+     */
+    public static void write(List<AuditLog> logs, OutputStream out) throws IOException {
+        long min = logs.stream().map(AuditLog::getStartTime).mapToLong(AuditColumnarCodec::toEpochMillisOrZero).min().orElse(0);
+        long max = logs.stream().map(AuditLog::getStartTime).mapToLong(AuditColumnarCodec::toEpochMillisOrZero).max().orElse(0);
+
+        DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(MAGIC);
+        header.writeInt(logs.size());
+        header.writeLong(min);
+        header.writeLong(max);
+        header.flush();
+
+        GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024);
+        DataOutputStream body = new DataOutputStream(gzip);
+        for (Column<String> column : STRING_COLUMNS) {
+            writeStringColumn(body, logs, column.getter());
+        }
+        for (Column<Long> column : LONG_COLUMNS) {
+            writeLongColumn(body, logs, column.getter());
+        }
+        body.flush();
+        gzip.finish();
+    }
+
+    /**
+     * Lê apenas o cabeçalho de um arquivo.
+     */
+    public static Header readHeader(InputStream in) throws IOException {
+        DataInputStream header = new DataInputStream(in);
+        if (header.readInt() != MAGIC) {
+            throw new IOException("Arquivo de auditoria arquivada inválido");
+        }
+        return new Header(header.readInt(), header.readLong(), header.readLong());
+    }
+
+    /**
+     * Lê todos os registros de um arquivo.
+     */
+    public static List<AuditLog> read(InputStream in) throws IOException {
+        Header header = readHeader(in);
+        int rows = header.rowCount();
+
+        List<AuditLog> logs = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            logs.add(AuditLog.builder().build());
+        }
+
+        DataInputStream body = new DataInputStream(new GZIPInputStream(in, 64 * 1024));
+        for (Column<String> column : STRING_COLUMNS) {
+            readStringColumn(body, logs, column.setter());
+        }
+        for (Column<Long> column : LONG_COLUMNS) {
+            readLongColumn(body, logs, column.setter());
+        }
+        return logs;
+    }
+
+    private static void writeStringColumn(DataOutputStream out, List<AuditLog> logs,
+                                          Function<AuditLog, String> getter) throws IOException {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> values = new ArrayList<>();
+        int[] indexes = new int[logs.size()];
+
+        for (int i = 0; i < logs.size(); i++) {
+            String value = getter.apply(logs.get(i));
+            if (value == null) {
+                indexes[i] = 0;
+                continue;
+            }
+            Integer index = dictionary.get(value);
+            if (index == null) {
+                values.add(value);
+                index = values.size();
+                dictionary.put(value, index);
+            }
+            indexes[i] = index; // 0 representa null
+        }
+
+        writeVarInt(out, values.size());
+        for (String value : values) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        }
+        for (int index : indexes) {
+            writeVarInt(out, index);
+        }
+    }
+
+    private static void readStringColumn(DataInputStream in, List<AuditLog> logs,
+                                         BiConsumer<AuditLog, String> setter) throws IOException {
+        int size = readVarInt(in);
+        String[] values = new String[size + 1];
+        for (int i = 1; i <= size; i++) {
+            byte[] bytes = new byte[readVarInt(in)];
+            in.readFully(bytes);
+            values[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        for (AuditLog log : logs) {
+            setter.accept(log, values[readVarInt(in)]);
+        }
+    }
+
+    private static void writeLongColumn(DataOutputStream out, List<AuditLog> logs,
+                                        Function<AuditLog, Long> getter) throws IOException {
+        BitSet present = new BitSet(logs.size());
+        for (int i = 0; i < logs.size(); i++) {
+            if (getter.apply(logs.get(i)) != null) {
+                present.set(i);
+            }
+        }
+
+        byte[] bitmap = present.toByteArray();
+        writeVarInt(out, bitmap.length);
+        out.write(bitmap);
+
+        long previous = 0;
+        for (AuditLog log : logs) {
+            Long value = getter.apply(log);
+            if (value != null) {
+                writeVarLong(out, zigZag(value - previous));
+                previous = value;
+            }
+        }
+    }
+
+    private static void readLongColumn(DataInputStream in, List<AuditLog> logs,
+                                       BiConsumer<AuditLog, Long> setter) throws IOException {
+        byte[] bitmap = new byte[readVarInt(in)];
+        in.readFully(bitmap);
+        BitSet present = BitSet.valueOf(bitmap);
+
+        long previous = 0;
+        for (int i = 0; i < logs.size(); i++) {
+            if (present.get(i)) {
+                previous += unZigZag(readVarLong(in));
+                setter.accept(logs.get(i), previous);
+            }
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        return (int) readVarLong(in);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Varint malformado");
+    }
+
+    static Long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toInstant(ZoneOffset.UTC).toEpochMilli() : null;
+    }
+
+    private static long toEpochMillisOrZero(LocalDateTime dateTime) {
+        return dateTime != null ? toEpochMillis(dateTime) : 0L;
+    }
+
+    private static LocalDateTime fromEpochMillis(Long epochMillis) {
+        return epochMillis != null
+                ? LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000),
+                (int) Math.floorMod(epochMillis, 1000) * 1_000_000, ZoneOffset.UTC)
+                : null;
+    }
+
+    private record Column<T>(Function<AuditLog, T> getter, BiConsumer<AuditLog, T> setter) {
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.login.audit.search;
+
+import com.example.login.enums.Role;
+import com.example.login.model.collection.AuditLog;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.core.KeywordAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexableField;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+/**
+ * Mapeamento entre {@link AuditLog} e documentos do índice textual.
+ * <p>
+ * Campos de texto livre ({@code details}, {@code parameters}, {@code exception}) são analisados para busca
+ * por termos e frases. Campos categóricos ({@code level}, {@code className}, {@code methodName},
+ * {@code userRole}, {@code ip}) são indexados sem análise, exigindo o valor exato. {@code userId} e
+ * {@code startTime} são indexados como pontos numéricos para consultas por intervalo.
+ */
+final class AuditDocuments {
+
+    static final String ID = "id";
+    static final String LEVEL = "level";
+    static final String CLASS_NAME = "className";
+    static final String METHOD_NAME = "methodName";
+    static final String DETAILS = "details";
+    static final String PARAMETERS = "parameters";
+    static final String EXCEPTION = "exception";
+    static final String USER_ID = "userId";
+    static final String USER_ROLE = "userRole";
+    static final String IP = "ip";
+    static final String START_TIME = "startTime";
+    static final String TIME_EXECUTION = "timeExecution";
+
+    static final String[] TEXT_FIELDS = {DETAILS, PARAMETERS, EXCEPTION};
+
+    private AuditDocuments() {
+    }
+
+    static Analyzer analyzer() {
+        KeywordAnalyzer keyword = new KeywordAnalyzer();
+        return new PerFieldAnalyzerWrapper(new StandardAnalyzer(), Map.of(
+                ID, keyword,
+                LEVEL, keyword,
+                CLASS_NAME, keyword,
+                METHOD_NAME, keyword,
+                USER_ROLE, keyword,
+                IP, keyword));
+    }
+
+    static Document toDocument(AuditLog auditLog) {
+        Document doc = new Document();
+        addKeyword(doc, ID, auditLog.getId());
+        addKeyword(doc, LEVEL, auditLog.getLevel());
+        addKeyword(doc, CLASS_NAME, auditLog.getClassName());
+        addKeyword(doc, METHOD_NAME, auditLog.getMethodName());
+        addKeyword(doc, USER_ROLE, auditLog.getUserRole() != null ? auditLog.getUserRole().name() : null);
+        addKeyword(doc, IP, auditLog.getIp());
+        addText(doc, DETAILS, auditLog.getDetails());
+        addText(doc, PARAMETERS, auditLog.getParameters());
+        addText(doc, EXCEPTION, auditLog.getException());
+
+        if (auditLog.getUserId() != null) {
+            doc.add(new LongPoint(USER_ID, auditLog.getUserId()));
+            doc.add(new StoredField(USER_ID, auditLog.getUserId()));
+        }
+        if (auditLog.getTimeExecution() != null) {
+            doc.add(new StoredField(TIME_EXECUTION, auditLog.getTimeExecution()));
+        }
+
+        long start = toEpochMillis(auditLog.getStartTime());
+        doc.add(new LongPoint(START_TIME, start));
+        doc.add(new NumericDocValuesField(START_TIME, start));
+        doc.add(new StoredField(START_TIME, start));
+        return doc;
+    }
+
+    static AuditLog fromDocument(Document doc) {
+        String role = doc.get(USER_ROLE);
+        return AuditLog.builder()
+                .id(doc.get(ID))
+                .level(doc.get(LEVEL))
+                .className(doc.get(CLASS_NAME))
+                .methodName(doc.get(METHOD_NAME))
+                .details(doc.get(DETAILS))
+                .parameters(doc.get(PARAMETERS))
+                .exception(doc.get(EXCEPTION))
+                .userId(numeric(doc, USER_ID))
+                .userRole(role != null ? Role.valueOf(role) : null)
+                .ip(doc.get(IP))
+                .startTime(fromEpochMillis(numeric(doc, START_TIME)))
+                .timeExecution(numeric(doc, TIME_EXECUTION))
+                .build();
+    }
+
+    static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime fromEpochMillis(Long epochMillis) {
+        return epochMillis != null
+                ? LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC)
+                : null;
+    }
+
+    private static Long numeric(Document doc, String name) {
+        IndexableField field = doc.getField(name);
+        return field != null && field.numericValue() != null ? field.numericValue().longValue() : null;
+    }
+
+    private static void addKeyword(Document doc, String name, String value) {
+        if (value != null) {
+            doc.add(new StringField(name, value, Field.Store.YES));
+        }
+    }
+
+    private static void addText(Document doc, String name, String value) {
+        if (value != null) {
+            doc.add(new TextField(name, value, Field.Store.YES));
+        }
+    }
+}
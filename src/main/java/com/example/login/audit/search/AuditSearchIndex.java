@@ -0,0 +1,453 @@
+package com.example.login.audit.search;
+
+import com.example.login.audit.AuditListener;
+import com.example.login.exception.BadRequestException;
+import com.example.login.exception.InternalServerErrorException;
+import com.example.login.model.collection.AuditLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.MultiReader;
+import org.apache.lucene.queryparser.flexible.core.QueryNodeException;
+import org.apache.lucene.queryparser.flexible.standard.StandardQueryParser;
+import org.apache.lucene.queryparser.flexible.standard.config.PointsConfig;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.IOUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.DecimalFormat;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Índice textual embarcado (Apache Lucene) dos registros de auditoria, para buscas forenses sem varrer o MongoDB.
+ * <p>
+ * Os registros recebidos do pipeline de auditoria são apenas enfileirados; uma thread dedicada os indexa em
+ * lotes e publica as alterações a cada {@code audit.search.refresh-interval}. Se a fila estiver cheia, o
+ * registro deixa de ser indexado (o destino principal de auditoria não é afetado).
+ * <p>
+ * Cada dia possui seu próprio índice em {@code audit.search.directory/yyyy-MM-dd}, de forma que a retenção
+ * remove diretórios inteiros, sem exclusões documento a documento. O índice de um dia é aberto para escrita
+ * quando recebe registros e volta a ser apenas de leitura depois de {@code audit.search.writer-idle-timeout}
+ * sem gravações (exceto o dia atual). Cada índice aberto é contado por referência: ao ser substituído ou
+ * removido, só é fechado depois que as buscas em andamento o liberam.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "audit.search.enabled", havingValue = "true")
+public class AuditSearchIndex implements AuditListener {
+
+    private static final Sort NEWEST_FIRST = new Sort(new SortField(AuditDocuments.START_TIME, SortField.Type.LONG, true));
+
+    private final Path directory;
+    private final int retentionDays;
+    private final Duration refreshInterval;
+    private final Duration writerIdleTimeout;
+    private final BlockingQueue<AuditLog> queue;
+    private final Analyzer analyzer = AuditDocuments.analyzer();
+    private final Map<LocalDate, DayIndex> days = new ConcurrentHashMap<>();
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    private volatile boolean running = true;
+    private Thread indexer;
+
+    public AuditSearchIndex(@Value("${audit.search.directory:audit-index}") Path directory,
+                            @Value("${audit.search.retention-days:30}") int retentionDays,
+                            @Value("${audit.search.queue-size:10000}") int queueSize,
+                            @Value("${audit.search.refresh-interval:2s}") Duration refreshInterval,
+                            @Value("${audit.search.writer-idle-timeout:10m}") Duration writerIdleTimeout) {
+        this.directory = directory;
+        this.retentionDays = retentionDays;
+        this.refreshInterval = refreshInterval;
+        this.writerIdleTimeout = writerIdleTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+    }
+
+    @PostConstruct
+    public void start() {
+        indexer = Thread.ofPlatform().daemon().name("audit-indexer").start(this::indexLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        indexer.interrupt();
+        indexer.join(TimeUnit.SECONDS.toMillis(10));
+        days.values().forEach(DayIndex::retire);
+        days.clear();
+    }
+
+    @Override
+    public void onAudit(AuditLog auditLog) {
+        if (!queue.offer(auditLog)) {
+            droppedEvents.incrementAndGet();
+        }
+    }
+
+    /**
+     * Quantidade de registros não indexados porque a fila estava cheia.
+     */
+    public long droppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Busca registros de auditoria no intervalo informado.
+     * <p>
+     * A consulta usa a sintaxe do Lucene: termos ({@code timeout}), frases ({@code "senha inválida"}), campos
+     * ({@code level:ERROR}, {@code methodName:login}, {@code userId:42}, {@code userId:[1 TO 10]}) e operadores
+     * ({@code AND}, {@code OR}, {@code NOT}). Termos sem campo são buscados em {@code details},
+     * {@code parameters} e {@code exception}.
+     *
+     * @param queryText Consulta; vazia ou nula retorna todos os registros do intervalo.
+     * @param from      Início do intervalo (inclusivo).
+     * @param to        Fim do intervalo (inclusivo).
+     * @param limit     Quantidade máxima de resultados.
+     * @return Os registros encontrados, do mais recente para o mais antigo.
+     * @throws BadRequestException Caso a consulta seja inválida.
+     */
+    public List<AuditLog> search(String queryText, LocalDateTime from, LocalDateTime to, int limit) {
+        Query query = new BooleanQuery.Builder()
+                .add(parse(queryText), BooleanClause.Occur.MUST)
+                .add(LongPoint.newRangeQuery(AuditDocuments.START_TIME,
+                        AuditDocuments.toEpochMillis(from), AuditDocuments.toEpochMillis(to)), BooleanClause.Occur.FILTER)
+                .build();
+
+        List<DayIndex> targets = new ArrayList<>();
+        try {
+            for (LocalDate day = from.toLocalDate(); !day.isAfter(to.toLocalDate()); day = day.plusDays(1)) {
+                DayIndex dayIndex = acquireForRead(day);
+                if (dayIndex != null) {
+                    targets.add(dayIndex);
+                }
+            }
+            if (targets.isEmpty()) {
+                return List.of();
+            }
+
+            return search(targets, query, limit);
+        } finally {
+            targets.forEach(DayIndex::release);
+        }
+    }
+
+    /**
+     * Remove os índices dos dias fora da retenção. Executado diariamente.
+     */
+    @Scheduled(cron = "${audit.search.retention-cron:0 0 4 * * *}")
+    public void applyRetention() {
+        LocalDate oldestKept = LocalDate.now().minusDays(retentionDays);
+
+        for (LocalDate day : existingDays()) {
+            if (day.isBefore(oldestKept)) {
+                DayIndex dayIndex = days.remove(day);
+                if (dayIndex != null) {
+                    dayIndex.retire();
+                }
+                try {
+                    IOUtils.rm(dayPath(day));
+                    log.info("Índice de auditoria de {} removido pela retenção", day);
+                } catch (IOException e) {
+                    log.warn("Falha ao remover índice de auditoria de {}", day, e);
+                }
+            }
+        }
+    }
+
+    private List<AuditLog> search(List<DayIndex> targets, Query query, int limit) {
+        List<IndexSearcher> acquired = new ArrayList<>();
+        try {
+            for (DayIndex target : targets) {
+                acquired.add(target.searcherManager.acquire());
+            }
+
+            IndexReader[] readers = acquired.stream().map(IndexSearcher::getIndexReader).toArray(IndexReader[]::new);
+            try (MultiReader reader = new MultiReader(readers, false)) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                TopFieldDocs top = searcher.search(query, limit, NEWEST_FIRST);
+
+                List<AuditLog> result = new ArrayList<>(top.scoreDocs.length);
+                for (ScoreDoc scoreDoc : top.scoreDocs) {
+                    Document doc = searcher.storedFields().document(scoreDoc.doc);
+                    result.add(AuditDocuments.fromDocument(doc));
+                }
+                return result;
+            }
+        } catch (IOException e) {
+            throw new InternalServerErrorException("Falha na busca do índice de auditoria");
+        } finally {
+            for (int i = 0; i < acquired.size(); i++) {
+                releaseQuietly(targets.get(i).searcherManager, acquired.get(i));
+            }
+        }
+    }
+
+    private Query parse(String queryText) {
+        if (queryText == null || queryText.isBlank()) {
+            return new MatchAllDocsQuery();
+        }
+
+        StandardQueryParser parser = new StandardQueryParser(analyzer);
+        parser.setMultiFields(AuditDocuments.TEXT_FIELDS);
+        parser.setPointsConfigMap(Map.of(
+                AuditDocuments.USER_ID, new PointsConfig(new DecimalFormat("0"), Long.class)));
+        try {
+            return parser.parse(queryText, AuditDocuments.DETAILS);
+        } catch (QueryNodeException e) {
+            throw new BadRequestException("Consulta inválida: " + e.getMessage());
+        }
+    }
+
+    private void indexLoop() {
+        long nextRefresh = System.nanoTime() + refreshInterval.toNanos();
+        List<AuditLog> batch = new ArrayList<>();
+
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditLog first = queue.poll(refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, 1000);
+                    index(batch);
+                    batch.clear();
+                }
+
+                if (System.nanoTime() >= nextRefresh) {
+                    commitAndRefresh();
+                    nextRefresh = System.nanoTime() + refreshInterval.toNanos();
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Falha ao indexar registros de auditoria", e);
+            }
+        }
+
+        try {
+            commitAndRefresh();
+        } catch (IOException e) {
+            log.warn("Falha ao gravar o índice de auditoria no encerramento", e);
+        }
+    }
+
+    private void index(List<AuditLog> batch) throws IOException {
+        for (AuditLog auditLog : batch) {
+            if (auditLog.getStartTime() == null) {
+                continue;
+            }
+            DayIndex dayIndex = openForWrite(auditLog.getStartTime().toLocalDate());
+            dayIndex.writer.addDocument(AuditDocuments.toDocument(auditLog));
+            dayIndex.lastWrite = System.nanoTime();
+        }
+    }
+
+    private void commitAndRefresh() throws IOException {
+        LocalDate today = LocalDate.now();
+
+        for (Map.Entry<LocalDate, DayIndex> entry : days.entrySet()) {
+            DayIndex dayIndex = entry.getValue();
+            if (dayIndex.writer == null) {
+                continue;
+            }
+
+            if (dayIndex.writer.hasUncommittedChanges()) {
+                dayIndex.writer.commit();
+                dayIndex.searcherManager.maybeRefresh();
+            } else if (entry.getKey().isBefore(today)
+                    && System.nanoTime() - dayIndex.lastWrite >= writerIdleTimeout.toNanos()
+                    && days.remove(entry.getKey(), dayIndex)) {
+                // Dias passados raramente recebem registros atrasados: o escritor é liberado e o dia volta a
+                // ser aberto apenas para leitura na próxima busca.
+                dayIndex.retire();
+                log.debug("Escritor do índice de auditoria de {} fechado por inatividade", entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Retorna o índice do dia aberto para escrita, substituindo de forma atômica um índice aberto antes apenas
+     * para leitura. O índice substituído é fechado quando as buscas que o utilizam terminam.
+     */
+    private DayIndex openForWrite(LocalDate day) throws IOException {
+        DayIndex current = days.get(day);
+        if (current != null && current.writer != null) {
+            return current;
+        }
+
+        DayIndex[] replaced = new DayIndex[1];
+        DayIndex dayIndex;
+        try {
+            dayIndex = days.compute(day, (d, existing) -> {
+                if (existing != null && existing.writer != null) {
+                    return existing;
+                }
+                replaced[0] = existing;
+                return openWriter(d);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (replaced[0] != null) {
+            replaced[0].retire();
+        }
+        return dayIndex;
+    }
+
+    private DayIndex openWriter(LocalDate day) {
+        Directory dir = null;
+        try {
+            dir = FSDirectory.open(dayPath(day));
+            IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+            return new DayIndex(dir, writer, new SearcherManager(writer, null));
+        } catch (IOException e) {
+            IOUtils.closeWhileHandlingException(dir);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Retorna o índice do dia com uma referência adquirida, que deve ser liberada com {@link DayIndex#release()}.
+     * Se o índice for substituído entre a consulta ao mapa e a aquisição, a instância nova é utilizada.
+     */
+    private DayIndex acquireForRead(LocalDate day) {
+        while (true) {
+            DayIndex dayIndex = openForRead(day);
+            if (dayIndex == null || dayIndex.retain()) {
+                return dayIndex;
+            }
+        }
+    }
+
+    private DayIndex openForRead(LocalDate day) {
+        return days.computeIfAbsent(day, d -> {
+            Path path = dayPath(d);
+            try {
+                if (!Files.isDirectory(path)) {
+                    return null;
+                }
+                Directory dir = FSDirectory.open(path);
+                if (!DirectoryReader.indexExists(dir)) {
+                    dir.close();
+                    return null;
+                }
+                return new DayIndex(dir, null, new SearcherManager(dir, null));
+            } catch (IOException e) {
+                throw new InternalServerErrorException("Falha ao abrir índice de auditoria de " + d);
+            }
+        });
+    }
+
+    private List<LocalDate> existingDays() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+
+        try (Stream<Path> dirs = Files.list(directory)) {
+            return dirs.map(dir -> dir.getFileName().toString())
+                    .filter(name -> name.matches("\\d{4}-\\d{2}-\\d{2}"))
+                    .map(LocalDate::parse)
+                    .toList();
+        } catch (IOException e) {
+            log.warn("Falha ao listar índices de auditoria em {}", directory, e);
+            return List.of();
+        }
+    }
+
+    private Path dayPath(LocalDate day) {
+        return directory.resolve(day.toString());
+    }
+
+    private static void releaseQuietly(SearcherManager manager, IndexSearcher searcher) {
+        try {
+            manager.release(searcher);
+        } catch (IOException e) {
+            log.warn("Falha ao liberar leitor do índice de auditoria", e);
+        }
+    }
+
+    /**
+     * Índice de um dia. Dias sem gravações recentes são abertos apenas para leitura ({@code writer} nulo).
+     * <p>
+     * A referência inicial pertence ao mapa {@code days} e é liberada por {@link #retire()}; cada busca adquire
+     * uma referência própria. O leitor e o diretório são fechados quando a última referência é liberada.
+     */
+    private static final class DayIndex {
+
+        private final Directory directory;
+        private final IndexWriter writer;
+        private final SearcherManager searcherManager;
+        private final AtomicInteger references = new AtomicInteger(1);
+        private volatile long lastWrite = System.nanoTime();
+
+        private DayIndex(Directory directory, IndexWriter writer, SearcherManager searcherManager) {
+            this.directory = directory;
+            this.writer = writer;
+            this.searcherManager = searcherManager;
+        }
+
+        /**
+         * Adquire uma referência; falha se o índice já foi fechado.
+         */
+        boolean retain() {
+            for (int count = references.get(); count > 0; count = references.get()) {
+                if (references.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Libera a referência do mapa. O escritor é fechado imediatamente, liberando o lock do diretório para um
+         * novo escritor; os leitores já adquiridos continuam válidos até serem liberados.
+         */
+        void retire() {
+            IOUtils.closeWhileHandlingException(writer);
+            release();
+        }
+
+        void release() {
+            if (references.decrementAndGet() == 0) {
+                IOUtils.closeWhileHandlingException(searcherManager, writer, directory);
+            }
+        }
+    }
+}
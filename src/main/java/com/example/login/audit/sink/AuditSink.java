@@ -0,0 +1,32 @@
+package com.example.login.audit.sink;
+
+import com.example.login.model.collection.AuditLog;
+
+/**
+ * Destino dos registros de auditoria gerados pelo {@link com.example.login.aspect.logger.LogBuilder}.
+ * <p>
+ * Cada implementação decide onde e como o registro é persistido (MongoDB, arquivo local, vários destinos
+ * ao mesmo tempo ou nenhum). A implementação ativa é escolhida pela propriedade {@code audit.sink.type}.
+ */
+public interface AuditSink extends AutoCloseable {
+
+    /**
+     * Persiste um registro de auditoria.
+     *
+     * @param auditLog O registro a ser gravado.
+     */
+    void write(AuditLog auditLog);
+
+    /**
+     * Força a gravação de dados que estejam em buffer.
+     */
+    default void flush() {
+    }
+
+    /**
+     * Libera os recursos do destino. Chamado pelo Spring no encerramento da aplicação.
+     */
+    @Override
+    default void close() {
+    }
+}
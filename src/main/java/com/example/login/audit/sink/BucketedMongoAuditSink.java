@@ -0,0 +1,135 @@
+package com.example.login.audit.sink;
+
+import com.example.login.model.collection.AuditBucket;
+import com.example.login.model.collection.AuditLog;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.HashedIndex;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Grava os registros de auditoria em documentos {@link AuditBucket}, um por usuário e por hora.
+ * <p>
+ * Cada gravação é um único upsert: o evento é adicionado ao bucket da hora que ainda tem espaço
+ * ({@code count < maxEvents}); quando não existe, o MongoDB cria um novo bucket com a mesma {@code shardKey}.
+ * Isso reduz a quantidade de documentos (e o tamanho do índice {@code _id}) em até {@code maxEvents} vezes.
+ * <p>
+ * O índice único parcial {@value #OPEN_INDEX} ({@code shardKey} dos buckets com espaço) impede que gravações
+ * concorrentes criem dois buckets abertos para a mesma chave: o upsert perdedor recebe erro de chave duplicada e é
+ * repetido, encontrando o bucket criado pelo vencedor.
+ * <p>
+ * Os eventos anônimos (sem usuário, como logins com falha e cadastros) são distribuídos entre
+ * {@code audit.sink.bucket.anonymous-spread} chaves por hora, pelo hash do IP, para não concentrar as gravações em
+ * um único shard e em documentos enormes.
+ */
+@Slf4j
+public class BucketedMongoAuditSink implements AuditSink {
+
+    static final String OPEN_INDEX = "shardKey_open";
+
+    private static final DateTimeFormatter HOUR = DateTimeFormatter.ofPattern("yyyyMMddHH");
+    private static final int MAX_UPSERT_ATTEMPTS = 3;
+
+    private final MongoTemplate mongoTemplate;
+    private final int maxEvents;
+    private final int anonymousSpread;
+
+    public BucketedMongoAuditSink(MongoTemplate mongoTemplate, int maxEvents, int anonymousSpread) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxEvents = maxEvents;
+        this.anonymousSpread = Math.max(1, anonymousSpread);
+
+        IndexOperations indexOps = mongoTemplate.indexOps(AuditBucket.class);
+        indexOps.ensureIndex(HashedIndex.hashed("shardKey"));
+        indexOps.ensureIndex(new Index().on("userId", Sort.Direction.ASC).on("bucketStart", Sort.Direction.ASC));
+        ensureOpenIndex(indexOps);
+    }
+
+    @Override
+    public void write(AuditLog auditLog) {
+        LocalDateTime bucketStart = auditLog.getStartTime().truncatedTo(ChronoUnit.HOURS);
+        String shardKey = shardKey(auditLog.getUserId(), auditLog.getIp(), bucketStart, anonymousSpread);
+
+        Query query = new Query(where("shardKey").is(shardKey).and("count").lt(maxEvents));
+        Update update = new Update()
+                .push("events", auditLog)
+                .inc("count", 1)
+                .setOnInsert("userId", auditLog.getUserId())
+                .setOnInsert("bucketStart", bucketStart);
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                mongoTemplate.upsert(query, update, AuditBucket.class);
+                return;
+            } catch (DuplicateKeyException e) {
+                if (attempt >= MAX_UPSERT_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Monta a chave de shard do bucket: {@code <userId>:<yyyyMMddHH>} ou, sem usuário,
+     * {@code anonymous-<n>:<yyyyMMddHH>}, com {@code n} derivado do IP (aleatório quando não há IP).
+     */
+    public static String shardKey(Long userId, String ip, LocalDateTime bucketStart, int anonymousSpread) {
+        if (userId != null) {
+            return userId + ":" + HOUR.format(bucketStart);
+        }
+        int slot = ip != null
+                ? Math.floorMod(ip.hashCode(), anonymousSpread)
+                : ThreadLocalRandom.current().nextInt(anonymousSpread);
+        return "anonymous-" + slot + ":" + HOUR.format(bucketStart);
+    }
+
+    /**
+     * Cria o índice único dos buckets abertos; se ele existir com outro limite de eventos (alteração de
+     * {@code audit.sink.bucket.max-events}), é recriado.
+     */
+    private void ensureOpenIndex(IndexOperations indexOps) {
+        Index open = new Index().on("shardKey", Sort.Direction.ASC).unique().named(OPEN_INDEX)
+                .partial(PartialIndexFilter.of(where("count").lt(maxEvents)));
+
+        boolean outdated = indexOps.getIndexInfo().stream()
+                .filter(info -> info.getName().equals(OPEN_INDEX))
+                .map(IndexInfo::getPartialFilterExpression)
+                .anyMatch(filter -> !limitedTo(filter, maxEvents));
+        if (outdated) {
+            log.info("Recriando o índice {} para max-events={}", OPEN_INDEX, maxEvents);
+            indexOps.dropIndex(OPEN_INDEX);
+        }
+        indexOps.ensureIndex(open);
+    }
+
+    /**
+     * Indica se o filtro parcial do índice é {@code count < maxEvents}.
+     */
+    private static boolean limitedTo(String filter, int maxEvents) {
+        if (filter == null) {
+            return false;
+        }
+        try {
+            return Document.parse(filter).get("count") instanceof Document count
+                    && count.get("$lt") instanceof Number limit
+                    && limit.doubleValue() == maxEvents;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+}
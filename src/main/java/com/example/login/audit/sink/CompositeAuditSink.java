@@ -0,0 +1,43 @@
+package com.example.login.audit.sink;
+
+import com.example.login.model.collection.AuditLog;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * Replica cada registro de auditoria para vários destinos.
+ * <p>
+ * A falha de um destino é registrada no log e não impede a gravação nos demais, nem interrompe a requisição
+ * que originou o registro.
+ */
+@Slf4j
+public class CompositeAuditSink implements AuditSink {
+
+    private final List<AuditSink> sinks;
+
+    public CompositeAuditSink(List<AuditSink> sinks) {
+        this.sinks = List.copyOf(sinks);
+    }
+
+    @Override
+    public void write(AuditLog auditLog) {
+        for (AuditSink sink : sinks) {
+            try {
+                sink.write(auditLog);
+            } catch (RuntimeException e) {
+                log.warn("Falha ao gravar auditoria em {}", sink.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        sinks.forEach(AuditSink::flush);
+    }
+
+    @Override
+    public void close() {
+        sinks.forEach(AuditSink::close);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.login.audit.sink;
+
+import com.example.login.model.collection.AuditLog;
+import com.example.login.repository.mongo.AuditLogRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Grava cada registro de auditoria como um documento da coleção {@code auditLogs} no MongoDB.
+ */
+@RequiredArgsConstructor
+public class MongoAuditSink implements AuditSink {
+
+    private final AuditLogRepository auditLogRepository;
+
+    @Override
+    public void write(AuditLog auditLog) {
+        auditLogRepository.save(auditLog);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.login.audit.sink;
+
+import com.example.login.model.collection.AuditLog;
+
+/**
+ * Descarta todos os registros de auditoria. Útil em ambientes onde apenas o log de aplicação é suficiente.
+ */
+public class NoopAuditSink implements AuditSink {
+
+    @Override
+    public void write(AuditLog auditLog) {
+        // Nada a fazer.
+    }
+}
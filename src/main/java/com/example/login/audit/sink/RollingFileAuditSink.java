@@ -0,0 +1,256 @@
+package com.example.login.audit.sink;
+
+import com.example.login.exception.InternalServerErrorException;
+import com.example.login.model.collection.AuditLog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Grava os registros de auditoria em arquivos locais no formato NDJSON (um JSON por linha), opcionalmente
+ * comprimidos com gzip.
+ * <p>
+ * O arquivo em uso recebe o sufixo {@code .part}. Quando atinge o tamanho máximo ou o intervalo de rotação,
+ * ele é fechado e renomeado para o nome definitivo, ficando disponível para ser enviado de forma assíncrona
+ * por um processo externo (ex: Fluent Bit, rsync). Arquivos sem {@code .part} nunca são alterados novamente.
+ * <p>
+ * Na inicialização, os arquivos {@code .part} deixados por uma execução interrompida são finalizados (os comprimidos
+ * são regravados com o conteúdo recuperável, pois não têm o final do gzip) e a numeração continua a partir do maior
+ * número já usado no diretório. Uma falha de gravação descarta o registro e o arquivo atual, sem interromper a
+ * operação auditada; a próxima gravação abre um novo arquivo.
+ */
+@Slf4j
+public class RollingFileAuditSink implements AuditSink {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+    private static final String PART_SUFFIX = ".part";
+    private static final byte[] NEW_LINE = "\n".getBytes(StandardCharsets.UTF_8);
+    private static final Pattern SEQUENCE = Pattern.compile("^audit-\\d{8}-\\d{6}-(\\d+)\\.");
+
+    private final Path directory;
+    private final long maxFileSize;
+    private final Duration rotationInterval;
+    private final boolean compress;
+    private final ObjectWriter writer;
+    private final Clock clock;
+
+    private OutputStream out;
+    private CountingOutputStream counter;
+    private Path currentFile;
+    private Instant openedAt;
+    private int sequence;
+
+    public RollingFileAuditSink(Path directory, long maxFileSize, Duration rotationInterval,
+                                boolean compress, ObjectWriter writer, Clock clock) {
+        this.directory = directory;
+        this.maxFileSize = maxFileSize;
+        this.rotationInterval = rotationInterval;
+        this.compress = compress;
+        this.writer = writer;
+        this.clock = clock;
+
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new InternalServerErrorException("Não foi possível criar o diretório de auditoria " + directory);
+        }
+        recover();
+    }
+
+    @Override
+    public synchronized void write(AuditLog auditLog) {
+        try {
+            byte[] line = writer.writeValueAsBytes(auditLog);
+
+            rotateIfNecessary();
+            out.write(line);
+            out.write(NEW_LINE);
+        } catch (JsonProcessingException e) {
+            log.warn("Falha ao serializar registro de auditoria", e);
+        } catch (IOException e) {
+            log.error("Falha ao gravar auditoria em {}; registro descartado", currentFile, e);
+            abandonCurrent();
+        }
+    }
+
+    /**
+     * Descarrega o buffer para o disco e aplica a rotação por tempo mesmo sem novas gravações.
+     */
+    @Override
+    public synchronized void flush() {
+        if (out == null) {
+            return;
+        }
+
+        try {
+            if (isExpired()) {
+                closeCurrent();
+            } else {
+                out.flush();
+            }
+        } catch (IOException e) {
+            log.warn("Falha ao descarregar auditoria em {}", currentFile, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            closeCurrent();
+        } catch (IOException e) {
+            log.warn("Falha ao fechar arquivo de auditoria {}", currentFile, e);
+        }
+    }
+
+    private void rotateIfNecessary() throws IOException {
+        if (out != null && (counter.count >= maxFileSize || isExpired())) {
+            closeCurrent();
+        }
+
+        if (out == null) {
+            openNext();
+        }
+    }
+
+    private boolean isExpired() {
+        return openedAt != null && Duration.between(openedAt, clock.instant()).compareTo(rotationInterval) >= 0;
+    }
+
+    private void openNext() throws IOException {
+        openedAt = clock.instant();
+        String name = "audit-" + FILE_TIMESTAMP.format(openedAt) + "-" + (sequence++) + (compress ? ".ndjson.gz" : ".ndjson");
+        currentFile = directory.resolve(name + PART_SUFFIX);
+
+        counter = new CountingOutputStream(Files.newOutputStream(currentFile));
+        // syncFlush permite que o flush periódico grave blocos gzip completos sem fechar o arquivo.
+        out = compress ? new GZIPOutputStream(counter, 64 * 1024, true) : counter;
+    }
+
+    private void closeCurrent() throws IOException {
+        if (out == null) {
+            return;
+        }
+
+        out.close();
+        String finalName = currentFile.getFileName().toString().replace(PART_SUFFIX, "");
+        Files.move(currentFile, currentFile.resolveSibling(finalName), StandardCopyOption.ATOMIC_MOVE);
+
+        out = null;
+        counter = null;
+        currentFile = null;
+        openedAt = null;
+    }
+
+    /**
+     * Fecha o arquivo atual após uma falha de gravação, publicando o que já foi gravado quando possível.
+     */
+    private void abandonCurrent() {
+        try {
+            closeCurrent();
+        } catch (IOException e) {
+            log.warn("Arquivo de auditoria {} mantido como .part após falha", currentFile, e);
+            out = null;
+            counter = null;
+            currentFile = null;
+            openedAt = null;
+        }
+    }
+
+    /**
+     * Finaliza os arquivos {@code .part} de uma execução anterior e continua a numeração dos arquivos.
+     */
+    private void recover() {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                Matcher matcher = SEQUENCE.matcher(name);
+                if (matcher.find()) {
+                    sequence = Math.max(sequence, Integer.parseInt(matcher.group(1)) + 1);
+                }
+                if (name.endsWith(PART_SUFFIX)) {
+                    finalizeLeftover(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Falha ao recuperar arquivos de auditoria em {}", directory, e);
+        }
+    }
+
+    private void finalizeLeftover(Path part) {
+        Path target = part.resolveSibling(part.getFileName().toString().replace(PART_SUFFIX, ""));
+        try {
+            if (target.toString().endsWith(".gz")) {
+                Path rewritten = part.resolveSibling(part.getFileName() + ".tmp");
+                try (InputStream in = new GZIPInputStream(Files.newInputStream(part));
+                     OutputStream gzip = new GZIPOutputStream(Files.newOutputStream(rewritten))) {
+                    copyRecoverable(in, gzip);
+                }
+                Files.move(rewritten, target, StandardCopyOption.ATOMIC_MOVE);
+                Files.delete(part);
+            } else {
+                Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            log.info("Arquivo de auditoria {} recuperado de uma execução anterior", target.getFileName());
+        } catch (IOException e) {
+            log.warn("Falha ao recuperar o arquivo de auditoria {}", part, e);
+        }
+    }
+
+    /** Copia o conteúdo descomprimido até o fim do último bloco completo (o arquivo interrompido não tem o final do gzip). */
+    private static void copyRecoverable(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        try {
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+            }
+        } catch (EOFException e) {
+            // fim do conteúdo recuperável
+        }
+    }
+
+    /**
+     * Conta os bytes efetivamente gravados no disco (após a compressão) para a rotação por tamanho.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.login.audit.stream;
+
+import com.example.login.audit.AuditListener;
+import com.example.login.exception.BadRequestException;
+import com.example.login.model.collection.AuditLog;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Distribui os registros de auditoria em tempo real para os assinantes do fluxo SSE.
+ * <p>
+ * A publicação grava o registro em um buffer circular compartilhado e retorna imediatamente, sem bloqueio
+ * e sem custo quando não há assinantes. Cada assinante possui seu próprio cursor e uma thread virtual que
+ * lê o buffer e envia os eventos. Um assinante lento apenas atrasa a si mesmo: quando o cursor fica mais de
+ * uma volta atrás, os eventos sobrescritos são descartados e o cliente é avisado da quantidade perdida.
+ */
+@Slf4j
+@Component
+public class AuditEventBroadcaster implements AuditListener {
+
+    private final int capacity;
+    private final int mask;
+    private final int maxSubscribers;
+    private final long pollIntervalNanos;
+    private final long heartbeatIntervalNanos;
+
+    private final AtomicReferenceArray<Slot> ring;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    public AuditEventBroadcaster(@Value("${audit.stream.buffer-size:1024}") int bufferSize,
+                                 @Value("${audit.stream.max-subscribers:16}") int maxSubscribers,
+                                 @Value("${audit.stream.poll-interval:100ms}") Duration pollInterval,
+                                 @Value("${audit.stream.heartbeat-interval:15s}") Duration heartbeatInterval) {
+        // Capacidade arredondada para potência de 2, permitindo calcular a posição com uma máscara.
+        this.capacity = Integer.highestOneBit(Math.max(bufferSize - 1, 1)) << 1;
+        this.mask = capacity - 1;
+        this.maxSubscribers = maxSubscribers;
+        this.pollIntervalNanos = pollInterval.toNanos();
+        this.heartbeatIntervalNanos = heartbeatInterval.toNanos();
+        this.ring = new AtomicReferenceArray<>(capacity);
+    }
+
+    @Override
+    public void onAudit(AuditLog auditLog) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+
+        long seq = sequence.getAndIncrement();
+        ring.set(index(seq), new Slot(seq, auditLog));
+    }
+
+    /**
+     * Registra um novo assinante, que passa a receber os eventos publicados a partir deste momento.
+     *
+     * @param filter Filtro aplicado aos eventos do assinante.
+     * @param sender Canal de saída do assinante.
+     * @return A assinatura criada, que deve ser cancelada quando o cliente desconectar.
+     * @throws BadRequestException Caso o limite de assinantes simultâneos tenha sido atingido.
+     */
+    public Subscription subscribe(AuditStreamFilter filter, AuditStreamSender sender) {
+        if (subscriptions.size() >= maxSubscribers) {
+            throw new BadRequestException("Limite de " + maxSubscribers + " assinantes do fluxo de auditoria atingido.");
+        }
+
+        Subscription subscription = new Subscription(filter, sender, sequence.get());
+        subscriptions.add(subscription);
+        Thread.ofVirtual().name("audit-stream-", subscription.hashCode()).start(() -> run(subscription));
+        return subscription;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.forEach(Subscription::cancel);
+    }
+
+    private void run(Subscription subscription) {
+        long lastActivity = System.nanoTime();
+
+        try {
+            while (subscription.active.get()) {
+                int sent = drain(subscription);
+
+                if (sent > 0) {
+                    lastActivity = System.nanoTime();
+                } else if (System.nanoTime() - lastActivity >= heartbeatIntervalNanos) {
+                    subscription.sender.heartbeat();
+                    lastActivity = System.nanoTime();
+                } else {
+                    LockSupport.parkNanos(pollIntervalNanos);
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Assinante do fluxo de auditoria desconectado: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("Falha no envio do fluxo de auditoria", e);
+        } finally {
+            subscription.cancel();
+        }
+    }
+
+    /**
+     * Envia ao assinante os eventos entre o seu cursor e o fim do buffer.
+     *
+     * @return A quantidade de eventos lidos do buffer.
+     */
+    private int drain(Subscription subscription) throws IOException {
+        int read = 0;
+        long dropped = 0;
+
+        while (subscription.active.get()) {
+            long head = sequence.get();
+            if (head - subscription.cursor > capacity) {
+                // O assinante ficou mais de uma volta atrás: os eventos mais antigos já foram sobrescritos.
+                dropped += head - capacity - subscription.cursor;
+                subscription.cursor = head - capacity;
+            }
+            if (subscription.cursor >= head) {
+                break;
+            }
+
+            Slot slot = ring.get(index(subscription.cursor));
+            if (slot == null || slot.sequence < subscription.cursor) {
+                break; // Posição reservada, mas o evento ainda não foi gravado.
+            }
+
+            long expected = subscription.cursor++;
+            read++;
+            if (slot.sequence != expected) {
+                dropped++; // Sobrescrito por um evento de uma volta seguinte.
+            } else if (subscription.filter.matches(slot.auditLog)) {
+                subscription.sender.send(slot.auditLog);
+            }
+        }
+
+        if (dropped > 0) {
+            subscription.dropped.addAndGet(dropped);
+            subscription.sender.dropped(dropped);
+        }
+        return read;
+    }
+
+    private int index(long seq) {
+        return (int) (seq & mask);
+    }
+
+    private record Slot(long sequence, AuditLog auditLog) {
+    }
+
+    /**
+     * Assinatura de um cliente do fluxo de auditoria.
+     */
+    public final class Subscription {
+
+        private final AuditStreamFilter filter;
+        private final AuditStreamSender sender;
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicBoolean active = new AtomicBoolean(true);
+        private long cursor;
+
+        private Subscription(AuditStreamFilter filter, AuditStreamSender sender, long cursor) {
+            this.filter = filter;
+            this.sender = sender;
+            this.cursor = cursor;
+        }
+
+        /**
+         * Quantidade total de eventos descartados por lentidão do assinante.
+         */
+        public long dropped() {
+            return dropped.get();
+        }
+
+        public void cancel() {
+            if (active.compareAndSet(true, false)) {
+                subscriptions.remove(this);
+                sender.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.login.audit.stream;
+
+import com.example.login.model.collection.AuditLog;
+
+/**
+ * Filtro aplicado a cada assinante do fluxo de auditoria. Campos nulos não filtram.
+ *
+ * @param level      Nível do log (INFO, WARN, ERROR), sem diferenciar maiúsculas.
+ * @param userId     ID do usuário que executou a ação.
+ * @param methodName Nome do método auditado.
+ */
+public record AuditStreamFilter(String level, Long userId, String methodName) {
+
+    public boolean matches(AuditLog auditLog) {
+        return (level == null || level.equalsIgnoreCase(auditLog.getLevel()))
+                && (userId == null || userId.equals(auditLog.getUserId()))
+                && (methodName == null || methodName.equals(auditLog.getMethodName()));
+    }
+}
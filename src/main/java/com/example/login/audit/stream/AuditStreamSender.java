@@ -0,0 +1,26 @@
+package com.example.login.audit.stream;
+
+import com.example.login.model.collection.AuditLog;
+
+import java.io.IOException;
+
+/**
+ * Canal de saída de um assinante do fluxo de auditoria (ex: uma conexão SSE).
+ * Uma {@link IOException} indica que o cliente desconectou e encerra a assinatura.
+ */
+public interface AuditStreamSender {
+
+    void send(AuditLog auditLog) throws IOException;
+
+    /**
+     * Informa ao cliente quantos eventos foram descartados por ele não acompanhar o ritmo de publicação.
+     */
+    void dropped(long count) throws IOException;
+
+    /**
+     * Mantém a conexão ativa em períodos sem eventos e detecta clientes desconectados.
+     */
+    void heartbeat() throws IOException;
+
+    void close();
+}
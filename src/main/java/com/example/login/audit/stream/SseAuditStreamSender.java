@@ -0,0 +1,40 @@
+package com.example.login.audit.stream;
+
+import com.example.login.model.collection.AuditLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * Envia os eventos do fluxo de auditoria por uma conexão Server-Sent Events.
+ * <p>
+ * Eventos: {@code audit} (registro de auditoria em JSON) e {@code dropped} (quantidade de eventos perdidos
+ * por lentidão do cliente). O heartbeat é enviado como comentário SSE.
+ */
+@RequiredArgsConstructor
+public class SseAuditStreamSender implements AuditStreamSender {
+
+    private final SseEmitter emitter;
+
+    @Override
+    public void send(AuditLog auditLog) throws IOException {
+        emitter.send(SseEmitter.event().name("audit").data(auditLog, MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void dropped(long count) throws IOException {
+        emitter.send(SseEmitter.event().name("dropped").data(count));
+    }
+
+    @Override
+    public void heartbeat() throws IOException {
+        emitter.send(SseEmitter.event().comment("heartbeat"));
+    }
+
+    @Override
+    public void close() {
+        emitter.complete();
+    }
+}
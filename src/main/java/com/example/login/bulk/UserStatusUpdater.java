@@ -0,0 +1,361 @@
+package com.example.login.bulk;
+
+import com.example.login.cache.TokenCache;
+import com.example.login.cache.UserCache;
+import com.example.login.datasource.shard.ShardContext;
+import com.example.login.datasource.shard.ShardRouter;
+import com.example.login.dto.request.UserFilter;
+import com.example.login.dto.response.BulkJobStatus;
+import com.example.login.exception.InternalServerErrorException;
+import com.example.login.model.id.UserIds;
+import com.example.login.repository.UserCursor;
+import com.example.login.repository.UserListingRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.example.login.security.TokenService.ACCESS_TOKEN;
+import static com.example.login.security.TokenService.REFRESH_TOKEN;
+
+/**
+ * Habilitação e desabilitação de usuários em massa, executada em segundo plano.
+ * <p>
+ * Os usuários são selecionados por lista de IDs ou por filtro e processados em blocos de
+ * {@code user.bulk.chunk-size}. Cada bloco é alterado com um único {@code UPDATE ... WHERE id IN (...)} em sua própria
+ * transação, sem carregar as entidades; no modo por filtro, os blocos avançam por chave ({@code created_at, id}) como
+ * na listagem administrativa. Após o commit de cada bloco, os caches dos usuários são invalidados e, na desabilitação,
+ * todos os tokens armazenados são revogados em pipeline no Redis.
+ * <p>
+ * O progresso é gravado no Redis em {@code users:jobs:{id}} a cada bloco e expira após
+ * {@code user.bulk.status-ttl}. Enquanto a operação está agendada ou em execução, a instância renova a cada
+ * {@value #HEARTBEAT_SECONDS} segundos a chave {@code users:jobs:lease:{id}}; uma operação em andamento cuja chave
+ * expirou (a instância foi encerrada) é informada como falha na consulta do progresso.
+ * <p>
+ * Com o particionamento habilitado, cada shard é processado separadamente, e os usuários de buckets congelados por um
+ * reparticionamento são adiados e alterados ao final, após o descongelamento.
+ */
+@Slf4j
+@Component
+public class UserStatusUpdater {
+
+    private static final String KEY_PREFIX = "users:jobs:";
+    private static final String LEASE_PREFIX = "users:jobs:lease:";
+    private static final long HEARTBEAT_SECONDS = 10;
+    private static final Duration LEASE = Duration.ofSeconds(HEARTBEAT_SECONDS * 3);
+    private static final String SELECT = "SELECT id, email FROM tb_users WHERE id IN (:ids)";
+    private static final String UPDATE = "UPDATE tb_users SET enabled = :enabled, version = version + 1, " +
+            "verified_at = CASE WHEN :enabled THEN COALESCE(verified_at, CURRENT_TIMESTAMP) ELSE verified_at END " +
+            "WHERE id IN (:ids) AND enabled <> :enabled";
+    private static final Duration DEFER_PAUSE = Duration.ofSeconds(5);
+    private static final int DEFER_ATTEMPTS = 60;
+
+    private final UserListingRepository userListingRepository;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TokenCache tokenCache;
+    private final UserCache userCache;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final ExecutorService executor;
+    private final Set<String> activeJobs = ConcurrentHashMap.newKeySet();
+    private final int chunkSize;
+    private final Duration statusTtl;
+
+    public UserStatusUpdater(UserListingRepository userListingRepository, JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate, TokenCache tokenCache, UserCache userCache,
+                             StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                             ObjectProvider<ShardRouter> shardRouter,
+                             @Value("${user.bulk.chunk-size:1000}") int chunkSize,
+                             @Value("${user.bulk.status-ttl:1d}") Duration statusTtl) {
+        this.userListingRepository = userListingRepository;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = transactionTemplate;
+        this.tokenCache = tokenCache;
+        this.userCache = userCache;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.shardRouter = shardRouter;
+        this.chunkSize = chunkSize;
+        this.statusTtl = statusTtl;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-bulk-status");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Renova a posse das operações agendadas ou em execução nesta instância.
+     */
+    @Scheduled(fixedRate = HEARTBEAT_SECONDS, timeUnit = TimeUnit.SECONDS)
+    public void heartbeat() {
+        for (String jobId : activeJobs) {
+            redisTemplate.expire(LEASE_PREFIX + jobId, LEASE);
+        }
+    }
+
+    /**
+     * Agenda a alteração dos usuários informados.
+     *
+     * @param enabled Novo status dos usuários.
+     * @param ids     IDs dos usuários.
+     * @return O progresso inicial da operação.
+     */
+    public BulkJobStatus start(boolean enabled, List<Long> ids) {
+        return submit(enabled, status -> updateIds(status, enabled, ids));
+    }
+
+    /**
+     * Agenda a alteração dos usuários que atendem ao filtro.
+     *
+     * @param enabled Novo status dos usuários.
+     * @param filter  Filtro dos usuários.
+     * @return O progresso inicial da operação.
+     */
+    public BulkJobStatus start(boolean enabled, UserFilter filter) {
+        return submit(enabled, status -> updateFilter(status, enabled, filter));
+    }
+
+    /**
+     * Obtém o progresso de uma operação.
+     *
+     * @param jobId ID da operação.
+     * @return O progresso, ou vazio se a operação não existe ou já expirou.
+     */
+    public Optional<BulkJobStatus> status(String jobId) {
+        Optional<BulkJobStatus> status = read(jobId);
+        // A posse não é removida ao final: uma operação concluída grava o resultado antes de a posse expirar.
+        if (status.isPresent() && status.get().state() == BulkJobStatus.State.RUNNING
+                && !Boolean.TRUE.equals(redisTemplate.hasKey(LEASE_PREFIX + jobId))) {
+            BulkJobStatus failed = status.get()
+                    .failed("Operação interrompida: a instância que a executava foi encerrada");
+            save(failed);
+            return Optional.of(failed);
+        }
+        return status;
+    }
+
+    private BulkJobStatus submit(boolean enabled, Job job) {
+        BulkJobStatus status = new BulkJobStatus(UUID.randomUUID().toString(), BulkJobStatus.State.RUNNING, enabled,
+                0, 0, 0, null, Instant.now(), null);
+        activeJobs.add(status.id());
+        redisTemplate.opsForValue().set(LEASE_PREFIX + status.id(), "1", LEASE);
+        save(status);
+
+        executor.execute(() -> {
+            try {
+                BulkJobStatus done = job.run(status).completed();
+                save(done);
+                log.info("Alteração de status em massa {} concluída: {} encontrado(s), {} alterado(s), {} token(s) revogado(s)",
+                        done.id(), done.matched(), done.updated(), done.revokedTokens());
+            } catch (RuntimeException e) {
+                log.error("Falha na alteração de status em massa {}", status.id(), e);
+                save(read(status.id()).orElse(status).failed(e.getMessage()));
+            } finally {
+                activeJobs.remove(status.id());
+            }
+        });
+        return status;
+    }
+
+    private BulkJobStatus updateIds(BulkJobStatus status, boolean enabled, List<Long> ids) {
+        List<Long> deferred = new ArrayList<>();
+        status = updateIds(status, enabled, ids, deferred);
+        return retryDeferred(status, enabled, deferred);
+    }
+
+    private BulkJobStatus updateIds(BulkJobStatus status, boolean enabled, List<Long> ids, List<Long> deferred) {
+        for (Map.Entry<String, List<Long>> shard : byShard(ids).entrySet()) {
+            List<Long> shardIds = shard.getValue();
+            for (int from = 0; from < shardIds.size(); from += chunkSize) {
+                List<Long> chunk = shardIds.subList(from, Math.min(from + chunkSize, shardIds.size()));
+                Chunk result = onShard(shard.getKey(), () -> transactionTemplate.execute(tx -> {
+                    Map<Long, String> users = new LinkedHashMap<>();
+                    RowCallbackHandler handler = rs -> users.put(rs.getLong("id"), rs.getString("email"));
+                    namedJdbcTemplate.query(SELECT, new MapSqlParameterSource("ids", chunk), handler);
+                    return update(users, enabled, null);
+                }));
+                status = apply(status, result, enabled);
+                deferred.addAll(result.deferred());
+            }
+        }
+        return status;
+    }
+
+    private BulkJobStatus updateFilter(BulkJobStatus status, boolean enabled, UserFilter filter) {
+        List<Long> deferred = new ArrayList<>();
+        ShardRouter router = shardRouter.getIfAvailable();
+        for (String shard : router != null ? router.shards() : List.of("")) {
+            UserCursor after = null;
+            Chunk result;
+            do {
+                UserCursor from = after;
+                result = onShard(shard, () -> transactionTemplate.execute(tx -> {
+                    Map<Long, String> users = new LinkedHashMap<>();
+                    UserCursor[] last = {from};
+                    userListingRepository.forEach(filter, from, chunkSize, user -> {
+                        users.put(user.getId(), user.getEmail());
+                        last[0] = new UserCursor(user.getCreatedAt(), user.getId());
+                    });
+                    return update(users, enabled, last[0]);
+                }));
+                status = apply(status, result, enabled);
+                deferred.addAll(result.deferred());
+                after = result.last();
+            } while (result.selected() == chunkSize);
+        }
+        return retryDeferred(status, enabled, deferred);
+    }
+
+    /**
+     * Altera os usuários adiados por estarem em buckets congelados, aguardando o fim do reparticionamento.
+     */
+    private BulkJobStatus retryDeferred(BulkJobStatus status, boolean enabled, List<Long> deferred) {
+        for (int attempt = 1; !deferred.isEmpty(); attempt++) {
+            if (attempt > DEFER_ATTEMPTS) {
+                throw new IllegalStateException(deferred.size()
+                        + " usuário(s) em migração entre shards não foram alterados");
+            }
+            try {
+                Thread.sleep(DEFER_PAUSE.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Operação interrompida", e);
+            }
+
+            List<Long> retry = List.copyOf(deferred);
+            deferred.clear();
+            status = updateIds(status, enabled, retry, deferred);
+        }
+        return status;
+    }
+
+    /**
+     * Altera os usuários selecionados, exceto os de buckets congelados, que são devolvidos para nova tentativa.
+     * Deve ser chamado dentro da transação do bloco.
+     */
+    private Chunk update(Map<Long, String> users, boolean enabled, UserCursor last) {
+        int selected = users.size();
+        ShardRouter router = shardRouter.getIfAvailable();
+        if (router == null) {
+            return update(users, selected, List.of(), enabled, last);
+        }
+
+        try (ShardRouter.WriteFence fence = router.enterWrite()) {
+            Map<Long, String> writable = new LinkedHashMap<>();
+            List<Long> deferred = new ArrayList<>();
+            users.forEach((id, email) -> {
+                if (fence.isFrozen(UserIds.bucketOf(email))) {
+                    deferred.add(id);
+                } else {
+                    writable.put(id, email);
+                }
+            });
+            return update(writable, selected, deferred, enabled, last);
+        }
+    }
+
+    private Chunk update(Map<Long, String> users, int selected, List<Long> deferred, boolean enabled,
+                         UserCursor last) {
+        if (users.isEmpty()) {
+            return new Chunk(users, selected, 0, deferred, last);
+        }
+        int updated = namedJdbcTemplate.update(UPDATE, new MapSqlParameterSource("ids", users.keySet())
+                .addValue("enabled", enabled));
+        return new Chunk(users, selected, updated, deferred, last);
+    }
+
+    private BulkJobStatus apply(BulkJobStatus status, Chunk chunk, boolean enabled) {
+        int revoked = 0;
+        if (!chunk.users().isEmpty()) {
+            userCache.invalidateAll(chunk.users());
+            if (!enabled) {
+                revoked = tokenCache.revokeAll(chunk.users().keySet(), ACCESS_TOKEN, REFRESH_TOKEN);
+            }
+        }
+
+        BulkJobStatus progress = status.progress(chunk.users().size(), chunk.updated(), revoked);
+        save(progress);
+        return progress;
+    }
+
+    private Map<String, List<Long>> byShard(List<Long> ids) {
+        ShardRouter router = shardRouter.getIfAvailable();
+        List<Long> distinct = ids.stream().distinct().toList();
+        if (router == null) {
+            return Map.of("", distinct);
+        }
+
+        Map<String, List<Long>> byShard = new LinkedHashMap<>();
+        for (Long id : distinct) {
+            int bucket = UserIds.bucketOf(id);
+            List<String> shards = bucket == UserIds.LEGACY_BUCKET ? router.shards() : List.of(router.shardOf(bucket));
+            shards.forEach(shard -> byShard.computeIfAbsent(shard, s -> new ArrayList<>()).add(id));
+        }
+        return byShard;
+    }
+
+    private Optional<BulkJobStatus> read(String jobId) {
+        String json = redisTemplate.opsForValue().get(KEY_PREFIX + jobId);
+        if (json == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(json, BulkJobStatus.class));
+        } catch (JsonProcessingException e) {
+            throw new InternalServerErrorException("Falha ao ler o progresso da operação.");
+        }
+    }
+
+    private void save(BulkJobStatus status) {
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + status.id(), objectMapper.writeValueAsString(status), statusTtl);
+        } catch (JsonProcessingException e) {
+            throw new InternalServerErrorException("Falha ao gravar o progresso da operação.");
+        }
+    }
+
+    private static <T> T onShard(String shard, Supplier<T> action) {
+        return shard.isEmpty() ? action.get() : ShardContext.call(shard, action);
+    }
+
+    @FunctionalInterface
+    private interface Job {
+        BulkJobStatus run(BulkJobStatus status);
+    }
+
+    private record Chunk(Map<Long, String> users, int selected, int updated, List<Long> deferred, UserCursor last) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.login.cache;
+
+import com.example.login.enums.Role;
+import com.example.login.model.User;
+import com.example.login.model.projection.UserPrincipal;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cópia imutável das colunas de {@link User} guardada no {@link UserCache}.
+ * <p>
+ * O cache não guarda a entidade: cada leitura materializa um novo {@code User} destacado, evitando que
+ * alterações feitas por um chamador sejam vistas pelos demais. Os hashes de senha ({@code password} e
+ * {@code lastPassword}) existem apenas nas cópias carregadas do banco; a cópia gravada no Redis não os contém
+ * ({@link #withoutPasswords()}).
+ */
+record CachedUser(
+        Long id,
+        String username,
+        String password,
+        String email,
+        String lastPassword,
+        LocalDateTime lastAlterPass,
+        Boolean enabled,
+        Role role,
+        Long version,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+
+    static CachedUser from(User user) {
+        return new CachedUser(
+                user.getId(),
+                user.getUsername(),
+                user.getPassword(),
+                user.getEmail(),
+                user.getLastPassword(),
+                user.getLastAlterPass(),
+                user.getEnabled(),
+                user.getRole(),
+                user.getVersion(),
+                user.getCreatedAt(),
+                user.getUpdatedAt());
+    }
+
+    CachedUser withoutPasswords() {
+        return new CachedUser(id, username, null, email, null, lastAlterPass, enabled, role, version, createdAt,
+                updatedAt);
+    }
+
+    boolean hasPassword() {
+        return password != null;
+    }
+
+    User toUser() {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        user.setUsername(username);
+        user.setPassword(password);
+        user.setLastPassword(lastPassword);
+        user.setLastAlterPass(lastAlterPass);
+        user.setEnabled(enabled);
+        user.setRole(role);
+        user.setVersion(version);
+        user.setCreatedAt(createdAt);
+        user.setUpdatedAt(updatedAt);
+        return user;
+    }
+
+    UserPrincipal toPrincipal() {
+        return new UserPrincipal(id, email, role, enabled);
+    }
+}
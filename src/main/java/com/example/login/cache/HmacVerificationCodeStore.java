@@ -0,0 +1,159 @@
+package com.example.login.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Códigos de verificação derivados de uma chave do servidor ({@code verification.code.mode=hmac}), sem armazenar os
+ * códigos emitidos.
+ * <p>
+ * O código é o HMAC-SHA256 de {@code verification.code.hmac.secret} sobre a finalidade, o e-mail e a janela de tempo
+ * atual ({@code verification.code.hmac.step}), reduzido a {@link #CODE_LENGTH} caracteres alfanuméricos, como no TOTP.
+ * A verificação recalcula os códigos da janela atual e da anterior, de modo que um código vale entre uma e duas
+ * janelas; dentro de uma mesma janela, emitir novamente devolve o mesmo código. A emissão não acessa o Redis.
+ * <p>
+ * Os códigos já usados e as tentativas erradas ficam no Redis, compartilhados entre as instâncias, por duas janelas
+ * ({@code verification:hmac:{finalidade:email}:*}), e são atualizados por um único script Lua: um código só é aceito
+ * uma vez e, após {@code verification.code.max-attempts} erros, o e-mail fica bloqueado até as tentativas expirarem
+ * (emitir outro código não libera, pois o código seria o mesmo).
+ */
+@Component
+@ConditionalOnProperty(name = "verification.code.mode", havingValue = "hmac")
+public class HmacVerificationCodeStore implements VerificationCodeStore {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_LENGTH = 32;
+    private static final long CODE_SPACE = (long) Math.pow(VerificationCodes.ALPHABET.length(), CODE_LENGTH);
+    private static final String KEY_PREFIX = "verification:hmac:";
+
+    /**
+     * Registra a verificação: KEYS[1] = tentativas erradas, KEYS[2] = código usado da janela; ARGV[1] = máximo de
+     * tentativas, ARGV[2] = retenção em ms, ARGV[3] = 1 se o código confere com o da janela.
+     * Retorna 1 (válido), 0 (inválido), -1 (já usado) ou -2 (tentativas esgotadas).
+     */
+    private static final RedisScript<Long> CHECK = new DefaultRedisScript<>("""
+            local failures = tonumber(redis.call('GET', KEYS[1]) or '0')
+            if failures >= tonumber(ARGV[1]) then
+                return -2
+            end
+            if ARGV[3] == '1' then
+                if redis.call('SET', KEYS[2], '1', 'NX', 'PX', ARGV[2]) then
+                    redis.call('DEL', KEYS[1])
+                    return 1
+                end
+                return -1
+            end
+            failures = redis.call('INCR', KEYS[1])
+            if failures == 1 then
+                redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            end
+            if failures >= tonumber(ARGV[1]) then
+                return -2
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Clock clock;
+    private final ThreadLocal<Mac> macs;
+    private final long stepMillis;
+    private final int maxAttempts;
+    private final Map<Result, Counter> checks;
+
+    public HmacVerificationCodeStore(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry, Clock clock,
+                                     @Value("${verification.code.hmac.secret:}") String secret,
+                                     @Value("${verification.code.hmac.step:5m}") Duration step,
+                                     @Value("${verification.code.max-attempts:5}") int maxAttempts) {
+        if (secret == null || secret.length() < MIN_SECRET_LENGTH) {
+            throw new IllegalStateException("verification.code.hmac.secret deve ter ao menos " + MIN_SECRET_LENGTH
+                    + " caracteres no modo hmac");
+        }
+
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC indisponível para os códigos de verificação", e);
+            }
+        });
+        this.redisTemplate = redisTemplate;
+        this.clock = clock;
+        this.stepMillis = step.toMillis();
+        this.maxAttempts = maxAttempts;
+        this.checks = VerificationCodes.checkCounters(meterRegistry);
+    }
+
+    @Override
+    public String issue(Purpose purpose, String email) {
+        return code(purpose, VerificationCodes.normalize(email), currentWindow());
+    }
+
+    @Override
+    public Result verify(Purpose purpose, String email, String code) {
+        Result result = check(purpose, VerificationCodes.normalize(email), code);
+        checks.get(result).increment();
+        return result;
+    }
+
+    private Result check(Purpose purpose, String email, String code) {
+        long window = currentWindow();
+        long matched = -1;
+        if (code != null && code.length() == CODE_LENGTH) {
+            byte[] informed = code.getBytes(StandardCharsets.US_ASCII);
+            for (long candidate = window; candidate >= window - 1 && matched < 0; candidate--) {
+                byte[] expected = code(purpose, email, candidate).getBytes(StandardCharsets.US_ASCII);
+                if (MessageDigest.isEqual(expected, informed)) {
+                    matched = candidate;
+                }
+            }
+        }
+
+        String subject = KEY_PREFIX + "{" + purpose.name().toLowerCase(Locale.ROOT) + ":" + email + "}";
+        Long outcome = redisTemplate.execute(CHECK,
+                List.of(subject + ":attempts", subject + ":used:" + (matched >= 0 ? matched : window)),
+                String.valueOf(maxAttempts), String.valueOf(stepMillis * 2), matched >= 0 ? "1" : "0");
+        return switch (outcome != null ? outcome.intValue() : 0) {
+            case 1 -> Result.VALID;
+            case -1 -> Result.EXPIRED;
+            case -2 -> Result.EXHAUSTED;
+            default -> Result.INVALID;
+        };
+    }
+
+    private String code(Purpose purpose, String email, long window) {
+        byte[] digest = macs.get().doFinal((purpose.name() + ":" + email + ":" + window).getBytes(StandardCharsets.UTF_8));
+        long value = (ByteBuffer.wrap(digest).getLong() & Long.MAX_VALUE) % CODE_SPACE;
+
+        char[] code = new char[CODE_LENGTH];
+        for (int i = CODE_LENGTH - 1; i >= 0; i--) {
+            code[i] = VerificationCodes.ALPHABET.charAt((int) (value % VerificationCodes.ALPHABET.length()));
+            value /= VerificationCodes.ALPHABET.length();
+        }
+        return new String(code);
+    }
+
+    private long currentWindow() {
+        return clock.millis() / stepMillis;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.login.cache;
+
+import com.example.login.aspect.view.Views;
+import com.example.login.exception.InternalServerErrorException;
+import com.example.login.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Cache dos perfis de usuário já serializados, por usuário, visualização e versão.
+ * <p>
+ * A versão é a coluna {@code version} da linha do usuário, incrementada a cada alteração (pelo JPA ou pelas
+ * atualizações em lote). O JSON renderizado fica em memória local e no Redis sob uma chave que inclui a versão:
+ * uma alteração torna as entradas anteriores inalcançáveis em todas as instâncias, sem precisar removê-las (elas
+ * expiram pelo TTL), e uma chave nunca é reutilizada para outro conteúdo. A versão também compõe o ETag; como o
+ * usuário é obtido do {@link UserCache}, o {@code 304} é respondido sem consultar o banco nem serializar o usuário.
+ */
+@Component
+public class ProfileCache {
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+    private final Cache<String, byte[]> local;
+    private final Map<Class<?>, ObjectWriter> writers;
+
+    public ProfileCache(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                        @Value("${profile.cache.ttl:1h}") Duration ttl,
+                        @Value("${profile.cache.local.max-size:10000}") long localMaxSize) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.writers = Views.ALL.stream()
+                .collect(Collectors.toUnmodifiableMap(view -> view, objectMapper::writerWithView));
+    }
+
+    /**
+     * Obtém o perfil serializado na versão do usuário informado, procurando primeiro na memória local, depois no
+     * Redis e, por último, serializando o próprio usuário.
+     *
+     * @param user Usuário, com a versão atual.
+     * @param view Visualização JSON aplicada.
+     * @return O JSON do perfil.
+     */
+    public byte[] get(User user, Class<?> view) {
+        String key = profileKey(user.getId(), view, user.getVersion());
+
+        return local.get(key, k -> {
+            String cached = redisTemplate.opsForValue().get(k);
+            if (cached != null) {
+                return cached.getBytes(StandardCharsets.UTF_8);
+            }
+
+            byte[] json = render(user, view);
+            redisTemplate.opsForValue().set(k, new String(json, StandardCharsets.UTF_8), ttl);
+            return json;
+        });
+    }
+
+    /**
+     * Monta o ETag forte de uma versão do perfil.
+     */
+    public static String eTag(Long userId, Class<?> view, long version) {
+        return "\"" + userId + "-" + view.getSimpleName().toLowerCase() + "-" + version + "\"";
+    }
+
+    /**
+     * Verifica se o cabeçalho {@code If-None-Match} corresponde ao ETag informado.
+     *
+     * @param ifNoneMatch Valor do cabeçalho, podendo conter vários ETags separados por vírgula, ou {@code null}.
+     * @param eTag        ETag atual.
+     * @return {@code true} se o cliente já possui a versão atual.
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(eTag));
+    }
+
+    private byte[] render(User user, Class<?> view) {
+        try {
+            return writers.get(view).writeValueAsBytes(user);
+        } catch (JsonProcessingException e) {
+            throw new InternalServerErrorException("Falha ao serializar o perfil do usuário");
+        }
+    }
+
+    private static String profileKey(Long userId, Class<?> view, long version) {
+        return "profile:" + userId + ":" + view.getSimpleName().toLowerCase() + ":" + version;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.login.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Códigos de verificação armazenados no Redis ({@code verification.code.mode=redis}, padrão).
+ * <p>
+ * Cada e-mail tem no máximo um código por finalidade, no hash {@code verification:code:{finalidade}:{email}} com o
+ * código e as tentativas erradas, expirando após {@code verification.code.ttl}. Emitir um código substitui o anterior
+ * e zera as tentativas. A verificação é uma única operação atômica (script Lua): o código correto é removido no mesmo
+ * passo, de forma que não pode ser usado duas vezes, e um código errado incrementa as tentativas; ao atingir
+ * {@code verification.code.max-attempts}, o código é descartado e é preciso solicitar outro.
+ * <p>
+ * Os códigos são gerados por um único {@link SecureRandom}, compartilhado entre as threads.
+ */
+@Component
+@ConditionalOnProperty(name = "verification.code.mode", havingValue = "redis", matchIfMissing = true)
+public class RedisVerificationCodeStore implements VerificationCodeStore {
+
+    private static final String KEY_PREFIX = "verification:code:";
+
+    /** Substitui o código do e-mail: ARGV[1] = código, ARGV[2] = TTL em ms. */
+    private static final RedisScript<Long> ISSUE = new DefaultRedisScript<>("""
+            redis.call('DEL', KEYS[1])
+            redis.call('HSET', KEYS[1], 'code', ARGV[1], 'attempts', 0)
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return 1
+            """, Long.class);
+
+    /**
+     * Compara e remove o código: ARGV[1] = código informado, ARGV[2] = máximo de tentativas.
+     * Retorna 1 (válido), 0 (inválido), -1 (inexistente ou expirado) ou -2 (tentativas esgotadas).
+     */
+    private static final RedisScript<Long> VERIFY = new DefaultRedisScript<>("""
+            local stored = redis.call('HGET', KEYS[1], 'code')
+            if not stored then
+                return -1
+            end
+            if stored == ARGV[1] then
+                redis.call('DEL', KEYS[1])
+                return 1
+            end
+            local attempts = redis.call('HINCRBY', KEYS[1], 'attempts', 1)
+            if attempts >= tonumber(ARGV[2]) then
+                redis.call('DEL', KEYS[1])
+                return -2
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final SecureRandom random = new SecureRandom();
+    private final Duration ttl;
+    private final int maxAttempts;
+    private final Map<Result, Counter> checks;
+
+    public RedisVerificationCodeStore(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry,
+                                      @Value("${verification.code.ttl:10m}") Duration ttl,
+                                      @Value("${verification.code.max-attempts:5}") int maxAttempts) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+        this.maxAttempts = maxAttempts;
+        this.checks = VerificationCodes.checkCounters(meterRegistry);
+    }
+
+    /**
+     * Gera um novo código para o e-mail, substituindo o anterior da mesma finalidade.
+     */
+    @Override
+    public String issue(Purpose purpose, String email) {
+        char[] code = new char[CODE_LENGTH];
+        for (int i = 0; i < CODE_LENGTH; i++) {
+            code[i] = VerificationCodes.ALPHABET.charAt(random.nextInt(VerificationCodes.ALPHABET.length()));
+        }
+
+        String value = new String(code);
+        redisTemplate.execute(ISSUE, List.of(key(purpose, email)), value, String.valueOf(ttl.toMillis()));
+        return value;
+    }
+
+    @Override
+    public Result verify(Purpose purpose, String email, String code) {
+        Result result;
+        if (code == null || code.length() != CODE_LENGTH) {
+            result = Result.INVALID;
+        } else {
+            Long outcome = redisTemplate.execute(VERIFY, List.of(key(purpose, email)), code, String.valueOf(maxAttempts));
+            result = switch (outcome != null ? outcome.intValue() : -1) {
+                case 1 -> Result.VALID;
+                case 0 -> Result.INVALID;
+                case -2 -> Result.EXHAUSTED;
+                default -> Result.EXPIRED;
+            };
+        }
+        checks.get(result).increment();
+        return result;
+    }
+
+    private static String key(Purpose purpose, String email) {
+        return KEY_PREFIX + purpose.name().toLowerCase(Locale.ROOT) + ":" + VerificationCodes.normalize(email);
+    }
+}
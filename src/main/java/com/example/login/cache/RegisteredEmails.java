@@ -0,0 +1,221 @@
+package com.example.login.cache;
+
+import com.example.login.datasource.shard.ShardContext;
+import com.example.login.datasource.shard.ShardRouter;
+import com.example.login.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Filtro de Bloom local dos e-mails já cadastrados (em {@code tb_users} e {@code tb_users_archive}).
+ * <p>
+ * Permite que o cadastro dispense a consulta de existência quando o e-mail certamente é novo; nesse caso, o índice
+ * único de {@code email} continua sendo a garantia final contra duplicidade (inclusive para e-mails cadastrados por
+ * outras instâncias após a montagem do filtro). Enquanto o filtro não está pronto, todo e-mail é tratado como
+ * possivelmente cadastrado.
+ * <p>
+ * O filtro é montado em segundo plano na inicialização, lendo os e-mails em fluxo, e remontado a cada
+ * {@code user.email-filter.rebuild-interval}; os e-mails cadastrados durante a montagem também entram no novo filtro.
+ * Como o arquivamento só alcança usuários com dias de existência, um intervalo menor que
+ * {@code user.archive.unverified-days} garante que todo e-mail arquivado esteja no filtro de todas as instâncias.
+ * <p>
+ * Métricas: {@code user.email-filter.checks} (tag {@code result}), {@code user.email-filter.false-positives},
+ * {@code user.email-filter.expected-fpp}, {@code user.email-filter.size} e {@code user.email-filter.rebuild}.
+ */
+@Slf4j
+@Component
+public class RegisteredEmails {
+
+    private static final List<String> TABLES = List.of("tb_users", "tb_users_archive");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double fpp;
+    private final Duration rebuildInterval;
+    private final ScheduledExecutorService executor;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter building;
+    private final AtomicLong size = new AtomicLong();
+
+    private final Counter negatives;
+    private final Counter positives;
+    private final Counter falsePositives;
+    private final Timer rebuilds;
+
+    public RegisteredEmails(DataSource dataSource, ObjectProvider<ShardRouter> shardRouter, MeterRegistry meterRegistry,
+                            @Value("${user.email-filter.enabled:true}") boolean enabled,
+                            @Value("${user.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                            @Value("${user.email-filter.fpp:0.01}") double fpp,
+                            @Value("${user.email-filter.rebuild-interval:6h}") Duration rebuildInterval) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+        this.rebuildInterval = rebuildInterval;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "registered-emails");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.negatives = checks(meterRegistry, "negative");
+        this.positives = checks(meterRegistry, "positive");
+        this.falsePositives = Counter.builder("user.email-filter.false-positives")
+                .description("E-mails indicados pelo filtro que não estavam cadastrados")
+                .register(meterRegistry);
+        this.rebuilds = Timer.builder("user.email-filter.rebuild")
+                .description("Tempo de montagem do filtro de e-mails")
+                .register(meterRegistry);
+        Gauge.builder("user.email-filter.expected-fpp", this,
+                        emails -> emails.current != null ? emails.current.expectedFpp() : 1.0)
+                .description("Probabilidade estimada de falso positivo do filtro atual")
+                .register(meterRegistry);
+        Gauge.builder("user.email-filter.size", size, AtomicLong::get)
+                .description("E-mails incluídos no filtro atual")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            executor.scheduleWithFixedDelay(this::rebuild, 0, rebuildInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Verifica se o e-mail pode estar cadastrado.
+     *
+     * @param email E-mail informado.
+     * @return {@code false} somente se o e-mail certamente não estava cadastrado na montagem do filtro nem foi
+     * cadastrado por esta instância desde então.
+     */
+    public boolean mightContain(String email) {
+        BloomFilter filter = current;
+        if (filter == null || email == null) {
+            return true;
+        }
+
+        boolean result = filter.mightContain(normalize(email));
+        (result ? positives : negatives).increment();
+        return result;
+    }
+
+    /**
+     * Registra que uma resposta positiva de {@link #mightContain(String)} não se confirmou no banco.
+     */
+    public void falsePositive() {
+        falsePositives.increment();
+    }
+
+    /**
+     * Inclui um e-mail cadastrado por esta instância.
+     */
+    public void add(String email) {
+        if (email == null) {
+            return;
+        }
+        String key = normalize(email);
+        BloomFilter filter = current;
+        if (filter != null) {
+            filter.put(key);
+            size.incrementAndGet();
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(key);
+        }
+    }
+
+    /**
+     * Monta um novo filtro com todos os e-mails cadastrados e o coloca em uso.
+     */
+    public void rebuild() {
+        try {
+            long start = System.nanoTime();
+            ShardRouter router = shardRouter.getIfAvailable();
+            List<String> shards = router != null ? router.shards() : List.of("");
+
+            long estimated = shards.stream().mapToLong(shard -> onShard(shard, this::estimateRows)).sum();
+            BloomFilter next = BloomFilter.create(Math.max(expectedInsertions, estimated * 2), fpp);
+            building = next;
+
+            AtomicLong count = new AtomicLong();
+            RowCallbackHandler handler = rs -> {
+                next.put(normalize(rs.getString(1)));
+                count.incrementAndGet();
+            };
+            for (String shard : shards) {
+                for (String table : TABLES) {
+                    onShard(shard, () -> {
+                        jdbcTemplate.query("SELECT email FROM " + table, handler);
+                        return null;
+                    });
+                }
+            }
+
+            current = next;
+            building = null;
+            size.set(count.get());
+            long elapsed = System.nanoTime() - start;
+            rebuilds.record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("Filtro de e-mails montado: {} e-mail(s), {} bits, fpp estimada {} em {} ms", count.get(),
+                    next.bitCount(), String.format(Locale.ROOT, "%.5f", next.expectedFpp()),
+                    TimeUnit.NANOSECONDS.toMillis(elapsed));
+        } catch (RuntimeException e) {
+            building = null;
+            log.warn("Falha ao montar o filtro de e-mails; o filtro anterior continua em uso", e);
+        }
+    }
+
+    /** Estimativa de linhas das tabelas, pelas estatísticas do InnoDB (sem varrer as tabelas). */
+    private long estimateRows() {
+        Long rows = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(table_rows), 0) FROM information_schema.tables " +
+                "WHERE table_schema = DATABASE() AND table_name IN ('tb_users', 'tb_users_archive')", Long.class);
+        return rows != null ? rows : 0;
+    }
+
+    private static <T> T onShard(String shard, Supplier<T> action) {
+        return shard.isEmpty() ? action.get() : ShardContext.call(shard, action);
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("user.email-filter.checks")
+                .description("Consultas ao filtro de e-mails cadastrados")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.login.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa execuções concorrentes de uma mesma consulta.
+ * <p>
+ * Enquanto uma consulta para determinada chave está em andamento, as chamadas seguintes com a mesma chave não
+ * executam a consulta novamente: aguardam e recebem o mesmo resultado (ou a mesma exceção). Assim que a consulta
+ * termina, a chave é liberada e a próxima chamada executa uma nova consulta; nenhum resultado é guardado.
+ * Quem altera o dado consultado deve chamar {@link #forget(Object)}, para que as chamadas seguintes não recebam o
+ * resultado de uma consulta iniciada antes da alteração.
+ * <p>
+ * As métricas {@code singleflight.executions} e {@code singleflight.collapsed}, com a tag {@code name}, indicam
+ * quantas consultas foram de fato executadas e quantas foram atendidas por uma consulta já em andamento.
+ *
+ * @param <K> Tipo da chave da consulta.
+ * @param <V> Tipo do resultado.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executions;
+    private final Counter collapsed;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.executions = Counter.builder("singleflight.executions")
+                .description("Consultas executadas")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.collapsed = Counter.builder("singleflight.collapsed")
+                .description("Consultas atendidas por uma execução já em andamento")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executa a consulta, ou aguarda a execução em andamento para a mesma chave.
+     *
+     * @param key    Chave que identifica a consulta.
+     * @param loader Consulta executada quando não há outra em andamento.
+     * @return O resultado da consulta (pode ser {@code null}).
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            collapsed.increment();
+            return await(existing);
+        }
+
+        executions.increment();
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Desassocia a consulta em andamento da chave: as chamadas seguintes executam uma nova consulta, enquanto as
+     * que já aguardavam continuam recebendo o resultado da anterior.
+     *
+     * @param key Chave cujo dado foi alterado.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    private V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
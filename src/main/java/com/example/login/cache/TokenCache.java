@@ -1,17 +1,31 @@
 package com.example.login.cache;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 public class TokenCache {
 
     private final RedisTemplate<String, String> redisTemplate;
 
+    /** Agrupa verificações simultâneas do mesmo token (ex: rajadas de requisições paralelas de um cliente). */
+    private final SingleFlight<String, Boolean> blacklistChecks;
+
+    public TokenCache(RedisTemplate<String, String> redisTemplate, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.blacklistChecks = new SingleFlight<>("token-blacklist", meterRegistry);
+    }
+
     /**
      * Armazena o token no Redis com um tempo de expiração definido.
      *
@@ -44,6 +58,8 @@ public class TokenCache {
      */
     public void invalidateToken(String token) {
         redisTemplate.opsForSet().add("blacklist_tokens", token);
+        // Uma verificação iniciada antes da inclusão ainda responderia que o token é válido.
+        blacklistChecks.forget(token);
     }
 
     /**
@@ -53,6 +69,48 @@ public class TokenCache {
      * @return {@code true} se o token estiver na blacklist, caso contrário {@code false}.
      */
     public boolean isTokenInvalidated(String token) {
-        return Boolean.TRUE.equals(redisTemplate.opsForSet().isMember("blacklist_tokens", token));
+        return blacklistChecks.execute(token,
+                () -> Boolean.TRUE.equals(redisTemplate.opsForSet().isMember("blacklist_tokens", token)));
+    }
+
+    /**
+     * Revoga todos os tokens armazenados de vários usuários: lê os tokens com um único {@code MGET}, adiciona-os à
+     * blacklist e remove as chaves em uma única ida ao Redis (pipeline).
+     *
+     * @param userIds    IDs dos usuários.
+     * @param typeTokens Tipos de token revogados ({@code ACCESS_TOKEN} e/ou {@code REFRESH_TOKEN}).
+     * @return A quantidade de tokens revogados.
+     */
+    public int revokeAll(Collection<Long> userIds, String... typeTokens) {
+        List<String> keys = new ArrayList<>(userIds.size() * typeTokens.length);
+        for (Long userId : userIds) {
+            for (String typeToken : typeTokens) {
+                keys.add("user:" + userId + ":" + typeToken);
+            }
+        }
+        if (keys.isEmpty()) {
+            return 0;
+        }
+
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+        String[] tokens = values == null ? new String[0] : values.stream()
+                .filter(Objects::nonNull)
+                .toArray(String[]::new);
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                if (tokens.length > 0) {
+                    operations.opsForSet().add("blacklist_tokens", (Object[]) tokens);
+                }
+                operations.delete(keys);
+                return null;
+            }
+        });
+        for (String token : tokens) {
+            blacklistChecks.forget(token);
+        }
+        return tokens.length;
     }
 }
@@ -0,0 +1,477 @@
+package com.example.login.cache;
+
+import com.example.login.model.User;
+import com.example.login.model.projection.UserPrincipal;
+import com.example.login.repository.UserRepository;
+import com.example.login.util.AfterCommit;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache de leitura dos usuários em dois níveis, na frente do {@link UserRepository}.
+ * <p>
+ * O primeiro nível fica em memória local (limitado por quantidade e tempo); o segundo fica no Redis e é
+ * compartilhado entre as instâncias. Cada usuário é indexado por ID ({@code users:id:{id}}) e por e-mail
+ * ({@code users:email:{email}} aponta para o ID). Ausências não são guardadas. A projeção {@link UserPrincipal},
+ * usada para autenticar requisições, é guardada à parte ({@code users:principal:{email}}) e carregada sem
+ * hidratar a entidade completa.
+ * <p>
+ * As leituras concorrentes de uma mesma chave ausente são agrupadas em uma única carga ({@link SingleFlight}),
+ * evitando que vários acessos simultâneos ao mesmo usuário atinjam o Redis e o banco ao mesmo tempo. As
+ * alterações são propagadas por {@link #invalidate(Long, String)}: a entrada é removida do Redis e um aviso é
+ * publicado no canal {@value #CHANNEL}, fazendo com que todas as instâncias descartem a cópia local.
+ * <p>
+ * Cada usuário possui no Redis uma geração por ID e por e-mail ({@code users:gen:id:{id}},
+ * {@code users:gen:email:{email}}), incrementada a cada invalidação. A carga lê a geração antes de consultar o
+ * banco e só grava o resultado no Redis se ela não mudou (comparação atômica em Lua); assim, uma leitura anterior
+ * ao commit de uma alteração, em qualquer instância, não volta a publicar o estado antigo.
+ * <p>
+ * Os hashes de senha nunca são gravados no Redis: as cópias vindas do Redis não os contêm, e
+ * {@link #findByEmailWithPassword(String)} os obtém da memória local ou do banco. Os objetos retornados são
+ * destacados do contexto de persistência; fluxos que alteram o usuário devem buscá-lo diretamente no repositório.
+ */
+@Slf4j
+@Component
+public class UserCache {
+
+    public static final String CHANNEL = "users:invalidate";
+
+    /**
+     * Grava as entradas somente se a geração ({@code KEYS[1]}) ainda for a lida antes da carga ({@code ARGV[1]}).
+     * {@code ARGV[2]} é o TTL em milissegundos e {@code ARGV[3..]} os valores de {@code KEYS[2..]}.
+     */
+    private static final RedisScript<Long> STORE = new DefaultRedisScript<>("""
+            if (redis.call('GET', KEYS[1]) or '0') ~= ARGV[1] then
+                return 0
+            end
+            for i = 2, #KEYS do
+                redis.call('SET', KEYS[i], ARGV[i + 1], 'PX', ARGV[2])
+            end
+            return 1
+            """, Long.class);
+
+    /**
+     * Incrementa as {@code ARGV[2]} primeiras chaves (gerações, com TTL de {@code ARGV[1]} milissegundos) e
+     * remove as demais.
+     */
+    private static final RedisScript<Long> INVALIDATE = new DefaultRedisScript<>("""
+            local generations = tonumber(ARGV[2])
+            for i = 1, #KEYS do
+                if i <= generations then
+                    redis.call('INCR', KEYS[i])
+                    redis.call('PEXPIRE', KEYS[i], ARGV[1])
+                else
+                    redis.call('DEL', KEYS[i])
+                end
+            end
+            return generations
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Duration redisTtl;
+
+    private final Cache<Long, CachedUser> byId;
+    private final Cache<String, Long> byEmail;
+    private final Cache<String, UserPrincipal> principals;
+    private final SingleFlight<String, Loaded<CachedUser>> userLoads;
+    private final SingleFlight<String, Loaded<UserPrincipal>> principalLoads;
+
+    /**
+     * Incrementado a cada invalidação recebida; cargas iniciadas antes de uma invalidação não são guardadas na
+     * memória local. A geração é lida pela própria carga ({@link Loaded}), não por cada chamador agrupado nela.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter redisHits;
+    private final Counter redisMisses;
+
+    public UserCache(StringRedisTemplate redisTemplate, UserRepository userRepository, ObjectMapper objectMapper,
+                     RedisMessageListenerContainer listenerContainer, MeterRegistry meterRegistry,
+                     @Value("${user.cache.local.max-size:10000}") long localMaxSize,
+                     @Value("${user.cache.local.ttl:5m}") Duration localTtl,
+                     @Value("${user.cache.redis.ttl:30m}") Duration redisTtl) {
+        this.redisTemplate = redisTemplate;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.listenerContainer = listenerContainer;
+        this.redisTtl = redisTtl;
+
+        this.byId = Caffeine.newBuilder().maximumSize(localMaxSize).expireAfterWrite(localTtl).build();
+        this.byEmail = Caffeine.newBuilder().maximumSize(localMaxSize).expireAfterWrite(localTtl).build();
+        this.principals = Caffeine.newBuilder().maximumSize(localMaxSize).expireAfterWrite(localTtl).build();
+
+        this.userLoads = new SingleFlight<>("user", meterRegistry);
+        this.principalLoads = new SingleFlight<>("user-principal", meterRegistry);
+
+        this.localHits = requests(meterRegistry, "local", "hit");
+        this.localMisses = requests(meterRegistry, "local", "miss");
+        this.redisHits = requests(meterRegistry, "redis", "hit");
+        this.redisMisses = requests(meterRegistry, "redis", "miss");
+        Gauge.builder("user.cache.local.size", byId, Cache::estimatedSize)
+                .description("Usuários guardados na memória local")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this::onInvalidation, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * Busca um usuário pelo ID.
+     *
+     * @param id ID do usuário.
+     * @return O usuário, ou vazio se não existir.
+     */
+    public Optional<User> findById(Long id) {
+        CachedUser cached = byId.getIfPresent(id);
+        if (cached != null) {
+            localHits.increment();
+            return Optional.of(cached.toUser());
+        }
+
+        localMisses.increment();
+        Loaded<CachedUser> loaded = userLoads.execute(idKey(id), () -> load(() -> loadById(id)));
+        cacheLocally(loaded);
+        return Optional.ofNullable(loaded.value()).map(CachedUser::toUser);
+    }
+
+    /**
+     * Busca um usuário pelo e-mail.
+     *
+     * @param email E-mail do usuário.
+     * @return O usuário, ou {@code null} se não existir (mesmo contrato de {@link UserRepository#findByEmail}).
+     */
+    public User findByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+
+        String key = normalize(email);
+        Long id = byEmail.getIfPresent(key);
+        CachedUser cached = id != null ? byId.getIfPresent(id) : null;
+        if (cached != null) {
+            localHits.increment();
+            return cached.toUser();
+        }
+
+        localMisses.increment();
+        Loaded<CachedUser> loaded = userLoads.execute(emailKey(key), () -> load(() -> loadByEmail(key)));
+        cacheLocally(loaded);
+        return loaded.value() != null ? loaded.value().toUser() : null;
+    }
+
+    /**
+     * Busca um usuário pelo e-mail incluindo os hashes de senha, para a autenticação. Os hashes vêm da memória
+     * local, quando a cópia local foi carregada do banco, ou do próprio banco; nunca do Redis.
+     *
+     * @param email E-mail do usuário.
+     * @return O usuário, ou {@code null} se não existir.
+     */
+    public User findByEmailWithPassword(String email) {
+        if (email == null) {
+            return null;
+        }
+
+        String key = normalize(email);
+        Long id = byEmail.getIfPresent(key);
+        CachedUser cached = id != null ? byId.getIfPresent(id) : null;
+        if (cached != null && cached.hasPassword()) {
+            localHits.increment();
+            return cached.toUser();
+        }
+
+        localMisses.increment();
+        Loaded<CachedUser> loaded = userLoads.execute(emailKey(key) + ":password",
+                () -> load(() -> loadWithPassword(key)));
+        cacheLocally(loaded);
+        return loaded.value() != null ? loaded.value().toUser() : null;
+    }
+
+    /**
+     * Busca apenas os dados de autenticação do usuário (ID, e-mail, função e status).
+     *
+     * @param email E-mail do usuário.
+     * @return A projeção do usuário, ou {@code null} se não existir.
+     */
+    public UserPrincipal findPrincipalByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+
+        String key = normalize(email);
+        UserPrincipal principal = principals.getIfPresent(key);
+        if (principal == null) {
+            Long id = byEmail.getIfPresent(key);
+            CachedUser cached = id != null ? byId.getIfPresent(id) : null;
+            principal = cached != null ? cached.toPrincipal() : null;
+        }
+        if (principal != null) {
+            localHits.increment();
+            return principal;
+        }
+
+        localMisses.increment();
+        Loaded<UserPrincipal> loaded = principalLoads.execute(key, () -> load(() -> loadPrincipal(key)));
+        if (loaded.value() != null && invalidations.get() == loaded.generation()) {
+            principals.put(key, loaded.value());
+        }
+        return loaded.value();
+    }
+
+    /**
+     * Remove o usuário do cache em todas as instâncias. Dentro de uma transação, a remoção ocorre após o commit.
+     *
+     * @param id    ID do usuário alterado.
+     * @param email E-mail do usuário alterado.
+     */
+    public void invalidate(Long id, String email) {
+        AfterCommit.run(() -> {
+            evictLocal(id, email);
+
+            List<String> keys = email != null
+                    ? List.of(idGenerationKey(id), emailGenerationKey(normalize(email)),
+                            idKey(id), emailKey(normalize(email)), principalKey(normalize(email)))
+                    : List.of(idGenerationKey(id), idKey(id));
+            redisTemplate.execute(INVALIDATE, keys, String.valueOf(redisTtl.toMillis()),
+                    String.valueOf(email != null ? 2 : 1));
+            redisTemplate.convertAndSend(CHANNEL, id + "|" + (email != null ? email : ""));
+        });
+    }
+
+    /**
+     * Remove vários usuários do cache em todas as instâncias, com uma única remoção no Redis e os avisos de
+     * invalidação publicados em pipeline. Dentro de uma transação, a remoção ocorre após o commit.
+     *
+     * @param emailsById E-mail de cada usuário alterado, por ID.
+     */
+    public void invalidateAll(Map<Long, String> emailsById) {
+        if (emailsById.isEmpty()) {
+            return;
+        }
+
+        AfterCommit.run(() -> {
+            List<String> generations = new ArrayList<>(emailsById.size() * 2);
+            List<String> entries = new ArrayList<>(emailsById.size() * 3);
+            emailsById.forEach((id, email) -> {
+                evictLocal(id, email);
+                generations.add(idGenerationKey(id));
+                entries.add(idKey(id));
+                if (email != null) {
+                    generations.add(emailGenerationKey(normalize(email)));
+                    entries.add(emailKey(normalize(email)));
+                    entries.add(principalKey(normalize(email)));
+                }
+            });
+
+            List<String> keys = new ArrayList<>(generations);
+            keys.addAll(entries);
+            redisTemplate.execute(INVALIDATE, keys, String.valueOf(redisTtl.toMillis()),
+                    String.valueOf(generations.size()));
+
+            byte[] channel = CHANNEL.getBytes(StandardCharsets.UTF_8);
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                emailsById.forEach((id, email) -> connection.publish(channel,
+                        (id + "|" + (email != null ? email : "")).getBytes(StandardCharsets.UTF_8)));
+                return null;
+            });
+        });
+    }
+
+    private CachedUser loadById(Long id) {
+        String json = redisTemplate.opsForValue().get(idKey(id));
+        if (json != null) {
+            redisHits.increment();
+            return read(json, CachedUser.class);
+        }
+
+        redisMisses.increment();
+        String generation = redisGeneration(idGenerationKey(id));
+        return userRepository.findById(id)
+                .map(user -> store(user, idGenerationKey(id), generation))
+                .orElse(null);
+    }
+
+    private CachedUser loadByEmail(String email) {
+        String id = redisTemplate.opsForValue().get(emailKey(email));
+        if (id != null) {
+            redisHits.increment();
+            return loadById(Long.valueOf(id));
+        }
+
+        redisMisses.increment();
+        String generation = redisGeneration(emailGenerationKey(email));
+        User user = userRepository.findByEmail(email);
+        return user != null ? store(user, emailGenerationKey(email), generation) : null;
+    }
+
+    private CachedUser loadWithPassword(String email) {
+        String generation = redisGeneration(emailGenerationKey(email));
+        User user = userRepository.findByEmail(email);
+        return user != null ? store(user, emailGenerationKey(email), generation) : null;
+    }
+
+    private UserPrincipal loadPrincipal(String email) {
+        String json = redisTemplate.opsForValue().get(principalKey(email));
+        if (json != null) {
+            redisHits.increment();
+            return read(json, UserPrincipal.class);
+        }
+
+        redisMisses.increment();
+        String generation = redisGeneration(emailGenerationKey(email));
+        UserPrincipal principal = userRepository.findPrincipalByEmail(email);
+        if (principal != null) {
+            String value = serialize(principalKey(email), principal);
+            if (value != null) {
+                redisTemplate.execute(STORE, List.of(emailGenerationKey(email), principalKey(email)),
+                        generation, String.valueOf(redisTtl.toMillis()), value);
+            }
+        }
+        return principal;
+    }
+
+    /**
+     * Grava no Redis, sem os hashes de senha, o usuário carregado do banco. Uma invalidação durante a carga
+     * (geração diferente da lida antes dela) indica que o valor lido pode já estar desatualizado, e nada é gravado.
+     */
+    private CachedUser store(User user, String generationKey, String generation) {
+        CachedUser cached = CachedUser.from(user);
+
+        String json = serialize(idKey(user.getId()), cached.withoutPasswords());
+        if (json != null) {
+            redisTemplate.execute(STORE,
+                    List.of(generationKey, idKey(user.getId()), emailKey(normalize(user.getEmail()))),
+                    generation, String.valueOf(redisTtl.toMillis()), json, user.getId().toString());
+        }
+        return cached;
+    }
+
+    private String redisGeneration(String generationKey) {
+        String generation = redisTemplate.opsForValue().get(generationKey);
+        return generation != null ? generation : "0";
+    }
+
+    private <T> Loaded<T> load(Supplier<T> loader) {
+        long generation = invalidations.get();
+        return new Loaded<>(loader.get(), generation);
+    }
+
+    private void cacheLocally(Loaded<CachedUser> loaded) {
+        CachedUser cached = loaded.value();
+        if (cached == null || invalidations.get() != loaded.generation()) {
+            return;
+        }
+
+        byId.put(cached.id(), cached);
+        byEmail.put(normalize(cached.email()), cached.id());
+    }
+
+    private String serialize(String key, Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            log.warn("Falha ao serializar {} para o cache de usuários", key, e);
+            return null;
+        }
+    }
+
+    private <T> T read(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            log.warn("Entrada inválida no cache de usuários; ignorando", e);
+            return null;
+        }
+    }
+
+    private void onInvalidation(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('|');
+        try {
+            Long id = Long.valueOf(body.substring(0, separator));
+            String email = body.substring(separator + 1);
+            evictLocal(id, email.isEmpty() ? null : email);
+        } catch (RuntimeException e) {
+            log.warn("Mensagem de invalidação de usuário inválida: {}", body);
+        }
+    }
+
+    private void evictLocal(Long id, String email) {
+        invalidations.incrementAndGet();
+        byId.invalidate(id);
+        if (email != null) {
+            byEmail.invalidate(normalize(email));
+            principals.invalidate(normalize(email));
+        }
+    }
+
+    /**
+     * Resultado de uma carga, com a geração de invalidações lida antes dela.
+     */
+    private record Loaded<T>(T value, long generation) {
+    }
+
+    private static Counter requests(MeterRegistry registry, String tier, String result) {
+        return Counter.builder("user.cache.requests")
+                .description("Leituras do cache de usuários por nível")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String idKey(Long id) {
+        return "users:id:" + id;
+    }
+
+    private static String emailKey(String email) {
+        return "users:email:" + email;
+    }
+
+    private static String principalKey(String email) {
+        return "users:principal:" + email;
+    }
+
+    private static String idGenerationKey(Long id) {
+        return "users:gen:id:" + id;
+    }
+
+    private static String emailGenerationKey(String email) {
+        return "users:gen:email:" + email;
+    }
+}
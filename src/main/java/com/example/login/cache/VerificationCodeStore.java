@@ -0,0 +1,76 @@
+package com.example.login.cache;
+
+import com.example.login.exception.BadRequestException;
+
+/**
+ * Códigos de verificação enviados por e-mail (validação de cadastro e redefinição de senha).
+ * <p>
+ * A implementação é escolhida por {@code verification.code.mode}: {@code redis} ({@link RedisVerificationCodeStore},
+ * padrão) guarda cada código no Redis; {@code hmac} ({@link HmacVerificationCodeStore}) deriva os códigos de uma
+ * chave do servidor, sem armazená-los, e guarda no Redis apenas os códigos usados e as tentativas erradas.
+ * <p>
+ * Métricas: {@code verification.code.checks} (tag {@code result}).
+ */
+public interface VerificationCodeStore {
+
+    int CODE_LENGTH = 6;
+
+    /**
+     * Gera o código a ser enviado ao e-mail.
+     *
+     * @param purpose Finalidade do código.
+     * @param email   E-mail do usuário.
+     * @return O código, com {@link #CODE_LENGTH} caracteres alfanuméricos.
+     */
+    String issue(Purpose purpose, String email);
+
+    /**
+     * Verifica o código informado e, se estiver correto, o consome.
+     *
+     * @param purpose Finalidade do código.
+     * @param email   E-mail do usuário.
+     * @param code    Código informado.
+     * @return O resultado da verificação.
+     */
+    Result verify(Purpose purpose, String email, String code);
+
+    /**
+     * Verifica e consome o código informado.
+     *
+     * @param purpose Finalidade do código.
+     * @param email   E-mail do usuário.
+     * @param code    Código informado.
+     * @throws BadRequestException Se o código for inválido, estiver expirado ou as tentativas tiverem se esgotado.
+     */
+    default void consume(Purpose purpose, String email, String code) {
+        Result result = verify(purpose, email, code);
+        if (result == Result.EXHAUSTED) {
+            throw new BadRequestException("Tentativas esgotadas; solicite um novo código de validação.");
+        }
+        if (result != Result.VALID) {
+            throw new BadRequestException("Código de validação expirado ou inválido.");
+        }
+    }
+
+    /**
+     * Finalidade do código; um código só é aceito na finalidade para a qual foi emitido.
+     */
+    enum Purpose {
+        REGISTRATION,
+        PASSWORD_RESET
+    }
+
+    /**
+     * Resultado de {@link #verify(Purpose, String, String)}.
+     */
+    enum Result {
+        /** Código correto; já foi consumido. */
+        VALID,
+        /** Código incorreto; a tentativa foi contada. */
+        INVALID,
+        /** Não há código válido para o e-mail (nunca emitido, já usado ou expirado). */
+        EXPIRED,
+        /** Código incorreto na última tentativa permitida; o código foi descartado. */
+        EXHAUSTED
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.login.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Detalhes comuns às implementações de {@link VerificationCodeStore}.
+ */
+final class VerificationCodes {
+
+    static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    private VerificationCodes() {
+    }
+
+    /**
+     * Registra os contadores de {@code verification.code.checks}, um por resultado.
+     */
+    static Map<VerificationCodeStore.Result, Counter> checkCounters(MeterRegistry meterRegistry) {
+        Map<VerificationCodeStore.Result, Counter> checks = new EnumMap<>(VerificationCodeStore.Result.class);
+        for (VerificationCodeStore.Result result : VerificationCodeStore.Result.values()) {
+            checks.put(result, Counter.builder("verification.code.checks")
+                    .description("Verificações de códigos enviados por e-mail")
+                    .tag("result", result.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        return checks;
+    }
+
+    /**
+     * Chave normalizada do e-mail.
+     */
+    static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.login.config;
+
+import com.example.login.audit.sink.AuditSink;
+import com.example.login.audit.sink.BucketedMongoAuditSink;
+import com.example.login.audit.sink.CompositeAuditSink;
+import com.example.login.audit.sink.MongoAuditSink;
+import com.example.login.audit.sink.NoopAuditSink;
+import com.example.login.audit.sink.RollingFileAuditSink;
+import com.example.login.repository.mongo.AuditLogRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Configuração do destino dos registros de auditoria.
+ * <p>
+ * O destino é escolhido pela propriedade {@code audit.sink.type}:
+ * <ul>
+ *     <li>{@code mongo}: grava na coleção {@code auditLogs} (padrão);</li>
+ *     <li>{@code bucket}: agrupa os eventos por usuário e hora na coleção {@code auditBuckets};</li>
+ *     <li>{@code file}: grava em arquivos NDJSON locais com rotação por tamanho e tempo;</li>
+ *     <li>{@code composite}: grava em todos os destinos listados em {@code audit.sink.composite};</li>
+ *     <li>{@code noop}: descarta os registros.</li>
+ * </ul>
+ */
+@Configuration
+public class AuditSinkConfig {
+
+    @Value("${audit.sink.type:mongo}")
+    private String type;
+
+    @Value("${audit.sink.composite:mongo,file}")
+    private List<String> compositeTypes;
+
+    @Value("${audit.sink.file.directory:audit-logs}")
+    private Path fileDirectory;
+
+    @Value("${audit.sink.file.max-size:64MB}")
+    private DataSize fileMaxSize;
+
+    @Value("${audit.sink.file.rotation-interval:1h}")
+    private Duration fileRotationInterval;
+
+    @Value("${audit.sink.file.compression:gzip}")
+    private String fileCompression;
+
+    @Value("${audit.sink.bucket.max-events:200}")
+    private int bucketMaxEvents;
+
+    @Value("${audit.sink.bucket.anonymous-spread:16}")
+    private int bucketAnonymousSpread;
+
+    private AuditSink auditSink;
+
+    /**
+     * Define o bean {@link AuditSink} de acordo com o tipo configurado.
+     *
+     * @param auditLogRepository Repositório do MongoDB, resolvido apenas quando o destino {@code mongo} é utilizado.
+     * @param mongoTemplate      Template do MongoDB, resolvido apenas quando o destino {@code bucket} é utilizado.
+     * @param objectMapper       ObjectMapper da aplicação, usado para serializar os registros em arquivo.
+     * @return O destino de auditoria configurado.
+     */
+    @Bean
+    public AuditSink auditSink(ObjectProvider<AuditLogRepository> auditLogRepository,
+                               ObjectProvider<MongoTemplate> mongoTemplate, ObjectMapper objectMapper) {
+        auditSink = createSink(type, auditLogRepository, mongoTemplate, objectMapper);
+        return auditSink;
+    }
+
+    /**
+     * Descarrega periodicamente os buffers do destino, garantindo que arquivos sejam rotacionados por tempo
+     * mesmo em períodos sem tráfego.
+     */
+    @Scheduled(fixedDelayString = "${audit.sink.flush-interval:1s}")
+    public void flushAuditSink() {
+        if (auditSink != null) {
+            auditSink.flush();
+        }
+    }
+
+    private AuditSink createSink(String sinkType, ObjectProvider<AuditLogRepository> auditLogRepository,
+                                 ObjectProvider<MongoTemplate> mongoTemplate, ObjectMapper objectMapper) {
+        return switch (sinkType.trim().toLowerCase()) {
+            case "mongo" -> new MongoAuditSink(auditLogRepository.getObject());
+            case "bucket" -> new BucketedMongoAuditSink(mongoTemplate.getObject(), bucketMaxEvents, bucketAnonymousSpread);
+            case "file" -> new RollingFileAuditSink(
+                    fileDirectory,
+                    fileMaxSize.toBytes(),
+                    fileRotationInterval,
+                    isCompressed(),
+                    objectMapper.writer(),
+                    Clock.systemUTC());
+            case "noop" -> new NoopAuditSink();
+            case "composite" -> new CompositeAuditSink(compositeTypes.stream()
+                    .filter(t -> !t.equalsIgnoreCase("composite"))
+                    .map(t -> createSink(t, auditLogRepository, mongoTemplate, objectMapper))
+                    .toList());
+            default -> throw new IllegalStateException("Tipo de audit.sink.type não suportado: " + sinkType);
+        };
+    }
+
+    private boolean isCompressed() {
+        return switch (fileCompression.trim().toLowerCase()) {
+            case "gzip" -> true;
+            case "none" -> false;
+            default -> throw new IllegalStateException(
+                    "Compressão não suportada: " + fileCompression + ". Valores aceitos: " + Arrays.asList("gzip", "none"));
+        };
+    }
+}
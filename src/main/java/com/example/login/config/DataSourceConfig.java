@@ -0,0 +1,115 @@
+package com.example.login.config;
+
+import com.example.login.datasource.ReadYourWrites;
+import com.example.login.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuração do roteamento de leituras para réplicas do MySQL, habilitada por {@code datasource.replica.enabled}.
+ * <p>
+ * O banco principal continua configurado por {@code spring.datasource.*} e é usado pelo Flyway e pelas transações
+ * de escrita. As réplicas são listadas em {@code datasource.replica.urls} e, por padrão, usam as mesmas credenciais.
+ * Cada destino possui seu próprio pool Hikari ({@code primary}, {@code replica-0}, ...), configurado por
+ * {@code spring.datasource.hikari.*} (tamanho, timeouts, ...), com métricas {@code hikaricp.connections.*}
+ * separadas pela tag {@code pool}.
+ * <p>
+ * A janela {@code datasource.replica.sticky-window} deve ser maior que o atraso de replicação esperado. Não é
+ * aplicada quando o particionamento ({@code datasource.shards.enabled}) está habilitado.
+ */
+@Configuration
+@ConditionalOnExpression("${datasource.replica.enabled:false} and !${datasource.shards.enabled:false}")
+public class DataSourceConfig {
+
+    @Value("${datasource.replica.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${datasource.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${datasource.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${datasource.replica.sticky-window:5s}")
+    private Duration stickyWindow;
+
+    @Bean
+    @FlywayDataSource
+    public HikariDataSource primaryDataSource(DataSourceProperties properties, Environment environment,
+                                              MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        bindHikariProperties(dataSource, environment);
+        return pool(dataSource, "primary", meterRegistry);
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties properties,
+                                                             Environment environment,
+                                                             MeterRegistry meterRegistry) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(replicaUrls.get(i).trim())
+                    .username(replicaUsername)
+                    .password(replicaPassword)
+                    .build();
+            bindHikariProperties(replica, environment);
+            replica.setReadOnly(true);
+            replicas.add(pool(replica, "replica-" + i, meterRegistry));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, new ReadYourWrites(stickyWindow));
+    }
+
+    /**
+     * Datasource usado pelo JPA: adia a obtenção da conexão até a primeira instrução, quando o roteamento já
+     * conhece o tipo da transação.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /**
+     * Aplica {@code spring.datasource.hikari.*} a um pool criado manualmente (o Spring Boot só as aplica ao
+     * datasource que ele mesmo cria). A URL e as credenciais já definidas no pool são mantidas.
+     */
+    static void bindHikariProperties(HikariDataSource dataSource, Environment environment) {
+        String url = dataSource.getJdbcUrl();
+        String username = dataSource.getUsername();
+        String password = dataSource.getPassword();
+
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+    }
+
+    static HikariDataSource pool(HikariDataSource dataSource, String name, MeterRegistry meterRegistry) {
+        dataSource.setPoolName(name);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+}
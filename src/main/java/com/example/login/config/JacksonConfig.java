@@ -0,0 +1,34 @@
+package com.example.login.config;
+
+import com.example.login.aspect.view.JsonViewHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * Configuração da serialização JSON das respostas HTTP.
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Registra o módulo Blackbird no ObjectMapper da aplicação, substituindo o acesso por reflexão aos
+     * getters, setters e construtores por lambdas geradas em tempo de execução.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "jackson.blackbird.enabled", havingValue = "true", matchIfMissing = true)
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * Substitui o conversor JSON padrão por um que reutiliza os writers de cada visualização.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new JsonViewHttpMessageConverter(objectMapper);
+    }
+}
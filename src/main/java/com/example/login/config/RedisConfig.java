@@ -4,6 +4,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
 /**
  * Configuração para integração com o Redis no projeto Spring.
@@ -28,4 +29,18 @@ public class RedisConfig {
         template.setConnectionFactory(connectionFactory);
         return template;
     }
+
+    /**
+     * Define o container de assinaturas pub/sub do Redis, usado para propagar invalidações de cache entre as
+     * instâncias da aplicação.
+     *
+     * @param connectionFactory A fábrica de conexão do Redis fornecida pelo Spring Boot.
+     * @return O container de listeners do Redis.
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
 }
@@ -0,0 +1,114 @@
+package com.example.login.config;
+
+import com.example.login.datasource.shard.ShardRebalancer;
+import com.example.login.datasource.shard.ShardRing;
+import com.example.login.datasource.shard.ShardRouter;
+import com.example.login.datasource.shard.ShardRoutingAspect;
+import com.example.login.datasource.shard.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuração do particionamento de {@code tb_users} entre vários bancos MySQL, habilitada por
+ * {@code datasource.shards.enabled}.
+ * <p>
+ * Os shards são listados em {@code datasource.shards.urls} e nomeados pela posição ({@code shard-0},
+ * {@code shard-1}, ...); a ordem deve ser mantida ao adicionar shards. Todos recebem as mesmas migrações do Flyway
+ * e possuem pools Hikari próprios, configurados por {@code spring.datasource.hikari.*}, com métricas separadas pela
+ * tag {@code pool}. Quando habilitado, substitui o
+ * roteamento para réplicas ({@code datasource.replica.enabled} é ignorado).
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.shards.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Value("${datasource.shards.urls}")
+    private List<String> urls;
+
+    @Value("${datasource.shards.username:${spring.datasource.username}}")
+    private String username;
+
+    @Value("${datasource.shards.password:${spring.datasource.password}}")
+    private String password;
+
+    @Value("${datasource.shards.virtual-nodes:64}")
+    private int virtualNodes;
+
+    @Value("${datasource.shards.rebalance.drain-timeout:30s}")
+    private Duration drainTimeout;
+
+    @Value("${datasource.shards.rebalance.batch-size:500}")
+    private int batchSize;
+
+    @Bean(destroyMethod = "close")
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties properties, Environment environment,
+                                                         MeterRegistry meterRegistry) {
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource shard = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(urls.get(i).trim())
+                    .username(username)
+                    .password(password)
+                    .build();
+            DataSourceConfig.bindHikariProperties(shard, environment);
+            shards.put("shard-" + i, DataSourceConfig.pool(shard, "shard-" + i, meterRegistry));
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    /**
+     * Aplica as migrações de {@code spring.flyway.locations} em cada shard.
+     */
+    @Bean
+    public FlywayMigrationStrategy shardMigrationStrategy(ShardRoutingDataSource shardRoutingDataSource) {
+        return flyway -> shardRoutingDataSource.shards().values().forEach(shard -> Flyway.configure()
+                .configuration(flyway.getConfiguration())
+                .dataSource(shard)
+                .load()
+                .migrate());
+    }
+
+    @Bean
+    public ShardRouter shardRouter(StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer,
+                                   ShardRoutingDataSource shardRoutingDataSource) {
+        ShardRing ring = new ShardRing(List.copyOf(shardRoutingDataSource.shards().keySet()), virtualNodes);
+        return new ShardRouter(ring, redisTemplate, listenerContainer);
+    }
+
+    @Bean
+    public ShardRoutingAspect shardRoutingAspect(ShardRouter shardRouter) {
+        return new ShardRoutingAspect(shardRouter);
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(ShardRouter shardRouter, ShardRoutingDataSource shardRoutingDataSource) {
+        return new ShardRebalancer(shardRouter, shardRoutingDataSource, virtualNodes, drainTimeout, batchSize);
+    }
+}
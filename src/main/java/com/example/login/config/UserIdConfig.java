@@ -0,0 +1,65 @@
+package com.example.login.config;
+
+import com.example.login.lock.ClusterLock;
+import com.example.login.model.id.UserIds;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configura o número do nó usado na geração dos IDs de usuário ({@code user.id.node}, de 0 a 63). Cada instância
+ * que grava usuários deve usar um número diferente.
+ * <p>
+ * O número é reservado no Redis pela trava {@code user-id-node:{n}}, renovada periodicamente; a aplicação não inicia
+ * se outra instância ativa já usa o mesmo número, o que geraria IDs repetidos.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class UserIdConfig {
+
+    private static final Duration LEASE = Duration.ofSeconds(15);
+
+    private final ClusterLock clusterLock;
+
+    @Value("${user.id.node:0}")
+    private int node;
+
+    private ClusterLock.Handle claim;
+
+    @PostConstruct
+    public void configure() {
+        claim = clusterLock.tryAcquire("user-id-node:" + node, LEASE);
+        if (claim == null) {
+            throw new IllegalStateException("user.id.node=" + node + " já está em uso por outra instância");
+        }
+        UserIds.configure(node);
+    }
+
+    @Scheduled(fixedRate = 5, timeUnit = TimeUnit.SECONDS)
+    public void renew() {
+        if (claim.extend(LEASE)) {
+            return;
+        }
+
+        ClusterLock.Handle reclaimed = clusterLock.tryAcquire("user-id-node:" + node, LEASE);
+        if (reclaimed != null) {
+            claim = reclaimed;
+            log.warn("Reserva de user.id.node={} expirou e foi refeita", node);
+        } else {
+            log.error("Reserva de user.id.node={} expirou e foi obtida por outra instância; IDs podem se repetir", node);
+        }
+    }
+
+    @PreDestroy
+    public void release() {
+        claim.close();
+    }
+}
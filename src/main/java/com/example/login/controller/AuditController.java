@@ -0,0 +1,98 @@
+package com.example.login.controller;
+
+import com.example.login.audit.stream.AuditStreamFilter;
+import com.example.login.model.collection.AuditLog;
+import com.example.login.service.AuditService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/audit")
+@RequiredArgsConstructor
+public class AuditController {
+
+    private final AuditService auditService;
+
+    /**
+     * Consulta registros de auditoria arquivados (armazenamento frio) em um intervalo de tempo.
+     *
+     * @param from  Início do intervalo, no formato ISO (ex: 2025-01-01T00:00:00).
+     * @param to    Fim do intervalo, no formato ISO.
+     * @param limit Quantidade máxima de registros retornados.
+     * @return Uma resposta HTTP 200 contendo os registros encontrados.
+     */
+    @GetMapping("/archive")
+    public ResponseEntity<List<AuditLog>> findArchived(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(auditService.findArchived(from, to, limit));
+    }
+
+    /**
+     * Acompanha em tempo real os registros de auditoria gerados por esta instância (Server-Sent Events).
+     * <p>
+     * Os eventos vêm diretamente do pipeline de auditoria em memória, sem consultas ao MongoDB. Clientes que não
+     * acompanham o ritmo de publicação perdem os eventos mais antigos e recebem um evento {@code dropped}.
+     *
+     * @param level  Filtra pelo nível do log (INFO, WARN, ERROR).
+     * @param userId Filtra pelo ID do usuário.
+     * @param method Filtra pelo nome do método auditado.
+     * @return O fluxo SSE de eventos {@code audit}.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(required = false) String level,
+                             @RequestParam(required = false) Long userId,
+                             @RequestParam(required = false) String method) {
+        return auditService.stream(new AuditStreamFilter(level, userId, method));
+    }
+
+    /**
+     * Busca a linha do tempo de auditoria de um usuário, lida dos documentos agrupados por usuário e hora.
+     * Disponível quando {@code audit.sink.type=bucket} (ou um composite que o inclua).
+     *
+     * @param userId ID do usuário.
+     * @param from   Início do intervalo, no formato ISO.
+     * @param to     Fim do intervalo, no formato ISO.
+     * @return Uma resposta HTTP 200 contendo os eventos do usuário em ordem cronológica.
+     */
+    @GetMapping("/users/{userId}/timeline")
+    public ResponseEntity<List<AuditLog>> findUserTimeline(
+            @PathVariable Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(auditService.findUserTimeline(userId, from, to));
+    }
+
+    /**
+     * Busca textual nos registros de auditoria indexados localmente (requer {@code audit.search.enabled=true}).
+     * <p>
+     * Aceita a sintaxe do Lucene: termos e frases em {@code details}, {@code parameters} e {@code exception},
+     * filtros por campo ({@code level:ERROR}, {@code methodName:login}, {@code userId:42}) e operadores booleanos.
+     *
+     * @param q     Consulta; vazia retorna todos os registros do intervalo.
+     * @param from  Início do intervalo, no formato ISO.
+     * @param to    Fim do intervalo, no formato ISO.
+     * @param limit Quantidade máxima de registros retornados.
+     * @return Uma resposta HTTP 200 contendo os registros encontrados, do mais recente para o mais antigo.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<AuditLog>> search(
+            @RequestParam(required = false) String q,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(auditService.search(q, from, to, limit));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.login.controller;
+
+import com.example.login.service.ShardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/shards")
+@RequiredArgsConstructor
+public class ShardController {
+
+    private final ShardService shardService;
+
+    /**
+     * Primeira etapa da adição de shards, executada antes de implantar a nova lista de shards: fixa no shard atual
+     * os buckets de usuários que mudarão de dono.
+     *
+     * @param shards Quantidade de shards da nova topologia.
+     * @return Uma resposta HTTP 200 com os buckets fixados e seus shards atuais.
+     */
+    @PostMapping("/plan")
+    public ResponseEntity<Map<Integer, String>> plan(@RequestParam int shards) {
+        return ResponseEntity.ok(shardService.plan(shards));
+    }
+
+    /**
+     * Segunda etapa, executada após a implantação: move os usuários dos buckets fixados para os novos shards.
+     *
+     * @return Uma resposta HTTP 200 com a quantidade de usuários movidos por bucket.
+     */
+    @PostMapping("/rebalance")
+    public ResponseEntity<Map<Integer, Long>> rebalance() {
+        return ResponseEntity.ok(shardService.rebalance());
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.login.controller;
+
+import com.example.login.dto.request.UserFilter;
+import com.example.login.dto.request.UserStatusRequest;
+import com.example.login.dto.response.BulkJobStatus;
+import com.example.login.dto.response.UserImportReport;
+import com.example.login.enums.Role;
+import com.example.login.service.UserAdminService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/admin/users")
+@RequiredArgsConstructor
+public class UserAdminController {
+
+    private final UserAdminService userAdminService;
+
+    /**
+     * Lista os usuários com filtros e paginação por chave, em ordem de criação.
+     * <p>
+     * A resposta é escrita em fluxo no formato {@code {"users": [...], "next": "<cursor>"}}. Para obter a próxima
+     * página, repete-se a requisição com {@code after} igual ao {@code next} recebido; {@code next} nulo indica a
+     * última página.
+     *
+     * @param view        Visualização JSON dos usuários (basic, regular, details ou complete).
+     * @param role        Filtra pela função (ADMIN ou USER).
+     * @param enabled     Filtra pelo status de habilitação.
+     * @param createdFrom Início da janela de criação (inclusivo), no formato ISO.
+     * @param createdTo   Fim da janela de criação (exclusivo), no formato ISO.
+     * @param emailPrefix Filtra pelo prefixo do e-mail.
+     * @param after       Cursor da página anterior.
+     * @param limit       Quantidade máxima de usuários na página.
+     * @return Uma resposta HTTP 200 com a página de usuários.
+     */
+    @GetMapping(value = {"", "/view/{view}"})
+    public ResponseEntity<StreamingResponseBody> listUsers(
+            @PathVariable(required = false) String view,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) String emailPrefix,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int limit) {
+        var filter = new UserFilter(role != null ? Role.getRole(role) : null, enabled, createdFrom, createdTo,
+                emailPrefix);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(userAdminService.listUsers(filter, after, limit, view));
+    }
+
+    /**
+     * Importa usuários em massa a partir de um arquivo CSV ({@code text/csv}) ou NDJSON
+     * ({@code application/x-ndjson}) enviado no corpo da requisição.
+     * <p>
+     * O arquivo é lido em fluxo; cada linha é validada como no cadastro e as linhas inválidas ou com e-mail já
+     * existente são informadas na resposta, sem interromper a importação.
+     *
+     * @param contentType Tipo do conteúdo enviado.
+     * @param body        Conteúdo do arquivo.
+     * @param enabled     Se os usuários importados já ficam habilitados (padrão: sim).
+     * @return Uma resposta HTTP 200 com o resumo da importação.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<UserImportReport> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                        InputStream body,
+                                                        @RequestParam(defaultValue = "true") boolean enabled) {
+        return ResponseEntity.ok(userAdminService.importUsers(body, contentType, enabled));
+    }
+
+    /**
+     * Habilita ou desabilita usuários em massa, informados por IDs ou por filtro (como na listagem).
+     * <p>
+     * A alteração é executada em segundo plano; na desabilitação, as sessões dos usuários são revogadas. O progresso
+     * é consultado em {@code GET /admin/users/jobs/{jobId}}.
+     *
+     * @param request IDs ou filtro dos usuários e o novo status.
+     * @return Uma resposta HTTP 202 com o progresso inicial da operação.
+     */
+    @PostMapping("/status")
+    public ResponseEntity<BulkJobStatus> updateStatus(@RequestBody @Valid UserStatusRequest request) {
+        return ResponseEntity.accepted().body(userAdminService.updateStatus(request));
+    }
+
+    /**
+     * Consulta o progresso de uma operação em massa.
+     *
+     * @param jobId ID da operação.
+     * @return Uma resposta HTTP 200 com o progresso da operação.
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<BulkJobStatus> findJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(userAdminService.findJob(jobId));
+    }
+}
@@ -1,11 +1,15 @@
 package com.example.login.controller;
 
-import com.example.login.model.User;
 import com.example.login.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -16,15 +20,27 @@ public class UserController {
 
     /**
      * Busca as informações do usuário logado.
+     * <p>
+     * A resposta contém um ETag da versão atual do perfil. Requisições com {@code If-None-Match} correspondente
+     * recebem 304 (Not Modified) sem corpo.
      *
-     * @return Uma resposta HTTP contendo o status 200 (OK) e os dados do usuário.
+     * @param view        Visualização JSON solicitada (basic, regular, details ou complete).
+     * @param ifNoneMatch ETag da versão que o cliente já possui.
+     * @return Uma resposta HTTP contendo o status 200 (OK) e os dados do usuário, ou 304 se não houve alteração.
      *         Caso o usuário não seja encontrado, uma exceção será lançada.
      */
     @GetMapping(value = {"", "/view/{view}"})
-    public ResponseEntity<User> findUser() {
-        var user = userService.findUser();
+    public ResponseEntity<byte[]> findUser(@PathVariable(required = false) String view,
+                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        var profile = userService.findProfile(view, ifNoneMatch);
 
-        return ResponseEntity.status(HttpStatus.OK).body(user);
+        var response = ResponseEntity.status(profile.isNotModified() ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(profile.eTag())
+                .cacheControl(CacheControl.noCache().cachePrivate());
+        if (profile.isNotModified()) {
+            return response.build();
+        }
+        return response.contentType(MediaType.APPLICATION_JSON).body(profile.json());
     }
 
 }
@@ -0,0 +1,65 @@
+package com.example.login.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registra quem acabou de escrever no banco principal, para que as leituras seguintes dessa mesma origem também
+ * sejam feitas no principal durante uma janela de tempo, evitando enxergar o atraso de replicação das réplicas.
+ * <p>
+ * A origem é identificada pelo usuário autenticado e, nos fluxos anônimos (como o cadastro seguido do login), pelo
+ * endereço do cliente. O endereço é o resolvido pelo Tomcat a partir de {@code X-Forwarded-For} somente quando a
+ * requisição vem de um proxy confiável ({@code server.forward-headers-strategy=native} e
+ * {@code server.tomcat.remoteip.internal-proxies}); sem isso, atrás de um balanceador, todos os clientes anônimos
+ * teriam o endereço do balanceador e seriam tratados como uma única origem. O endereço só é usado quando não há
+ * usuário autenticado. O registro é mantido apenas na memória da instância.
+ */
+public class ReadYourWrites {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWrites(Duration window) {
+        this.recentWriters = Caffeine.newBuilder().expireAfterWrite(window).build();
+    }
+
+    /**
+     * Obtém as chaves que identificam a origem da requisição atual.
+     *
+     * @return As chaves da origem, vazia fora de uma requisição.
+     */
+    public List<String> currentKeys() {
+        List<String> keys = new ArrayList<>(2);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            keys.add("user:" + authentication.getName());
+        } else if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            keys.add("address:" + attributes.getRequest().getRemoteAddr());
+        }
+        return keys;
+    }
+
+    /**
+     * Marca as origens informadas como tendo escrito no banco principal agora.
+     */
+    public void recordWrite(List<String> keys) {
+        keys.forEach(key -> recentWriters.put(key, Boolean.TRUE));
+    }
+
+    /**
+     * Verifica se a origem da requisição atual escreveu no banco principal dentro da janela.
+     */
+    public boolean isSticky() {
+        return currentKeys().stream().anyMatch(key -> recentWriters.getIfPresent(key) != null);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.login.datasource;
+
+import com.example.login.util.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Direciona cada conexão para o banco principal ou para uma das réplicas de leitura.
+ * <p>
+ * Transações de escrita vão para o principal. Transações {@code readOnly} e acessos fora de transação vão para as
+ * réplicas, em rodízio, exceto quando a origem da requisição escreveu há pouco ({@link ReadYourWrites}). A decisão
+ * depende do estado da transação no momento em que a conexão é obtida, por isso este datasource deve ficar atrás
+ * de um {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, que adia a obtenção da conexão
+ * até a primeira instrução, quando o Spring já marcou a transação como somente leitura.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final List<DataSource> replicas;
+    private final ReadYourWrites readYourWrites;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, ReadYourWrites readYourWrites) {
+        this.replicas = replicas;
+        this.readYourWrites = readYourWrites;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + i;
+            targets.put(key, replicas.get(i));
+            replicaKeys.add(key);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            List<String> keys = readYourWrites.currentKeys();
+            AfterCommit.run(() -> readYourWrites.recordWrite(keys));
+            return PRIMARY;
+        }
+
+        if (replicaKeys.isEmpty() || readYourWrites.isSticky()) {
+            return PRIMARY;
+        }
+        return replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+    }
+
+    /**
+     * Encerra os pools das réplicas. O pool principal é um bean próprio e é encerrado pelo Spring.
+     */
+    @Override
+    public void close() {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Falha ao encerrar o pool da réplica", e);
+                }
+            }
+        }
+    }
+}
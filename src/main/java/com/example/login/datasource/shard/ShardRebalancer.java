@@ -0,0 +1,158 @@
+package com.example.login.datasource.shard;
+
+import com.example.login.model.id.UserIds;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Reparticionamento online dos usuários ao adicionar shards.
+ * <p>
+ * Procedimento:
+ * <ol>
+ *     <li>{@link #plan(int)}, com a topologia atual em execução: fixa no shard atual cada bucket que mudará de
+ *     dono na nova quantidade de shards;</li>
+ *     <li>implantar a aplicação com os novos shards em {@code datasource.shards.urls} (os buckets fixados continuam
+ *     sendo lidos e gravados no shard antigo);</li>
+ *     <li>{@link #rebalance()}: para cada bucket fixado, congela as escritas, aguarda todas as instâncias
+ *     confirmarem o fim das escritas em andamento no bucket, copia as linhas para o novo dono em lotes, libera o
+ *     roteamento para o novo dono e remove as linhas do shard antigo, também em lotes.</li>
+ * </ol>
+ * Os IDs não mudam, pois o bucket faz parte do ID. Para ativar o particionamento em uma base existente, inicia-se
+ * com um único shard (a base atual) e segue-se o mesmo procedimento. Apenas a adição de shards é suportada.
+ */
+@Slf4j
+public class ShardRebalancer {
+
+    /** Mesma expressão de {@link UserIds#bucketOf(String)}, calculada pelo MySQL. */
+    private static final String BUCKET_PREDICATE = "1 + CRC32(LOWER(TRIM(email))) % " + UserIds.BUCKETS + " = ?";
+
+    /** Tabelas particionadas pelo e-mail; os usuários arquivados acompanham o bucket. */
+    private static final List<String> TABLES = List.of("tb_users", "tb_users_archive");
+
+    private final ShardRouter shardRouter;
+    private final ShardRoutingDataSource dataSources;
+    private final int virtualNodes;
+    private final Duration drainTimeout;
+    private final int batchSize;
+
+    public ShardRebalancer(ShardRouter shardRouter, ShardRoutingDataSource dataSources, int virtualNodes,
+                           Duration drainTimeout, int batchSize) {
+        this.shardRouter = shardRouter;
+        this.dataSources = dataSources;
+        this.virtualNodes = virtualNodes;
+        this.drainTimeout = drainTimeout;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Fixa no shard atual os buckets que mudarão de dono com a nova quantidade de shards.
+     *
+     * @param shardCount Quantidade de shards da nova topologia ({@code shard-0} a {@code shard-(n-1)}).
+     * @return Os buckets fixados e o shard em que permanecem.
+     */
+    public Map<Integer, String> plan(int shardCount) {
+        if (shardCount < shardRouter.shards().size()) {
+            throw new IllegalArgumentException("Apenas a adição de shards é suportada");
+        }
+
+        ShardRing target = new ShardRing(IntStream.range(0, shardCount).mapToObj(i -> "shard-" + i).toList(),
+                virtualNodes);
+        Map<Integer, String> moving = new TreeMap<>();
+        for (int bucket = 1; bucket <= UserIds.BUCKETS; bucket++) {
+            String current = shardRouter.shardOf(bucket);
+            if (!current.equals(target.ownerOf(bucket))) {
+                moving.put(bucket, current);
+            }
+        }
+        shardRouter.pin(moving);
+        return moving;
+    }
+
+    /**
+     * Migra os buckets fixados para o dono definido pelo anel atual.
+     *
+     * @return A quantidade de usuários movidos por bucket.
+     */
+    public Map<Integer, Long> rebalance() throws InterruptedException {
+        Map<Integer, Long> moved = new TreeMap<>();
+        for (Map.Entry<Integer, String> entry : new TreeMap<>(shardRouter.pinned()).entrySet()) {
+            int bucket = entry.getKey();
+            String source = entry.getValue();
+            String target = shardRouter.ring().ownerOf(bucket);
+            if (source.equals(target)) {
+                shardRouter.unpin(bucket);
+                continue;
+            }
+
+            shardRouter.freeze(bucket);
+            try {
+                if (!shardRouter.awaitDrained(bucket, drainTimeout)) {
+                    throw new IllegalStateException("Escritas no bucket " + bucket + " não terminaram em "
+                            + drainTimeout + "; reparticionamento interrompido");
+                }
+                long count = 0;
+                for (String table : TABLES) {
+                    count += copy(table, bucket, source, target);
+                }
+                shardRouter.unpin(bucket);
+                moved.put(bucket, count);
+            } finally {
+                shardRouter.unfreeze(bucket);
+            }
+
+            for (String table : TABLES) {
+                delete(table, bucket, source);
+            }
+            log.info("Bucket {} movido de {} para {} ({} usuário(s))", bucket, source, target, moved.get(bucket));
+        }
+        return moved;
+    }
+
+    /**
+     * Copia as linhas do bucket em lotes de {@code batchSize}, percorrendo a tabela pelo ID.
+     */
+    private long copy(String table, int bucket, String source, String target) {
+        String select = "SELECT * FROM " + table + " WHERE " + BUCKET_PREDICATE + " AND id > ? ORDER BY id LIMIT ?";
+        long count = 0;
+        long lastId = Long.MIN_VALUE;
+        while (true) {
+            List<Map<String, Object>> rows = jdbc(source).queryForList(select, bucket, lastId, batchSize);
+            if (rows.isEmpty()) {
+                return count;
+            }
+
+            List<String> columns = List.copyOf(rows.getFirst().keySet());
+            String insert = "INSERT IGNORE INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                    + columns.stream().map(column -> "?").collect(Collectors.joining(", ")) + ")";
+            List<Object[]> values = rows.stream()
+                    .map(row -> columns.stream().map(row::get).toArray())
+                    .toList();
+            jdbc(target).batchUpdate(insert, values);
+
+            count += rows.size();
+            lastId = ((Number) rows.getLast().get("id")).longValue();
+            if (rows.size() < batchSize) {
+                return count;
+            }
+        }
+    }
+
+    private void delete(String table, int bucket, String source) {
+        String sql = "DELETE FROM " + table + " WHERE " + BUCKET_PREDICATE + " LIMIT ?";
+        int deleted;
+        do {
+            deleted = jdbc(source).update(sql, bucket, batchSize);
+        } while (deleted >= batchSize);
+    }
+
+    private JdbcTemplate jdbc(String shard) {
+        return new JdbcTemplate(dataSources.shard(shard));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.login.datasource.shard;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Anel de hash consistente que distribui os buckets de usuários entre os shards.
+ * <p>
+ * Cada shard ocupa vários pontos do anel (nós virtuais); um bucket pertence ao primeiro ponto encontrado a partir
+ * do seu hash. Ao adicionar um shard, apenas os buckets que passam a cair nos novos pontos mudam de dono.
+ */
+public class ShardRing {
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+    private final List<String> shards;
+
+    public ShardRing(List<String> shards, int virtualNodes) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("É necessário ao menos um shard");
+        }
+        this.shards = List.copyOf(shards);
+        for (String shard : shards) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(shard + "#" + i), shard);
+            }
+        }
+    }
+
+    /**
+     * Obtém o shard dono do bucket.
+     */
+    public String ownerOf(int bucket) {
+        var entry = ring.ceilingEntry(hash("bucket-" + bucket));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    public List<String> shards() {
+        return shards;
+    }
+
+    private static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
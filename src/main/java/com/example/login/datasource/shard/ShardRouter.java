@@ -0,0 +1,296 @@
+package com.example.login.datasource.shard;
+
+import com.example.login.model.id.UserIds;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Decide em qual shard está cada bucket de usuários.
+ * <p>
+ * O dono de um bucket é dado pelo {@link ShardRing}, exceto para os buckets fixados durante um
+ * reparticionamento ({@code shards:pinned}, bucket → shard), que continuam no shard antigo até serem migrados. Os
+ * buckets em cópia ficam congelados ({@code shards:frozen}) e não aceitam escritas. Esse estado fica no Redis e é
+ * recarregado em todas as instâncias quando um aviso é publicado no canal {@value #CHANNEL}.
+ * <p>
+ * Toda escrita em {@code tb_users} e nas tabelas que acompanham o usuário deve ocorrer dentro de um
+ * {@link WriteFence} ({@link #enterWrite()}), que registra a escrita em andamento até o fim da transação e informa os
+ * buckets congelados, nos quais o chamador não deve escrever. Ao receber um congelamento, cada instância aguarda o
+ * término das escritas iniciadas antes dele e confirma no Redis ({@code shards:drained:{bucket}}); o
+ * {@link ShardRebalancer} só copia o bucket depois que todas as instâncias ativas ({@code shards:nodes}, mantido por
+ * heartbeat) confirmaram.
+ */
+@Slf4j
+public class ShardRouter {
+
+    public static final String CHANNEL = "shards:changed";
+    static final String PINNED_KEY = "shards:pinned";
+    static final String FROZEN_KEY = "shards:frozen";
+    static final String NODES_KEY = "shards:nodes";
+    static final String DRAINED_KEY_PREFIX = "shards:drained:";
+
+    private static final long HEARTBEAT_SECONDS = 5;
+    /** Instâncias sem heartbeat há mais tempo que isso são consideradas encerradas. */
+    private static final Duration NODE_TIMEOUT = Duration.ofSeconds(HEARTBEAT_SECONDS * 3);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(5);
+
+    private final ShardRing ring;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Set<WriteFence> activeWrites = ConcurrentHashMap.newKeySet();
+
+    private volatile Map<Integer, String> pinned = Map.of();
+    private volatile Set<Integer> frozen = Set.of();
+
+    public ShardRouter(ShardRing ring, StringRedisTemplate redisTemplate,
+                       RedisMessageListenerContainer listenerContainer) {
+        this.ring = ring;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        heartbeat();
+        listenerContainer.addMessageListener((message, pattern) -> reload(), new ChannelTopic(CHANNEL));
+        reload();
+    }
+
+    /**
+     * Mantém esta instância na lista das que precisam confirmar os congelamentos.
+     */
+    @Scheduled(fixedRate = HEARTBEAT_SECONDS, timeUnit = TimeUnit.SECONDS)
+    public void heartbeat() {
+        redisTemplate.opsForHash().put(NODES_KEY, nodeId, Long.toString(System.currentTimeMillis()));
+    }
+
+    @PreDestroy
+    public void leave() {
+        redisTemplate.opsForHash().delete(NODES_KEY, nodeId);
+    }
+
+    /**
+     * Inicia uma escrita. A escrita permanece registrada até o fim da transação atual (ou até {@code close()}, fora
+     * de transação), e o congelamento de um bucket só é confirmado por esta instância depois disso.
+     *
+     * @return A barreira da escrita, com os buckets congelados no momento em que foi obtida.
+     */
+    public WriteFence enterWrite() {
+        WriteFence fence = new WriteFence();
+        activeWrites.add(fence);
+        // Lido depois do registro: um congelamento posterior aguarda esta escrita; um anterior é visto aqui.
+        fence.frozen = frozen;
+        return fence;
+    }
+
+    /**
+     * Obtém o shard atual do bucket.
+     */
+    public String shardOf(int bucket) {
+        String shard = pinned.get(bucket);
+        return shard != null ? shard : ring.ownerOf(bucket);
+    }
+
+    public String shardOfEmail(String email) {
+        return shardOf(UserIds.bucketOf(email));
+    }
+
+    public boolean isFrozen(int bucket) {
+        return frozen.contains(bucket);
+    }
+
+    public ShardRing ring() {
+        return ring;
+    }
+
+    public List<String> shards() {
+        return ring.shards();
+    }
+
+    Map<Integer, String> pinned() {
+        return pinned;
+    }
+
+    void pin(Map<Integer, String> buckets) {
+        if (!buckets.isEmpty()) {
+            Map<String, String> fields = new HashMap<>();
+            buckets.forEach((bucket, shard) -> fields.put(bucket.toString(), shard));
+            redisTemplate.opsForHash().putAll(PINNED_KEY, fields);
+        }
+        publish();
+    }
+
+    void unpin(int bucket) {
+        redisTemplate.opsForHash().delete(PINNED_KEY, Integer.toString(bucket));
+        publish();
+    }
+
+    void freeze(int bucket) {
+        // Um bucket que já estava congelado (reparticionamento interrompido) mantém as confirmações recebidas.
+        if (!Boolean.TRUE.equals(redisTemplate.opsForSet().isMember(FROZEN_KEY, Integer.toString(bucket)))) {
+            redisTemplate.delete(DRAINED_KEY_PREFIX + bucket);
+            redisTemplate.opsForSet().add(FROZEN_KEY, Integer.toString(bucket));
+        }
+        publish();
+    }
+
+    /**
+     * Aguarda todas as instâncias ativas confirmarem que não há escritas no bucket congelado.
+     *
+     * @return {@code false} se o prazo terminou antes das confirmações.
+     */
+    boolean awaitDrained(int bucket, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            Set<String> drained = redisTemplate.opsForSet().members(DRAINED_KEY_PREFIX + bucket);
+            if (drained != null && drained.containsAll(liveNodes())) {
+                return true;
+            }
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    void unfreeze(int bucket) {
+        redisTemplate.opsForSet().remove(FROZEN_KEY, Integer.toString(bucket));
+        redisTemplate.delete(DRAINED_KEY_PREFIX + bucket);
+        publish();
+    }
+
+    /**
+     * Recarrega do Redis os buckets fixados e congelados.
+     */
+    public void reload() {
+        Map<Integer, String> pinned = new HashMap<>();
+        redisTemplate.opsForHash().entries(PINNED_KEY)
+                .forEach((bucket, shard) -> pinned.put(Integer.valueOf(bucket.toString()), shard.toString()));
+        Set<String> frozen = redisTemplate.opsForSet().members(FROZEN_KEY);
+
+        Set<Integer> previouslyFrozen = this.frozen;
+        this.pinned = Map.copyOf(pinned);
+        this.frozen = frozen != null
+                ? frozen.stream().map(Integer::valueOf).collect(Collectors.toUnmodifiableSet())
+                : Set.of();
+        for (Integer bucket : this.frozen) {
+            if (!previouslyFrozen.contains(bucket)) {
+                Thread.ofVirtual().name("shard-drain-" + bucket).start(() -> acknowledgeDrain(bucket));
+            }
+        }
+        log.info("Estado dos shards recarregado: {} bucket(s) fixado(s), {} congelado(s)",
+                this.pinned.size(), this.frozen.size());
+    }
+
+    /**
+     * Aguarda o término das escritas desta instância que podem atingir o bucket (iniciadas antes do congelamento) e
+     * confirma o congelamento no Redis.
+     */
+    private void acknowledgeDrain(int bucket) {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        try {
+            while (activeWrites.stream().anyMatch(fence -> fence.mayWrite(bucket))) {
+                if (!frozen.contains(bucket)) {
+                    return;
+                }
+                if (System.nanoTime() >= deadline) {
+                    log.warn("Escritas no bucket {} não terminaram em {}; congelamento não confirmado", bucket,
+                            DRAIN_TIMEOUT);
+                    return;
+                }
+                Thread.sleep(10);
+            }
+            redisTemplate.opsForSet().add(DRAINED_KEY_PREFIX + bucket, nodeId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao confirmar o congelamento do bucket {}", bucket, e);
+        }
+    }
+
+    private Set<String> liveNodes() {
+        long cutoff = System.currentTimeMillis() - NODE_TIMEOUT.toMillis();
+        Set<String> live = new HashSet<>();
+        redisTemplate.opsForHash().entries(NODES_KEY).forEach((node, heartbeat) -> {
+            if (Long.parseLong(heartbeat.toString()) >= cutoff) {
+                live.add(node.toString());
+            } else {
+                redisTemplate.opsForHash().delete(NODES_KEY, node);
+            }
+        });
+        return live;
+    }
+
+    private void publish() {
+        reload();
+        redisTemplate.convertAndSend(CHANNEL, "reload");
+    }
+
+    /**
+     * Escrita em andamento nesta instância, obtida por {@link #enterWrite()}.
+     */
+    public final class WriteFence implements AutoCloseable {
+
+        /** Buckets congelados quando a escrita começou; nulo enquanto ainda não foram lidos. */
+        private volatile Set<Integer> frozen;
+
+        private WriteFence() {
+        }
+
+        /**
+         * Indica se o bucket está congelado, caso em que não deve ser escrito.
+         */
+        public boolean isFrozen(int bucket) {
+            return frozen.contains(bucket);
+        }
+
+        /**
+         * Indica se algum bucket está congelado; usado nas escritas por ID legado, cujo bucket não é conhecido.
+         */
+        public boolean hasFrozen() {
+            return !frozen.isEmpty();
+        }
+
+        boolean mayWrite(int bucket) {
+            Set<Integer> snapshot = frozen;
+            return snapshot == null || !snapshot.contains(bucket);
+        }
+
+        /**
+         * Encerra a escrita; dentro de uma transação, somente após o seu término (commit ou rollback).
+         */
+        @Override
+        public void close() {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                activeWrites.remove(this);
+                return;
+            }
+
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    activeWrites.remove(WriteFence.this);
+                }
+            });
+        }
+    }
+}
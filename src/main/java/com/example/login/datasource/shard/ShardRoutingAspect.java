@@ -0,0 +1,100 @@
+package com.example.login.datasource.shard;
+
+import com.example.login.exception.InternalServerErrorException;
+import com.example.login.model.User;
+import com.example.login.model.id.UserIds;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+import java.util.Optional;
+
+/**
+ * Define o shard das operações do {@link com.example.login.repository.UserRepository} a partir do argumento: e-mail
+ * (ou o próprio usuário) pelo hash do e-mail, ID pelo bucket contido no ID.
+ * <p>
+ * Operações sem chave de shard (como {@code findAll}) só podem ser executadas dentro de
+ * {@link ShardContext#call}. IDs anteriores ao esquema global não indicam o shard; para eles, {@code findById}
+ * consulta cada shard até encontrar o usuário. As escritas ocorrem dentro de um {@link ShardRouter.WriteFence} e são
+ * recusadas nos buckets congelados.
+ */
+@Aspect
+@RequiredArgsConstructor
+public class ShardRoutingAspect {
+
+    private final ShardRouter shardRouter;
+
+    @Around("execution(* *(..)) && target(com.example.login.repository.UserRepository)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (ShardContext.current() != null) {
+            return joinPoint.proceed();
+        }
+
+        String method = joinPoint.getSignature().getName();
+        Integer bucket = bucketOf(joinPoint.getArgs());
+        if (bucket == null) {
+            throw new IllegalStateException("Operação sem chave de shard: UserRepository." + method);
+        }
+
+        if (bucket == UserIds.LEGACY_BUCKET) {
+            if (!method.equals("findById")) {
+                throw new IllegalStateException("Operação por ID legado não suportada: UserRepository." + method);
+            }
+            return findLegacy(joinPoint);
+        }
+
+        if (method.startsWith("save") || method.startsWith("delete") || method.startsWith("update")) {
+            try (ShardRouter.WriteFence fence = shardRouter.enterWrite()) {
+                if (fence.isFrozen(bucket)) {
+                    throw new InternalServerErrorException(
+                            "Usuário em migração entre shards; tente novamente em instantes");
+                }
+                return proceed(joinPoint, shardRouter.shardOf(bucket));
+            }
+        }
+        return proceed(joinPoint, shardRouter.shardOf(bucket));
+    }
+
+    private Object findLegacy(ProceedingJoinPoint joinPoint) throws Throwable {
+        for (String shard : shardRouter.shards()) {
+            Object result = proceed(joinPoint, shard);
+            if (result instanceof Optional<?> optional && optional.isPresent()) {
+                return result;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Object proceed(ProceedingJoinPoint joinPoint, String shard) throws Throwable {
+        try {
+            return ShardContext.call(shard, () -> {
+                try {
+                    return joinPoint.proceed();
+                } catch (Throwable e) {
+                    throw new ProceedException(e);
+                }
+            });
+        } catch (ProceedException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Integer bucketOf(Object[] args) {
+        if (args.length == 0) {
+            return null;
+        }
+        return switch (args[0]) {
+            case User user when user.getEmail() != null -> UserIds.bucketOf(user.getEmail());
+            case String email -> UserIds.bucketOf(email);
+            case Long id -> UserIds.bucketOf(id);
+            case null, default -> null;
+        };
+    }
+
+    private static class ProceedException extends RuntimeException {
+        ProceedException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
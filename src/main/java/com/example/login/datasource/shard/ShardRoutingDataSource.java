@@ -0,0 +1,62 @@
+package com.example.login.datasource.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Direciona cada conexão para o shard definido em {@link ShardContext}. Acessos sem shard definido (como a leitura
+ * de metadados na inicialização do Hibernate) vão para o primeiro shard.
+ * <p>
+ * Assim como no roteamento para réplicas, deve ficar atrás de um
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: dentro de uma transação, o shard é
+ * fixado pela primeira instrução executada.
+ */
+@Slf4j
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final Map<String, DataSource> shards;
+
+    public ShardRoutingDataSource(Map<String, DataSource> shards) {
+        this.shards = new LinkedHashMap<>(shards);
+        setTargetDataSources(new LinkedHashMap<>(shards));
+        setDefaultTargetDataSource(shards.values().iterator().next());
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    /**
+     * Obtém o datasource de um shard, para operações que acessam um shard específico diretamente.
+     */
+    public DataSource shard(String name) {
+        DataSource dataSource = shards.get(name);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Shard desconhecido: " + name);
+        }
+        return dataSource;
+    }
+
+    public Map<String, DataSource> shards() {
+        return shards;
+    }
+
+    @Override
+    public void close() {
+        for (DataSource dataSource : shards.values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Falha ao encerrar o pool do shard", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.login.dto.request;
+
+import com.example.login.enums.Role;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtro da listagem administrativa de usuários. Campos nulos não filtram.
+ *
+ * @param role        Função do usuário.
+ * @param enabled     Status de habilitação.
+ * @param createdFrom Início da janela de criação (inclusivo).
+ * @param createdTo   Fim da janela de criação (exclusivo).
+ * @param emailPrefix Prefixo do e-mail.
+ */
+public record UserFilter(Role role, Boolean enabled, LocalDateTime createdFrom, LocalDateTime createdTo,
+                         String emailPrefix) {
+}
@@ -0,0 +1,16 @@
+package com.example.login.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Alteração em massa do status de habilitação. Deve-se informar exatamente um entre {@code ids} e {@code filter}.
+ *
+ * @param enabled Novo status dos usuários.
+ * @param ids     IDs dos usuários alterados.
+ * @param filter  Filtro dos usuários alterados, como na listagem administrativa.
+ */
+public record UserStatusRequest(@NotNull Boolean enabled, @Size(max = 100_000) List<Long> ids, UserFilter filter) {
+}
@@ -0,0 +1,43 @@
+package com.example.login.dto.response;
+
+import com.example.login.aspect.view.Views;
+import com.fasterxml.jackson.annotation.JsonView;
+
+import java.time.Instant;
+
+/**
+ * Progresso de uma operação administrativa em massa.
+ *
+ * @param id            ID da operação.
+ * @param state         Situação da operação.
+ * @param enabled       Status de habilitação aplicado.
+ * @param matched       Usuários encontrados até o momento.
+ * @param updated       Usuários cujo status foi de fato alterado.
+ * @param revokedTokens Tokens revogados.
+ * @param error         Motivo da falha, quando {@code state = FAILED}.
+ * @param startedAt     Início da operação.
+ * @param finishedAt    Término da operação, ou {@code null} enquanto em andamento.
+ */
+@JsonView(Views.Basic.class)
+public record BulkJobStatus(String id, State state, boolean enabled, long matched, long updated, long revokedTokens,
+                            String error, Instant startedAt, Instant finishedAt) {
+
+    public enum State {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    public BulkJobStatus progress(long matched, long updated, long revokedTokens) {
+        return new BulkJobStatus(id, state, enabled, this.matched + matched, this.updated + updated,
+                this.revokedTokens + revokedTokens, null, startedAt, null);
+    }
+
+    public BulkJobStatus completed() {
+        return new BulkJobStatus(id, State.COMPLETED, enabled, matched, updated, revokedTokens, null, startedAt,
+                Instant.now());
+    }
+
+    public BulkJobStatus failed(String error) {
+        return new BulkJobStatus(id, State.FAILED, enabled, matched, updated, revokedTokens, error, startedAt,
+                Instant.now());
+    }
+}
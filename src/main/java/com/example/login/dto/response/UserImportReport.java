@@ -0,0 +1,31 @@
+package com.example.login.dto.response;
+
+import com.example.login.aspect.view.Views;
+import com.fasterxml.jackson.annotation.JsonView;
+
+import java.util.List;
+
+/**
+ * Resultado de uma importação de usuários.
+ *
+ * @param read            Linhas de dados lidas do arquivo.
+ * @param imported        Usuários inseridos.
+ * @param rejected        Linhas rejeitadas (inválidas ou com e-mail já existente).
+ * @param errors          Erros por linha, limitados a {@code user.import.max-errors}.
+ * @param errorsTruncated Indica se houve mais erros do que os listados.
+ */
+@JsonView(Views.Basic.class)
+public record UserImportReport(long read, long imported, long rejected, List<RowError> errors,
+                               boolean errorsTruncated) {
+
+    /**
+     * Erro de uma linha do arquivo.
+     *
+     * @param line    Número da linha no arquivo (a partir de 1).
+     * @param email   E-mail informado na linha, se houver.
+     * @param message Motivo da rejeição.
+     */
+    @JsonView(Views.Basic.class)
+    public record RowError(long line, String email, String message) {
+    }
+}
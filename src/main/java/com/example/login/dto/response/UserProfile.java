@@ -0,0 +1,14 @@
+package com.example.login.dto.response;
+
+/**
+ * Perfil do usuário já serializado em JSON.
+ *
+ * @param eTag ETag forte da versão atual do perfil.
+ * @param json Corpo JSON do perfil, ou {@code null} quando o cliente já possui a versão atual.
+ */
+public record UserProfile(String eTag, byte[] json) {
+
+    public boolean isNotModified() {
+        return json == null;
+    }
+}
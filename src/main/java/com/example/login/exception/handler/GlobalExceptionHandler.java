@@ -2,6 +2,7 @@ package com.example.login.exception.handler;
 
 import com.example.login.dto.response.HttpErrorResponse;
 import com.example.login.exception.BadRequestException;
+import com.example.login.exception.ConflictException;
 import com.example.login.exception.ForbiddenException;
 import com.example.login.exception.InternalServerErrorException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,6 +10,7 @@ import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -90,6 +92,22 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(FORBIDDEN).body(error);
     }
 
+    /**
+     * Trata exceções de conflito (409), quando o recurso foi alterado por outra operação concorrente.
+     *
+     * @param ex A exceção de conflito (ConflictException) capturada.
+     * @param request A requisição HTTP que causou a exceção.
+     * @return Uma resposta HTTP com status 409 e detalhes da exceção.
+     */
+    @ExceptionHandler({ConflictException.class, ObjectOptimisticLockingFailureException.class})
+    public ResponseEntity<HttpErrorResponse> handleConflictException(RuntimeException ex, HttpServletRequest request) {
+        String message = ex instanceof ConflictException
+                ? ex.getMessage()
+                : "O recurso foi alterado por outra operação; tente novamente.";
+        var error = getHttpErrorResponse(request, CONFLICT, message);
+        return ResponseEntity.status(CONFLICT).body(error);
+    }
+
     /**
      * Trata exceções de violação de restrições de validação.
      * Este método é responsável por capturar exceções de validação em campos específicos das entidades.
@@ -0,0 +1,159 @@
+package com.example.login.importer;
+
+import com.example.login.dto.request.UserRequest;
+import com.example.login.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lê o arquivo de importação de usuários linha a linha, sem carregá-lo inteiro em memória.
+ * <p>
+ * Formatos aceitos:
+ * <ul>
+ *     <li>{@code text/csv}: a primeira linha é o cabeçalho, com as colunas {@code email}, {@code password} e,
+ *     opcionalmente, {@code role} (padrão {@code USER}); valores podem estar entre aspas;</li>
+ *     <li>{@code application/x-ndjson}: um objeto JSON por linha, com os campos de {@link UserRequest}.</li>
+ * </ul>
+ * Linhas em branco são ignoradas. Campos multilinha não são suportados.
+ */
+public class UserImportReader implements Closeable {
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format of(String contentType) {
+            String type = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+            if (type.startsWith("text/csv")) {
+                return CSV;
+            }
+            if (type.startsWith("application/x-ndjson") || type.startsWith("application/jsonl")) {
+                return NDJSON;
+            }
+            throw new BadRequestException("Formato de importação não suportado: " + contentType);
+        }
+    }
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private Map<String, Integer> header;
+    private long line;
+
+    public UserImportReader(InputStream input, Format format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Lê as próximas linhas de dados.
+     *
+     * @param max Quantidade máxima de linhas.
+     * @return As linhas lidas; vazia ao fim do arquivo.
+     * @throws BadRequestException Caso o cabeçalho do CSV seja inválido.
+     */
+    public List<UserImportRow> next(int max) throws IOException {
+        List<UserImportRow> rows = new ArrayList<>(max);
+        String text;
+        while (rows.size() < max && (text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+
+            if (format == Format.NDJSON) {
+                rows.add(parseJson(text));
+            } else if (header == null) {
+                header = parseHeader(text);
+            } else {
+                rows.add(parseCsv(text));
+            }
+        }
+        return rows;
+    }
+
+    private UserImportRow parseJson(String text) {
+        try {
+            return UserImportRow.of(line, objectMapper.readValue(text, UserRequest.class));
+        } catch (JsonProcessingException e) {
+            return UserImportRow.failed(line, "JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    private Map<String, Integer> parseHeader(String text) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsv(text);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("email") || !columns.containsKey("password")) {
+            throw new BadRequestException("O cabeçalho do CSV deve conter as colunas 'email' e 'password'.");
+        }
+        return columns;
+    }
+
+    private UserImportRow parseCsv(String text) {
+        List<String> values = splitCsv(text);
+        if (values.size() < header.size()) {
+            return UserImportRow.failed(line, "Quantidade de colunas inválida");
+        }
+
+        String role = column(values, "role");
+        return UserImportRow.of(line, new UserRequest(null, column(values, "username"), column(values, "email"),
+                role == null || role.isBlank() ? "USER" : role.trim(), column(values, "password")));
+    }
+
+    private String column(List<String> values, String name) {
+        Integer index = header.get(name);
+        return index != null ? values.get(index) : null;
+    }
+
+    /**
+     * Divide uma linha CSV, respeitando valores entre aspas e aspas duplicadas ({@code ""}).
+     */
+    private static List<String> splitCsv(String text) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
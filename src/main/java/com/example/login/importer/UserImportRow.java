@@ -0,0 +1,25 @@
+package com.example.login.importer;
+
+import com.example.login.dto.request.UserRequest;
+
+/**
+ * Linha lida do arquivo de importação.
+ *
+ * @param line    Número da linha no arquivo.
+ * @param request Dados do usuário, ou {@code null} se a linha não pôde ser interpretada.
+ * @param error   Motivo da falha de leitura, ou {@code null}.
+ */
+public record UserImportRow(long line, UserRequest request, String error) {
+
+    static UserImportRow of(long line, UserRequest request) {
+        return new UserImportRow(line, request, null);
+    }
+
+    static UserImportRow failed(long line, String error) {
+        return new UserImportRow(line, null, error);
+    }
+
+    public String email() {
+        return request != null ? request.email() : null;
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.login.importer;
+
+import com.example.login.cache.RegisteredEmails;
+import com.example.login.datasource.shard.ShardContext;
+import com.example.login.datasource.shard.ShardRouter;
+import com.example.login.dto.request.UserRequest;
+import com.example.login.dto.response.UserImportReport;
+import com.example.login.enums.Role;
+import com.example.login.exception.BadRequestException;
+import com.example.login.exception.InternalServerErrorException;
+import com.example.login.model.User;
+import com.example.login.model.id.UserIds;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Importação de usuários em massa a partir de um arquivo lido em fluxo.
+ * <p>
+ * O arquivo é processado em blocos de {@code user.import.chunk-size} linhas. Em cada bloco, as linhas são validadas
+ * com as mesmas restrições do cadastro ({@link UserRequest} e {@link User}), os e-mails já existentes (em
+ * {@code tb_users} ou arquivados em {@code tb_users_archive}) são descartados com uma única consulta, as senhas são
+ * codificadas em paralelo em um pool limitado ({@code user.import.hash-threads}) e os usuários são inseridos em
+ * lotes JDBC, em uma transação por bloco. Nenhum e-mail é enviado aos usuários importados.
+ * <p>
+ * Com o particionamento habilitado, cada bloco é dividido por shard.
+ */
+@Slf4j
+@Component
+public class UserImporter {
+
+    private static final String INSERT = "INSERT IGNORE INTO tb_users (id, username, email, password, enabled, role, " +
+            "verified_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    /** E-mails já cadastrados, inclusive os de usuários arquivados, que seriam restaurados no próximo login. */
+    private static final String EXISTING = "SELECT email FROM tb_users WHERE email IN (:emails) " +
+            "UNION SELECT email FROM tb_users_archive WHERE email IN (:emails)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final RegisteredEmails registeredEmails;
+    private final ExecutorService hashPool;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    public UserImporter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                        PasswordEncoder passwordEncoder, Validator validator, ObjectMapper objectMapper,
+                        ObjectProvider<ShardRouter> shardRouter, RegisteredEmails registeredEmails,
+                        @Value("${user.import.chunk-size:500}") int chunkSize,
+                        @Value("${user.import.hash-threads:0}") int hashThreads,
+                        @Value("${user.import.max-errors:1000}") int maxErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.shardRouter = shardRouter;
+        this.registeredEmails = registeredEmails;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.hashPool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashPool.shutdownNow();
+    }
+
+    /**
+     * Importa os usuários do arquivo.
+     *
+     * @param input   Conteúdo do arquivo.
+     * @param format  Formato do arquivo.
+     * @param enabled Se os usuários importados já ficam habilitados.
+     * @return O resumo da importação com os erros por linha.
+     */
+    public UserImportReport importUsers(InputStream input, UserImportReader.Format format, boolean enabled)
+            throws IOException {
+        Report report = new Report();
+        try (UserImportReader reader = new UserImportReader(input, format, objectMapper)) {
+            List<UserImportRow> chunk;
+            while (!(chunk = reader.next(chunkSize)).isEmpty()) {
+                report.read += chunk.size();
+                process(chunk, enabled, report);
+            }
+        }
+
+        log.info("Importação de usuários concluída: {} lido(s), {} importado(s), {} rejeitado(s)",
+                report.read, report.imported, report.rejected);
+        return new UserImportReport(report.read, report.imported, report.rejected, report.errors,
+                report.rejected > report.errors.size());
+    }
+
+    private void process(List<UserImportRow> chunk, boolean enabled, Report report) {
+        ShardRouter router = shardRouter.getIfAvailable();
+        Map<String, List<ValidRow>> byShard = new LinkedHashMap<>();
+        Set<String> seen = new HashSet<>();
+
+        for (UserImportRow row : chunk) {
+            if (row.error() != null) {
+                report.reject(row, row.error());
+                continue;
+            }
+
+            String error = validate(row.request());
+            if (error != null) {
+                report.reject(row, error);
+                continue;
+            }
+
+            String key = row.email().trim().toLowerCase(Locale.ROOT);
+            if (!seen.add(key)) {
+                report.reject(row, "E-mail repetido no arquivo");
+                continue;
+            }
+
+            int bucket = UserIds.bucketOf(key);
+            String shard = router != null ? router.shardOf(bucket) : "";
+            byShard.computeIfAbsent(shard, s -> new ArrayList<>())
+                    .add(new ValidRow(row, key, bucket, Role.getRole(row.request().role())));
+        }
+
+        byShard.forEach((shard, rows) -> onShard(shard, () -> {
+            insert(shard, rows, enabled, report);
+            return null;
+        }));
+    }
+
+    private void insert(String shard, List<ValidRow> rows, boolean enabled, Report report) {
+        Set<String> existing = findExisting(rows);
+        List<ValidRow> pending = new ArrayList<>();
+        for (ValidRow row : rows) {
+            if (existing.contains(row.email())) {
+                report.reject(row.source(), "Usuário já existe!");
+            } else {
+                pending.add(row);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = hash(pending);
+        List<ValidRow> inserted = new ArrayList<>(pending.size());
+        Timestamp verifiedAt = enabled ? Timestamp.valueOf(LocalDateTime.now()) : null;
+        int[] counts = transactionTemplate.execute(status -> {
+            ShardRouter router = shardRouter.getIfAvailable();
+            try (ShardRouter.WriteFence fence = router != null ? router.enterWrite() : null) {
+                List<Object[]> values = new ArrayList<>(pending.size());
+                for (int i = 0; i < pending.size(); i++) {
+                    ValidRow row = pending.get(i);
+                    // O bucket pode ter sido congelado ou movido durante o cálculo dos hashes.
+                    if (fence != null
+                            && (fence.isFrozen(row.bucket()) || !shard.equals(router.shardOf(row.bucket())))) {
+                        report.reject(row.source(), "Usuário em migração entre shards; tente novamente em instantes");
+                        continue;
+                    }
+                    String email = row.source().email().trim();
+                    values.add(new Object[]{UserIds.next(row.bucket()), email, email, hashes.get(i), enabled,
+                            row.role().name(), verifiedAt});
+                    inserted.add(row);
+                }
+                return jdbcTemplate.batchUpdate(INSERT, values);
+            }
+        });
+        for (int i = 0; i < inserted.size(); i++) {
+            // INSERT IGNORE retorna 0 quando o e-mail foi cadastrado entre a verificação e a inserção.
+            if (counts != null && counts[i] == 0) {
+                report.reject(inserted.get(i).source(), "Usuário já existe!");
+            } else {
+                report.imported++;
+                registeredEmails.add(inserted.get(i).email());
+            }
+        }
+    }
+
+    private Set<String> findExisting(List<ValidRow> rows) {
+        List<String> emails = rows.stream().map(ValidRow::email).toList();
+        List<String> existing = transactionTemplate.execute(status -> namedJdbcTemplate.queryForList(
+                EXISTING, new MapSqlParameterSource("emails", emails), String.class));
+        return existing == null ? Set.of() : existing.stream()
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+    }
+
+    private List<String> hash(List<ValidRow> rows) {
+        List<Future<String>> futures = rows.stream()
+                .map(row -> hashPool.submit(() -> passwordEncoder.encode(row.source().request().password())))
+                .toList();
+        try {
+            List<String> hashes = new ArrayList<>(futures.size());
+            for (Future<String> future : futures) {
+                hashes.add(future.get());
+            }
+            return hashes;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new InternalServerErrorException("Importação interrompida.");
+        } catch (ExecutionException e) {
+            throw new InternalServerErrorException("Falha ao codificar as senhas da importação.");
+        }
+    }
+
+    private String validate(UserRequest request) {
+        Set<ConstraintViolation<UserRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+
+        User user = new User();
+        user.setEmail(request.email());
+        Set<ConstraintViolation<User>> userViolations = validator.validateProperty(user, "email");
+        if (!userViolations.isEmpty()) {
+            return userViolations.iterator().next().getMessage();
+        }
+
+        try {
+            Role.getRole(request.role());
+        } catch (BadRequestException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
+
+    private static <T> T onShard(String shard, Supplier<T> action) {
+        return shard.isEmpty() ? action.get() : ShardContext.call(shard, action);
+    }
+
+    private record ValidRow(UserImportRow source, String email, int bucket, Role role) {
+    }
+
+    private class Report {
+        private long read;
+        private long imported;
+        private long rejected;
+        private final List<UserImportReport.RowError> errors = new ArrayList<>();
+
+        void reject(UserImportRow row, String message) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new UserImportReport.RowError(row.line(), row.email(), message));
+            }
+        }
+    }
+}
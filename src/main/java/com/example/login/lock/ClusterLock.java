@@ -0,0 +1,104 @@
+package com.example.login.lock;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Trava compartilhada entre as instâncias, no Redis, para tarefas que devem rodar em um único nó por vez.
+ * <p>
+ * A trava é a chave {@code lock:{nome}} criada com {@code SET NX PX} e um identificador aleatório do dono; ela
+ * expira após o prazo informado, caso a instância caia, e só é liberada (ou renovada) pelo próprio dono.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClusterLock {
+
+    private static final String KEY_PREFIX = "lock:";
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<Long> EXTEND = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * Tenta obter a trava.
+     *
+     * @param name  Nome da trava.
+     * @param lease Prazo de validade, após o qual a trava expira se não for liberada ou renovada.
+     * @return A trava obtida, ou {@code null} se outra instância a possui.
+     */
+    public Handle tryAcquire(String name, Duration lease) {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + name, token, lease);
+        return Boolean.TRUE.equals(acquired) ? new Handle(KEY_PREFIX + name, token) : null;
+    }
+
+    /**
+     * Executa a tarefa somente se a trava for obtida, liberando-a ao final.
+     *
+     * @param name  Nome da trava.
+     * @param lease Prazo de validade da trava; deve ser maior que a duração máxima da tarefa.
+     * @param task  Tarefa exclusiva.
+     * @return {@code true} se a tarefa foi executada nesta instância.
+     */
+    public boolean runExclusive(String name, Duration lease, Runnable task) {
+        Handle handle = tryAcquire(name, lease);
+        if (handle == null) {
+            log.debug("Trava {} em uso por outra instância", name);
+            return false;
+        }
+        try (handle) {
+            task.run();
+            return true;
+        }
+    }
+
+    /**
+     * Trava obtida por esta instância.
+     */
+    public final class Handle implements AutoCloseable {
+
+        private final String key;
+        private final String token;
+
+        private Handle(String key, String token) {
+            this.key = key;
+            this.token = token;
+        }
+
+        /**
+         * Renova o prazo da trava.
+         *
+         * @return {@code false} se a trava expirou e pode ter sido obtida por outra instância.
+         */
+        public boolean extend(Duration lease) {
+            Long result = redisTemplate.execute(EXTEND, List.of(key), token, String.valueOf(lease.toMillis()));
+            return result != null && result > 0;
+        }
+
+        @Override
+        public void close() {
+            redisTemplate.execute(RELEASE, List.of(key), token);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.login.mail;
+
+import com.example.login.datasource.shard.ShardContext;
+import com.example.login.datasource.shard.ShardRouter;
+import com.example.login.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Envio em segundo plano dos e-mails da fila {@code tb_email_outbox}.
+ * <p>
+ * {@code email.outbox.dispatchers} threads reservam lotes de até {@code email.outbox.batch-size} e-mails com
+ * {@code SELECT ... FOR UPDATE SKIP LOCKED}, o que permite várias threads e instâncias sem envios em dobro, e os enviam
+ * sem manter conexão com o banco durante a conversa SMTP. Cada lote é enviado por uma mesma conexão do
+ * {@link SmtpTransportPool}. As threads acordam a cada {@code email.outbox.poll-interval}
+ * ou logo após o commit de um novo e-mail nesta instância.
+ * <p>
+ * Um envio com falha é reagendado com espera exponencial ({@code email.outbox.backoff.initial}, dobrando até
+ * {@code email.outbox.backoff.max}, com variação aleatória de até 10%) e, após {@code email.outbox.max-attempts}
+ * tentativas, marcado como {@code FAILED}. A entrega é "ao menos uma vez": se a instância cair entre o envio e a
+ * remoção da linha, o e-mail é reenviado ao fim da reserva ({@code email.outbox.lease}).
+ * <p>
+ * Os e-mails levam códigos de validação, que expiram em {@code verification.code.ttl}: um e-mail não enviado em
+ * {@code email.outbox.max-age} (por padrão, essa mesma validade) também é marcado como {@code FAILED}. Um e-mail
+ * {@code FAILED} perde o corpo e é removido após {@code email.outbox.failed-retention}.
+ */
+@Slf4j
+@Component
+public class EmailDispatcher {
+
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private final EmailOutboxRepository outboxRepository;
+    private final MailDelivery mailDelivery;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final int dispatchers;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration maxAge;
+    private final Duration failedRetention;
+
+    private final Semaphore signal = new Semaphore(0);
+    private final ExecutorService executor;
+    private volatile boolean running = true;
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+
+    public EmailDispatcher(EmailOutboxRepository outboxRepository, MailDelivery mailDelivery,
+                           ObjectProvider<ShardRouter> shardRouter, MeterRegistry meterRegistry,
+                           @Value("${email.outbox.dispatchers:2}") int dispatchers,
+                           @Value("${email.outbox.batch-size:20}") int batchSize,
+                           @Value("${email.outbox.poll-interval:1s}") Duration pollInterval,
+                           @Value("${email.outbox.lease:2m}") Duration lease,
+                           @Value("${email.outbox.max-attempts:8}") int maxAttempts,
+                           @Value("${email.outbox.backoff.initial:5s}") Duration initialBackoff,
+                           @Value("${email.outbox.backoff.max:30m}") Duration maxBackoff,
+                           @Value("${email.outbox.max-age:${verification.code.ttl:10m}}") Duration maxAge,
+                           @Value("${email.outbox.failed-retention:7d}") Duration failedRetention) {
+        this.outboxRepository = outboxRepository;
+        this.mailDelivery = mailDelivery;
+        this.shardRouter = shardRouter;
+        this.dispatchers = dispatchers;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxAge = maxAge;
+        this.failedRetention = failedRetention;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(dispatchers, runnable -> {
+            Thread thread = new Thread(runnable, "email-dispatcher-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.sent = outcome(meterRegistry, "sent");
+        this.retried = outcome(meterRegistry, "retried");
+        this.failed = outcome(meterRegistry, "failed");
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < dispatchers; i++) {
+            executor.execute(this::loop);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        executor.shutdownNow();
+    }
+
+    /**
+     * Acorda uma thread de envio, sem aguardar o próximo intervalo.
+     */
+    public void wakeUp() {
+        if (signal.availablePermits() < dispatchers) {
+            signal.release();
+        }
+    }
+
+    /**
+     * Reserva e envia um lote de e-mails de cada shard.
+     *
+     * @return A quantidade de e-mails reservados.
+     */
+    public int dispatch() {
+        ShardRouter router = shardRouter.getIfAvailable();
+        int claimed = 0;
+        for (String shard : router != null ? router.shards() : List.of("")) {
+            claimed += onShard(shard, this::dispatchBatch);
+        }
+        return claimed;
+    }
+
+    /**
+     * Marca como {@code FAILED} os e-mails pendentes além de {@code email.outbox.max-age} e remove os e-mails
+     * {@code FAILED} além de {@code email.outbox.failed-retention}, em cada shard.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.purge-interval:1h}")
+    public void purge() {
+        ShardRouter router = shardRouter.getIfAvailable();
+        Instant before = Instant.now().minus(failedRetention);
+        int expired = 0;
+        int purged = 0;
+        for (String shard : router != null ? router.shards() : List.of("")) {
+            expired += onShard(shard, () -> outboxRepository.expire(maxAge));
+            int count;
+            do {
+                count = onShard(shard, () -> outboxRepository.purge(before, PURGE_BATCH_SIZE));
+                purged += count;
+            } while (count == PURGE_BATCH_SIZE);
+        }
+        if (expired > 0 || purged > 0) {
+            log.info("Limpeza da fila de e-mails: {} expirado(s), {} removido(s)", expired, purged);
+        }
+    }
+
+    /**
+     * Espera antes da tentativa seguinte à tentativa informada (a partir de 1).
+     */
+    public Duration backoff(int attempts) {
+        long base = initialBackoff.toMillis() << Math.min(attempts - 1, 30);
+        long capped = Math.min(base > 0 ? base : Long.MAX_VALUE, maxBackoff.toMillis());
+        long jitter = (long) (capped * 0.1 * ThreadLocalRandom.current().nextDouble());
+        return Duration.ofMillis(capped - jitter);
+    }
+
+    private void loop() {
+        while (running) {
+            try {
+                if (dispatch() < batchSize) {
+                    signal.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Falha ao processar a fila de e-mails", e);
+                try {
+                    Thread.sleep(pollInterval.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private int dispatchBatch() {
+        List<OutboxEmail> emails = outboxRepository.claim(batchSize, lease, maxAge);
+        if (!emails.isEmpty()) {
+            try (MailDelivery.Batch batch = mailDelivery.open()) {
+                emails.forEach(email -> send(batch, email));
+            }
+        }
+        return emails.size();
+    }
+
+    private void send(MailDelivery.Batch batch, OutboxEmail email) {
+        try {
+            batch.send(email);
+            outboxRepository.delete(email.id());
+            sent.increment();
+        } catch (MessagingException | MailException e) {
+            int attempts = email.attempts() + 1;
+            Instant next = Instant.now().plus(backoff(attempts));
+            if (attempts >= maxAttempts || !next.isBefore(email.createdAt().plus(maxAge))) {
+                outboxRepository.fail(email.id(), attempts, e.getMessage());
+                failed.increment();
+                log.error("E-mail {} descartado após {} tentativas: {}", email.id(), attempts, e.getMessage());
+            } else {
+                outboxRepository.retry(email.id(), attempts, next, e.getMessage());
+                retried.increment();
+                log.warn("Falha no envio do e-mail {} (tentativa {}): {}", email.id(), attempts, e.getMessage());
+            }
+        }
+    }
+
+    private static <T> T onShard(String shard, Supplier<T> action) {
+        return shard.isEmpty() ? action.get() : ShardContext.call(shard, action);
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("email.outbox.deliveries")
+                .description("Tentativas de envio de e-mails da fila")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
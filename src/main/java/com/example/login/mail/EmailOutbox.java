@@ -0,0 +1,50 @@
+package com.example.login.mail;
+
+import com.example.login.datasource.shard.ShardContext;
+import com.example.login.datasource.shard.ShardRouter;
+import com.example.login.repository.EmailOutboxRepository;
+import com.example.login.util.AfterCommit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Inclusão de e-mails na fila transacional {@code tb_email_outbox}.
+ * <p>
+ * O e-mail é gravado na transação do chamador (ou em uma própria, se não houver) e enviado pelo
+ * {@link EmailDispatcher} após o commit; se a transação for desfeita, o e-mail não é enviado. Com o particionamento
+ * habilitado, a linha é gravada no shard do destinatário, o mesmo do usuário, dentro de um
+ * {@link ShardRouter.WriteFence}: o congelamento do bucket aguarda a transação que inclui o e-mail. A fila não é
+ * copiada no reparticionamento (o {@link EmailDispatcher} percorre todos os shards), por isso a inclusão é aceita
+ * também em buckets congelados, no shard que os atende até o fim da cópia.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmailOutbox {
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailDispatcher emailDispatcher;
+    private final ObjectProvider<ShardRouter> shardRouter;
+
+    /**
+     * Agenda o envio de um e-mail.
+     *
+     * @param recipient Destinatário.
+     * @param subject   Assunto.
+     * @param body      Corpo HTML.
+     */
+    public void enqueue(String recipient, String subject, String body) {
+        ShardRouter router = shardRouter.getIfAvailable();
+        if (router == null) {
+            outboxRepository.insert(recipient, subject, body);
+        } else {
+            try (ShardRouter.WriteFence fence = router.enterWrite()) {
+                ShardContext.call(router.shardOfEmail(recipient), () -> {
+                    outboxRepository.insert(recipient, subject, body);
+                    return null;
+                });
+            }
+        }
+        AfterCommit.run(emailDispatcher::wakeUp);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.login.mail;
+
+import com.example.login.mail.SmtpTransportPool.PooledTransport;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+/**
+ * Envio efetivo dos e-mails da fila pelo servidor SMTP configurado em {@code spring.mail.*}, usando as conexões do
+ * {@link SmtpTransportPool}.
+ * <p>
+ * As mensagens têm uma única parte HTML em UTF-8, montada diretamente, sem a estrutura multipart do
+ * {@code MimeMessageHelper}; o remetente é interpretado uma única vez.
+ */
+@Component
+public class MailDelivery {
+
+    private final SmtpTransportPool transportPool;
+    private final InternetAddress sender;
+
+    public MailDelivery(SmtpTransportPool transportPool, @Value("${spring.mail.username}") String senderEmail) {
+        this.transportPool = transportPool;
+        try {
+            this.sender = new InternetAddress(senderEmail);
+        } catch (AddressException e) {
+            throw new IllegalArgumentException("Remetente inválido em spring.mail.username: " + senderEmail, e);
+        }
+    }
+
+    /**
+     * Inicia um lote de envios, que compartilham uma mesma conexão SMTP.
+     *
+     * @return O lote, que deve ser encerrado para devolver a conexão ao pool.
+     */
+    public Batch open() {
+        return new Batch();
+    }
+
+    private MimeMessage createMessage(OutboxEmail email) throws MessagingException {
+        MimeMessage message = new MimeMessage(transportPool.session());
+
+        message.setFrom(sender);
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress(email.recipient()));
+        message.setSubject(email.subject(), "UTF-8");
+        message.setText(email.body(), "UTF-8", "html");
+        message.setSentDate(new Date());
+        message.saveChanges();
+        return message;
+    }
+
+    /**
+     * Lote de envios por uma mesma conexão. A conexão é emprestada no primeiro envio e, após uma falha, substituída
+     * por outra no envio seguinte.
+     */
+    public class Batch implements AutoCloseable {
+
+        private PooledTransport transport;
+
+        /**
+         * Envia um e-mail.
+         *
+         * @param email E-mail da fila.
+         * @throws MessagingException Se a mensagem não puder ser montada, a conexão falhar ou o servidor a recusar.
+         */
+        public void send(OutboxEmail email) throws MessagingException {
+            MimeMessage message = createMessage(email);
+            if (transport == null) {
+                transport = transportPool.borrow();
+            }
+            try {
+                transport.send(message);
+            } catch (MessagingException | RuntimeException e) {
+                transportPool.release(transport, false);
+                transport = null;
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (transport != null) {
+                transportPool.release(transport, true);
+                transport = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.login.mail;
+
+import java.time.Instant;
+
+/**
+ * E-mail pendente na tabela {@code tb_email_outbox}.
+ *
+ * @param id        ID da linha.
+ * @param recipient Destinatário.
+ * @param subject   Assunto.
+ * @param body      Corpo HTML.
+ * @param attempts  Tentativas de envio já realizadas.
+ * @param createdAt Inclusão na fila.
+ */
+public record OutboxEmail(long id, String recipient, String subject, String body, int attempts, Instant createdAt) {
+}
@@ -0,0 +1,197 @@
+package com.example.login.mail;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool de conexões SMTP já abertas e autenticadas com o servidor de {@code spring.mail.*}.
+ * <p>
+ * Cada {@link JavaMailSenderImpl#send} abre uma conexão, com handshake TLS (STARTTLS) e autenticação, para uma única
+ * mensagem. O pool mantém até {@code email.smtp.pool.max-size} conexões, que atendem várias mensagens seguidas e são
+ * devolvidas para reuso. Uma conexão é encerrada ao ser devolvida após {@code email.smtp.pool.max-messages-per-connection}
+ * mensagens ou depois de uma falha, e descartada se ficar ociosa por mais de {@code email.smtp.pool.max-idle} ou não
+ * responder ao {@code NOOP} no momento do empréstimo. As conexões ociosas são reutilizadas da mais recente para a mais
+ * antiga, deixando as excedentes expirarem.
+ * <p>
+ * Métricas: {@code email.smtp.send} (tempo e vazão dos envios, tag {@code outcome}),
+ * {@code email.smtp.connections} (tag {@code event}: {@code opened}, {@code reused} ou {@code closed}) e
+ * {@code email.smtp.pool.idle}.
+ */
+@Slf4j
+@Component
+public class SmtpTransportPool {
+
+    private final JavaMailSenderImpl mailSender;
+    private final Semaphore permits;
+    private final int maxMessagesPerConnection;
+    private final long maxIdleNanos;
+    private final Deque<PooledTransport> idle = new ConcurrentLinkedDeque<>();
+
+    private final Counter opened;
+    private final Counter reused;
+    private final Counter closed;
+    private final Timer sent;
+    private final Timer failed;
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender, MeterRegistry meterRegistry,
+                             @Value("${email.smtp.pool.max-size:4}") int maxSize,
+                             @Value("${email.smtp.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+                             @Value("${email.smtp.pool.max-idle:1m}") Duration maxIdle) {
+        this.mailSender = mailSender;
+        this.permits = new Semaphore(maxSize);
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.maxIdleNanos = maxIdle.toNanos();
+
+        this.opened = connections(meterRegistry, "opened");
+        this.reused = connections(meterRegistry, "reused");
+        this.closed = connections(meterRegistry, "closed");
+        this.sent = send(meterRegistry, "sent");
+        this.failed = send(meterRegistry, "failed");
+        Gauge.builder("email.smtp.pool.idle", idle, Deque::size)
+                .description("Conexões SMTP ociosas no pool")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            close(pooled);
+        }
+    }
+
+    /**
+     * Sessão JavaMail usada para montar as mensagens.
+     */
+    public Session session() {
+        return mailSender.getSession();
+    }
+
+    /**
+     * Empresta uma conexão aberta, aguardando se todas estiverem em uso.
+     *
+     * @return A conexão, que deve ser devolvida com {@link #release(PooledTransport, boolean)}.
+     * @throws MessagingException Se não for possível conectar ao servidor SMTP.
+     */
+    public PooledTransport borrow() throws MessagingException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrompido aguardando uma conexão SMTP");
+        }
+
+        try {
+            PooledTransport pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (System.nanoTime() - pooled.idleSince < maxIdleNanos && pooled.transport.isConnected()) {
+                    reused.increment();
+                    return pooled;
+                }
+                close(pooled);
+            }
+            return connect();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Devolve uma conexão ao pool.
+     *
+     * @param pooled   Conexão emprestada.
+     * @param reusable {@code false} se a conexão apresentou falha e deve ser encerrada.
+     */
+    public void release(PooledTransport pooled, boolean reusable) {
+        try {
+            if (reusable && pooled.messages < maxMessagesPerConnection) {
+                pooled.idleSince = System.nanoTime();
+                idle.offerFirst(pooled);
+            } else {
+                close(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private PooledTransport connect() throws MessagingException {
+        String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp";
+        Transport transport = mailSender.getSession().getTransport(protocol);
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        opened.increment();
+        return new PooledTransport(transport);
+    }
+
+    private void close(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Falha ao encerrar conexão SMTP: {}", e.getMessage());
+        }
+        closed.increment();
+    }
+
+    private static Counter connections(MeterRegistry meterRegistry, String event) {
+        return Counter.builder("email.smtp.connections")
+                .description("Conexões SMTP abertas, reutilizadas e encerradas")
+                .tag("event", event)
+                .register(meterRegistry);
+    }
+
+    private static Timer send(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("email.smtp.send")
+                .description("Envios de mensagens por conexões do pool")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Conexão SMTP emprestada do pool.
+     */
+    public final class PooledTransport {
+
+        private final Transport transport;
+        private int messages;
+        private long idleSince;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        /**
+         * Envia uma mensagem pela conexão.
+         *
+         * @throws MessagingException Se o servidor recusar a mensagem ou a conexão falhar.
+         */
+        public void send(MimeMessage message) throws MessagingException {
+            long start = System.nanoTime();
+            try {
+                transport.sendMessage(message, message.getAllRecipients());
+                messages++;
+                sent.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            } catch (MessagingException | RuntimeException e) {
+                failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw e;
+            }
+        }
+    }
+}
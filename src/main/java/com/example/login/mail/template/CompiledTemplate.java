@@ -0,0 +1,108 @@
+package com.example.login.mail.template;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Texto de modelo já dividido em trechos fixos e posições de variáveis.
+ * <p>
+ * A análise do texto ocorre uma única vez; a renderização apenas intercala os trechos fixos com os valores em um
+ * buffer reaproveitado por thread. Nos modelos HTML, os valores são escapados.
+ */
+public final class CompiledTemplate {
+
+    private static final int BUFFER_SIZE = 512;
+    private static final int MAX_RETAINED_BUFFER = 16 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(BUFFER_SIZE));
+
+    /** Trechos fixos; sempre um a mais que as variáveis. */
+    private final String[] literals;
+    /** Índice do valor de cada variável, entre os trechos fixos. */
+    private final int[] slots;
+    private final boolean html;
+
+    private CompiledTemplate(String[] literals, int[] slots, boolean html) {
+        this.literals = literals;
+        this.slots = slots;
+        this.html = html;
+    }
+
+    /**
+     * Analisa um texto de modelo.
+     *
+     * @param source    Texto com variáveis no formato {@code ${nome}}.
+     * @param variables Variáveis aceitas, na ordem dos valores de {@link #render(String[])}.
+     * @param html      Se os valores devem ser escapados para HTML.
+     * @throws IllegalArgumentException Se o texto usar uma variável desconhecida ou não fechada.
+     */
+    public static CompiledTemplate compile(String source, List<String> variables, boolean html) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+
+        int from = 0;
+        int start;
+        while ((start = source.indexOf("${", from)) >= 0) {
+            int end = source.indexOf('}', start + 2);
+            if (end < 0) {
+                throw new IllegalArgumentException("Variável não fechada no modelo: " + source);
+            }
+            String name = source.substring(start + 2, end);
+            int slot = variables.indexOf(name);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Variável desconhecida no modelo: " + name);
+            }
+            literals.add(source.substring(from, start));
+            slots.add(slot);
+            from = end + 1;
+        }
+        literals.add(source.substring(from));
+
+        return new CompiledTemplate(literals.toArray(String[]::new),
+                slots.stream().mapToInt(Integer::intValue).toArray(), html);
+    }
+
+    /**
+     * Renderiza o modelo.
+     *
+     * @param values Valores das variáveis, na ordem informada em {@link #compile(String, List, boolean)}.
+     * @return O texto preenchido.
+     */
+    public String render(String[] values) {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+
+        out.append(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            String value = values[slots[i]];
+            if (html) {
+                escape(out, value);
+            } else {
+                out.append(value);
+            }
+            out.append(literals[i + 1]);
+        }
+
+        String result = out.toString();
+        if (out.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.set(new StringBuilder(BUFFER_SIZE));
+        }
+        return result;
+    }
+
+    private static void escape(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.login.mail.template;
+
+import java.util.List;
+
+/**
+ * Modelos de e-mail enviados pela aplicação e as variáveis que cada um recebe, na ordem em que são informadas a
+ * {@link EmailTemplates#render(EmailTemplate, String...)}.
+ * <p>
+ * Os textos ficam em {@code mail/templates_{locale}.properties}, nas chaves {@code {key}.subject} e
+ * {@code {key}.body}, com as variáveis no formato {@code ${nome}}.
+ */
+public enum EmailTemplate {
+
+    REGISTER_CODE("register", "code"),
+    REFRESH_CODE("refresh", "code"),
+    PASSWORD_RESET("password-reset", "token");
+
+    private final String key;
+    private final List<String> variables;
+
+    EmailTemplate(String key, String... variables) {
+        this.key = key;
+        this.variables = List.of(variables);
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public List<String> variables() {
+        return variables;
+    }
+}
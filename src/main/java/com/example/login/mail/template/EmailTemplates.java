@@ -0,0 +1,119 @@
+package com.example.login.mail.template;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Modelos de e-mail localizados, analisados uma única vez na inicialização.
+ * <p>
+ * Para cada idioma de {@code email.templates.locales} é lido o arquivo {@code mail/templates_{locale}.properties}
+ * (UTF-8); a falta de um arquivo, de uma chave ou o uso de uma variável desconhecida impede a inicialização. O idioma
+ * do e-mail é o da requisição ({@code Accept-Language}), procurado pelo idioma completo, depois só pela língua e, por
+ * fim, {@code email.templates.default-locale}.
+ */
+@Component
+public class EmailTemplates {
+
+    private static final String LOCATION = "mail/templates_";
+
+    private final Map<Locale, Compiled[]> templates = new HashMap<>();
+    private final Compiled[] defaults;
+
+    public EmailTemplates(@Value("${email.templates.locales:pt-BR,en}") List<String> locales,
+                          @Value("${email.templates.default-locale:pt-BR}") String defaultLocale) {
+        for (String tag : locales) {
+            Locale locale = Locale.forLanguageTag(tag.trim());
+            Compiled[] compiled = load(locale);
+            templates.put(locale, compiled);
+            templates.putIfAbsent(Locale.of(locale.getLanguage()), compiled);
+        }
+
+        this.defaults = templates.get(Locale.forLanguageTag(defaultLocale));
+        if (defaults == null) {
+            throw new IllegalStateException("Idioma padrão dos e-mails fora de email.templates.locales: " + defaultLocale);
+        }
+    }
+
+    /**
+     * Renderiza um modelo no idioma da requisição atual.
+     *
+     * @param template Modelo.
+     * @param values   Valores das variáveis, na ordem de {@link EmailTemplate#variables()}.
+     * @return O assunto e o corpo do e-mail.
+     */
+    public RenderedEmail render(EmailTemplate template, String... values) {
+        return render(template, LocaleContextHolder.getLocale(), values);
+    }
+
+    /**
+     * Renderiza um modelo no idioma informado.
+     *
+     * @param template Modelo.
+     * @param locale   Idioma desejado.
+     * @param values   Valores das variáveis, na ordem de {@link EmailTemplate#variables()}.
+     * @return O assunto e o corpo do e-mail.
+     */
+    public RenderedEmail render(EmailTemplate template, Locale locale, String... values) {
+        if (values.length != template.variables().size()) {
+            throw new IllegalArgumentException("O modelo " + template.key() + " espera as variáveis " + template.variables());
+        }
+
+        Compiled compiled = resolve(locale)[template.ordinal()];
+        return new RenderedEmail(compiled.subject().render(values), compiled.body().render(values));
+    }
+
+    private Compiled[] resolve(Locale locale) {
+        if (locale == null) {
+            return defaults;
+        }
+        Compiled[] compiled = templates.get(locale);
+        if (compiled == null) {
+            compiled = templates.get(Locale.of(locale.getLanguage()));
+        }
+        return compiled != null ? compiled : defaults;
+    }
+
+    private static Compiled[] load(Locale locale) {
+        String resource = LOCATION + locale.toString() + ".properties";
+        Properties properties = new Properties();
+        try (InputStream in = EmailTemplates.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Modelos de e-mail não encontrados: " + resource);
+            }
+            properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao ler os modelos de e-mail " + resource, e);
+        }
+
+        EmailTemplate[] values = EmailTemplate.values();
+        Compiled[] compiled = new Compiled[values.length];
+        for (EmailTemplate template : values) {
+            compiled[template.ordinal()] = new Compiled(
+                    CompiledTemplate.compile(required(properties, resource, template.key() + ".subject"), template.variables(), false),
+                    CompiledTemplate.compile(required(properties, resource, template.key() + ".body"), template.variables(), true));
+        }
+        return compiled;
+    }
+
+    private static String required(Properties properties, String resource, String key) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            throw new IllegalStateException("Chave " + key + " ausente em " + resource);
+        }
+        return value;
+    }
+
+    private record Compiled(CompiledTemplate subject, CompiledTemplate body) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.login.mail.template;
+
+/**
+ * E-mail renderizado a partir de um {@link EmailTemplate}.
+ *
+ * @param subject Assunto.
+ * @param body    Corpo HTML.
+ */
+public record RenderedEmail(String subject, String body) {
+}
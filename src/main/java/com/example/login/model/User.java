@@ -2,6 +2,7 @@ package com.example.login.model;
 
 import com.example.login.aspect.view.Views;
 import com.example.login.enums.Role;
+import com.example.login.model.id.GlobalUserId;
 import com.example.login.util.Sensitive;
 import com.fasterxml.jackson.annotation.JsonView;
 import jakarta.persistence.*;
@@ -24,7 +25,7 @@ import java.util.Set;
 public class User extends BaseEntity implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GlobalUserId
     @JsonView(Views.Basic.class)
     private Long id;
 
@@ -54,6 +55,13 @@ public class User extends BaseEntity implements UserDetails {
     @JsonView(Views.Regular.class)
     private Role role;
 
+    @Version
+    private Long version;
+
+    /** Primeira habilitação; após a inserção, é gravada somente pelas atualizações de {@code enabled}. */
+    @Column(updatable = false)
+    private LocalDateTime verifiedAt;
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return Set.of(() -> role.getAuthority());
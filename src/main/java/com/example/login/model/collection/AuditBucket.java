@@ -0,0 +1,37 @@
+package com.example.login.model.collection;
+
+import com.example.login.aspect.view.Views;
+import com.fasterxml.jackson.annotation.JsonView;
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Agrupa os registros de auditoria de um usuário dentro de uma hora, com no máximo
+ * {@code audit.sink.bucket.max-events} eventos por documento.
+ * <p>
+ * O campo {@code shardKey} ({@code <userId>:<yyyyMMddHH>}, ou {@code anonymous-<n>:<yyyyMMddHH>} para eventos
+ * anônimos) recebe um índice hashed e deve ser usado como chave de shard, espalhando as gravações entre os
+ * shards. A linha do tempo de um usuário é lida pelo índice {@code userId + bucketStart}, retornando poucos
+ * documentos. Os índices são criados pelo
+ * {@link com.example.login.audit.sink.BucketedMongoAuditSink}.
+ */
+@Data
+@Builder
+@JsonView(Views.Basic.class)
+@Document(collection = "auditBuckets")
+public class AuditBucket {
+
+    @Id
+    private String id;
+
+    private String shardKey; // <userId>:<yyyyMMddHH> ou anonymous-<n>:<yyyyMMddHH>
+    private Long userId; // ID do usuário (nulo para requisições anônimas)
+    private LocalDateTime bucketStart; // Início da hora agrupada
+    private Integer count; // Quantidade de eventos no documento
+    private List<AuditLog> events; // Eventos na ordem de chegada
+}
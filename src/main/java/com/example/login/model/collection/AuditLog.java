@@ -1,6 +1,8 @@
 package com.example.login.model.collection;
 
+import com.example.login.aspect.view.Views;
 import com.example.login.enums.Role;
+import com.fasterxml.jackson.annotation.JsonView;
 import lombok.Builder;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
@@ -10,6 +12,7 @@ import java.time.LocalDateTime;
 
 @Data
 @Builder
+@JsonView(Views.Basic.class)
 @Document(collection = "auditLogs")
 public class AuditLog {
 
@@ -0,0 +1,17 @@
+package com.example.login.model.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Gera o ID do usuário pela aplicação, conforme o esquema de {@link UserIds}.
+ */
+@IdGeneratorType(GlobalUserIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface GlobalUserId {
+}
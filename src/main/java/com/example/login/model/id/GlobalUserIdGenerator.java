@@ -0,0 +1,26 @@
+package com.example.login.model.id;
+
+import com.example.login.model.User;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+/**
+ * Gerador do Hibernate para {@link GlobalUserId}: o bucket do ID vem do e-mail do usuário sendo inserido.
+ */
+public class GlobalUserIdGenerator implements BeforeExecutionGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return UserIds.next(UserIds.bucketOf(((User) owner).getEmail()));
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
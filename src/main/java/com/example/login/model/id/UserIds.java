@@ -0,0 +1,88 @@
+package com.example.login.model.id;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+/**
+ * Esquema de IDs globais dos usuários.
+ * <p>
+ * Cada ID de 64 bits é composto por {@code [0][8 bits de bucket][41 bits de tempo][6 bits de nó][8 bits de
+ * sequência]}. O bucket ({@code 1..255}) é derivado do e-mail e define em qual shard o usuário está, de forma que uma
+ * busca por ID não precisa consultar todos os shards. O tempo é contado em milissegundos a partir de
+ * {@link #EPOCH}, o que mantém os IDs ordenados por criação.
+ * <p>
+ * O bucket é calculado como {@code 1 + CRC32(email) % 255}, com o e-mail em minúsculas; a mesma expressão pode ser
+ * usada no MySQL ({@code 1 + CRC32(LOWER(TRIM(email))) % 255}). IDs anteriores a este esquema têm bucket {@code 0}.
+ */
+public final class UserIds {
+
+    public static final int BUCKETS = 255;
+    public static final int LEGACY_BUCKET = 0;
+    public static final Instant EPOCH = Instant.parse("2025-01-01T00:00:00Z");
+
+    static final int BUCKET_SHIFT = 55;
+    static final int NODE_BITS = 6;
+    static final int SEQUENCE_BITS = 8;
+    static final int MAX_NODE = (1 << NODE_BITS) - 1;
+    static final int MAX_SEQUENCE = (1 << SEQUENCE_BITS) - 1;
+
+    private static volatile int node;
+    private static long lastMillis = -1;
+    private static int sequence;
+
+    private UserIds() {
+    }
+
+    /**
+     * Define o número deste nó ({@code 0..63}), que deve ser único entre as instâncias que gravam usuários.
+     */
+    public static void configure(int node) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("O número do nó deve estar entre 0 e " + MAX_NODE);
+        }
+        UserIds.node = node;
+    }
+
+    /**
+     * Gera um novo ID no bucket informado.
+     */
+    public static synchronized long next(int bucket) {
+        long millis = Math.max(System.currentTimeMillis() - EPOCH.toEpochMilli(), lastMillis);
+        if (millis == lastMillis) {
+            sequence = (sequence + 1) & MAX_SEQUENCE;
+            if (sequence == 0) {
+                // Sequência esgotada neste milissegundo: aguarda o próximo.
+                while (millis <= lastMillis) {
+                    Thread.onSpinWait();
+                    millis = System.currentTimeMillis() - EPOCH.toEpochMilli();
+                }
+            }
+        } else {
+            sequence = 0;
+        }
+        lastMillis = millis;
+
+        return ((long) bucket << BUCKET_SHIFT)
+                | (millis << (NODE_BITS + SEQUENCE_BITS))
+                | ((long) node << SEQUENCE_BITS)
+                | sequence;
+    }
+
+    /**
+     * Calcula o bucket de um e-mail.
+     */
+    public static int bucketOf(String email) {
+        CRC32 crc = new CRC32();
+        crc.update(email.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+        return 1 + (int) (crc.getValue() % BUCKETS);
+    }
+
+    /**
+     * Extrai o bucket de um ID. Retorna {@link #LEGACY_BUCKET} para IDs anteriores a este esquema.
+     */
+    public static int bucketOf(long id) {
+        return (int) (id >>> BUCKET_SHIFT);
+    }
+}
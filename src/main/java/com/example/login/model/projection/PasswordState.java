@@ -0,0 +1,13 @@
+package com.example.login.model.projection;
+
+/**
+ * Projeção com as colunas lidas na redefinição de senha, incluindo a versão usada no controle de concorrência
+ * otimista, sem hidratar a entidade {@code User} nem registrá-la no contexto de persistência.
+ */
+public record PasswordState(
+        Long id,
+        Long version,
+        String email,
+        String password,
+        String lastPassword) {
+}
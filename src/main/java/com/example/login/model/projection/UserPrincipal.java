@@ -0,0 +1,23 @@
+package com.example.login.model.projection;
+
+import com.example.login.enums.Role;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Projeção com os dados do usuário necessários para autenticar uma requisição.
+ * <p>
+ * Carregada diretamente pelo índice de cobertura {@code idx_users_email_principal}, sem hidratar a entidade
+ * {@code User} (senhas e datas) nem registrá-la no contexto de persistência.
+ */
+public record UserPrincipal(
+        Long id,
+        String email,
+        Role role,
+        Boolean enabled) {
+
+    public List<GrantedAuthority> authorities() {
+        return List.of(role);
+    }
+}
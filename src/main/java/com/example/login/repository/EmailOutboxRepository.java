@@ -0,0 +1,123 @@
+package com.example.login.repository;
+
+import com.example.login.mail.OutboxEmail;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Acesso à tabela {@code tb_email_outbox}.
+ * <p>
+ * Todas as operações rodam em transação (juntando-se à do chamador, se houver), de modo que a inclusão de um e-mail
+ * é confirmada junto com a operação que o gerou e nunca vai para uma réplica de leitura.
+ */
+@Repository
+public class EmailOutboxRepository {
+
+    private static final String CLAIM = "SELECT id, recipient, subject, body, attempts, created_at " +
+            "FROM tb_email_outbox WHERE status = 'PENDING' AND next_attempt_at <= ? AND created_at >= ? " +
+            "ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String EXPIRED = "Expirado antes do envio";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public EmailOutboxRepository(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public void insert(String recipient, String subject, String body) {
+        transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.update(
+                "INSERT INTO tb_email_outbox (recipient, subject, body) VALUES (?, ?, ?)", recipient, subject, body));
+    }
+
+    /**
+     * Reserva os e-mails prontos para envio, adiando a próxima tentativa de cada um pela duração da reserva.
+     * <p>
+     * As linhas já bloqueadas por outra instância são ignoradas ({@code SKIP LOCKED}), e a reserva é confirmada antes
+     * do envio: nenhuma conexão fica presa durante a conversa SMTP. Se o envio não for concluído (queda da instância),
+     * o e-mail volta a ficar disponível ao fim da reserva. Os e-mails incluídos há mais de {@code maxAge} não são
+     * reservados.
+     *
+     * @param limit  Quantidade máxima de e-mails.
+     * @param lease  Duração da reserva.
+     * @param maxAge Idade máxima de um e-mail ainda enviável.
+     * @return Os e-mails reservados.
+     */
+    public List<OutboxEmail> claim(int limit, Duration lease, Duration maxAge) {
+        return transactionTemplate.execute(tx -> {
+            Instant now = Instant.now();
+            List<OutboxEmail> emails = jdbcTemplate.query(CLAIM, (rs, rowNum) -> new OutboxEmail(
+                    rs.getLong("id"), rs.getString("recipient"), rs.getString("subject"), rs.getString("body"),
+                    rs.getInt("attempts"), rs.getTimestamp("created_at").toInstant()),
+                    Timestamp.from(now), Timestamp.from(now.minus(maxAge)), limit);
+            if (!emails.isEmpty()) {
+                namedJdbcTemplate.update("UPDATE tb_email_outbox SET next_attempt_at = :until WHERE id IN (:ids)",
+                        new MapSqlParameterSource("until", Timestamp.from(now.plus(lease)))
+                                .addValue("ids", emails.stream().map(OutboxEmail::id).toList()));
+            }
+            return emails;
+        });
+    }
+
+    public void delete(long id) {
+        transactionTemplate.executeWithoutResult(tx ->
+                jdbcTemplate.update("DELETE FROM tb_email_outbox WHERE id = ?", id));
+    }
+
+    /**
+     * Registra uma falha de envio e agenda a próxima tentativa.
+     */
+    public void retry(long id, int attempts, Instant nextAttemptAt, String error) {
+        transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.update(
+                "UPDATE tb_email_outbox SET attempts = ?, next_attempt_at = ?, last_error = ? WHERE id = ?",
+                attempts, Timestamp.from(nextAttemptAt), truncate(error), id));
+    }
+
+    /**
+     * Registra a última falha de envio e retira o e-mail da fila ({@code status = 'FAILED'}), apagando o corpo.
+     */
+    public void fail(long id, int attempts, String error) {
+        transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.update(
+                "UPDATE tb_email_outbox SET status = 'FAILED', body = '', attempts = ?, last_error = ? WHERE id = ?",
+                attempts, truncate(error), id));
+    }
+
+    /**
+     * Retira da fila, como em {@link #fail}, os e-mails pendentes incluídos há mais de {@code maxAge}.
+     *
+     * @return A quantidade de e-mails expirados.
+     */
+    public int expire(Duration maxAge) {
+        return transactionTemplate.execute(tx -> jdbcTemplate.update(
+                "UPDATE tb_email_outbox SET status = 'FAILED', body = '', last_error = ? " +
+                        "WHERE status = 'PENDING' AND created_at < ?",
+                EXPIRED, Timestamp.from(Instant.now().minus(maxAge))));
+    }
+
+    /**
+     * Remove até {@code limit} e-mails com falha definitiva incluídos antes de {@code before}.
+     *
+     * @return A quantidade de e-mails removidos.
+     */
+    public int purge(Instant before, int limit) {
+        return transactionTemplate.execute(tx -> jdbcTemplate.update(
+                "DELETE FROM tb_email_outbox WHERE status = 'FAILED' AND created_at < ? LIMIT ?",
+                Timestamp.from(before), limit));
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > 500 ? error.substring(0, 500) : error;
+    }
+}
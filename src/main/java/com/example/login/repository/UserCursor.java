@@ -0,0 +1,44 @@
+package com.example.login.repository;
+
+import com.example.login.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Comparator;
+
+/**
+ * Posição na listagem de usuários ordenada por {@code (created_at, id)}, usada na paginação por chave.
+ * É enviada ao cliente como um texto opaco.
+ */
+public record UserCursor(LocalDateTime createdAt, long id) implements Comparable<UserCursor> {
+
+    private static final Comparator<UserCursor> ORDER =
+            Comparator.comparing(UserCursor::createdAt).thenComparingLong(UserCursor::id);
+
+    public String encode() {
+        String value = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Interpreta um cursor recebido do cliente.
+     *
+     * @throws BadRequestException Caso o cursor seja inválido.
+     */
+    public static UserCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf('|');
+            return new UserCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Cursor de paginação inválido.");
+        }
+    }
+
+    @Override
+    public int compareTo(UserCursor other) {
+        return ORDER.compare(this, other);
+    }
+}
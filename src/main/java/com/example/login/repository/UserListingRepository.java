@@ -0,0 +1,101 @@
+package com.example.login.repository;
+
+import com.example.login.dto.request.UserFilter;
+import com.example.login.enums.Role;
+import com.example.login.model.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Listagem administrativa de usuários com paginação por chave ({@code created_at, id}), sem OFFSET.
+ * <p>
+ * As linhas são lidas em fluxo do MySQL ({@code fetchSize = Integer.MIN_VALUE}) e entregues uma a uma, sem montar a
+ * página em memória. Os filtros por função, status e janela de criação usam os índices de
+ * {@code V7__add_indices_listagem_usuarios.sql}; o prefixo de e-mail usa o índice único de {@code email}.
+ */
+@Repository
+public class UserListingRepository {
+
+    private static final String COLUMNS = "id, username, email, enabled, role, created_at, updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserListingRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    /**
+     * Percorre os usuários que atendem ao filtro, em ordem de criação.
+     *
+     * @param filter Filtro aplicado.
+     * @param after  Posição a partir da qual a listagem continua, ou {@code null} para o início.
+     * @param limit  Quantidade máxima de usuários.
+     * @param action Ação executada para cada usuário, na ordem.
+     */
+    public void forEach(UserFilter filter, UserCursor after, int limit, Consumer<User> action) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM tb_users WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+
+        if (filter.role() != null) {
+            sql.append(" AND role = ?");
+            args.add(filter.role().name());
+        }
+        if (filter.enabled() != null) {
+            sql.append(" AND enabled = ?");
+            args.add(filter.enabled());
+        }
+        if (filter.createdFrom() != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(Timestamp.valueOf(filter.createdFrom()));
+        }
+        if (filter.createdTo() != null) {
+            sql.append(" AND created_at < ?");
+            args.add(Timestamp.valueOf(filter.createdTo()));
+        }
+        if (filter.emailPrefix() != null && !filter.emailPrefix().isBlank()) {
+            sql.append(" AND email LIKE ?");
+            args.add(escapeLike(filter.emailPrefix().trim()) + "%");
+        }
+        if (after != null) {
+            sql.append(" AND (created_at > ? OR (created_at = ? AND id > ?))");
+            Timestamp createdAt = Timestamp.valueOf(after.createdAt());
+            args.add(createdAt);
+            args.add(createdAt);
+            args.add(after.id());
+        }
+        sql.append(" ORDER BY created_at, id LIMIT ?");
+        args.add(limit);
+
+        RowCallbackHandler handler = rs -> action.accept(map(rs));
+        jdbcTemplate.query(sql.toString(), handler, args.toArray());
+    }
+
+    private static User map(ResultSet rs) throws SQLException {
+        User user = new User();
+        user.setId(rs.getLong("id"));
+        user.setEmail(rs.getString("email"));
+        user.setUsername(rs.getString("username"));
+        user.setEnabled(rs.getObject("enabled", Boolean.class));
+        String role = rs.getString("role");
+        user.setRole(role != null ? Role.valueOf(role) : null);
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        user.setCreatedAt(createdAt != null ? createdAt.toLocalDateTime() : null);
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        user.setUpdatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null);
+        return user;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
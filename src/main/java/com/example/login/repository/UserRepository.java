@@ -1,11 +1,49 @@
 package com.example.login.repository;
 
 import com.example.login.model.User;
+import com.example.login.model.projection.PasswordState;
+import com.example.login.model.projection.UserPrincipal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     User findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    @Query("select new com.example.login.model.projection.UserPrincipal(u.id, u.email, u.role, u.enabled) " +
+            "from User u where u.email = :email")
+    UserPrincipal findPrincipalByEmail(String email);
+
+    @Query("select new com.example.login.model.projection.PasswordState(u.id, u.version, u.email, u.password, " +
+            "u.lastPassword) from User u where u.email = :email")
+    PasswordState findPasswordStateByEmail(String email);
+
+    /**
+     * Habilita o usuário alterando somente {@code enabled}, {@code version}, {@code updated_at} e, na primeira
+     * habilitação, {@code verified_at}, sem carregar a entidade.
+     *
+     * @return {@code 1} se o usuário foi habilitado, {@code 0} se não existe ou já estava habilitado.
+     */
+    @Modifying
+    @Query("update User u set u.enabled = true, u.version = u.version + 1, u.updatedAt = local datetime, " +
+            "u.verifiedAt = coalesce(u.verifiedAt, local datetime) where u.email = :email and u.enabled = false")
+    int updateEnabledByEmail(String email);
+
+    /**
+     * Troca a senha do usuário, movendo a atual para {@code last_password}, somente se a versão lida não mudou.
+     * <p>
+     * O MySQL avalia as atribuições da esquerda para a direita, então {@code last_password} recebe a senha anterior.
+     *
+     * @return {@code 1} se a senha foi alterada, {@code 0} se o usuário foi alterado por outra operação desde a
+     * leitura.
+     */
+    @Modifying
+    @Query("update User u set u.lastPassword = u.password, u.password = :password, u.lastAlterPass = :changedAt, " +
+            "u.updatedAt = :changedAt, u.version = u.version + 1 where u.id = :id and u.version = :version")
+    int updatePassword(Long id, Long version, String password, LocalDateTime changedAt);
 }
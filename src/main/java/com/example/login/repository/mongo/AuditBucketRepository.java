@@ -0,0 +1,13 @@
+package com.example.login.repository.mongo;
+
+import com.example.login.model.collection.AuditBucket;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AuditBucketRepository extends MongoRepository<AuditBucket, String> {
+
+    List<AuditBucket> findByUserIdAndBucketStartBetweenOrderByBucketStartAsc(
+            Long userId, LocalDateTime from, LocalDateTime to);
+}
@@ -1,7 +1,13 @@
 package com.example.login.repository.mongo;
 
 import com.example.login.model.collection.AuditLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 public interface AuditLogRepository extends MongoRepository<AuditLog, String> {
+
+    List<AuditLog> findByStartTimeBefore(LocalDateTime cutoff, Pageable pageable);
 }
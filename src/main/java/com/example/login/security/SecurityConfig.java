@@ -1,5 +1,6 @@
 package com.example.login.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -55,9 +56,11 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)                                                  // Desabilita CSRF, útil para APIs REST (que geralmente não usam sessões).
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))     // Configura sessão como Stateless.
                 .authorizeHttpRequests(request -> {                                                     // Define as regras de autorização para rotas específicas.
+                    request.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll();                   // Despachos assíncronos (ex: SSE) já foram autorizados na requisição original
                     request.requestMatchers(HttpMethod.POST, PUBLIC_ENDPOINTS_POST.toArray(new String[0])).permitAll();    // Permitir login e registro sem autenticação
                     request.requestMatchers(HttpMethod.GET, PUBLIC_ENDPOINTS_GET.toArray(new String[0])).permitAll();
                     request.requestMatchers("/admin/**").hasRole("ADMIN");                            // Somente ADMIN pode acessar /admin
+                    request.requestMatchers("/actuator/**").hasRole("ADMIN");                         // Métricas e saúde da aplicação
                     request.requestMatchers("/user/**").hasRole("USER");                              // Somente USER pode acessar /user
                     request.anyRequest().authenticated();                                               // Requer autenticação para outras rotas
                 })
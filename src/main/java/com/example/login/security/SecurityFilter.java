@@ -1,10 +1,11 @@
 package com.example.login.security;
 
+import com.example.login.activity.LastSeenTracker;
 import com.example.login.cache.TokenCache;
+import com.example.login.cache.UserCache;
 import com.example.login.dto.request.AuthUser;
 import com.example.login.exception.ForbiddenException;
-import com.example.login.model.User;
-import com.example.login.repository.UserRepository;
+import com.example.login.model.projection.UserPrincipal;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -35,9 +36,10 @@ import static com.example.login.security.TokenService.ACCESS_TOKEN;
 public class SecurityFilter extends OncePerRequestFilter {
 
     private final TokenService tokenService;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final HandlerExceptionResolver handlerExceptionResolver;
     private final TokenCache tokenCache;
+    private final LastSeenTracker lastSeenTracker;
 
     public static final List<String> PUBLIC_ENDPOINTS_GET = List.of(
     );
@@ -71,11 +73,16 @@ public class SecurityFilter extends OncePerRequestFilter {
                 }
 
                 var subject = tokenService.getSubject(token, ACCESS_TOKEN);   // Valida o token e extrai o subject (e-mail do usuário)
-                var user =  userRepository.findByEmail(subject);
-                var authUser = enrichAuthUser(user);
+                var user =  userCache.findPrincipalByEmail(subject);                // Carrega apenas id, e-mail, função e status
 
-                var authentication = new UsernamePasswordAuthenticationToken(authUser, null, user.getAuthorities()); // Cria uma instância de autenticação para o usuário
-                SecurityContextHolder.getContext().setAuthentication(authentication); // Configura o contexto de segurança do Spring com os detalhes do usuário autenticado
+                // Usuário arquivado ou removido com token ainda válido: segue sem autenticação
+                if (user != null) {
+                    var authUser = enrichAuthUser(user);
+                    lastSeenTracker.record(user.id());                              // Apenas em memória; gravado em lotes
+
+                    var authentication = new UsernamePasswordAuthenticationToken(authUser, null, user.authorities()); // Cria uma instância de autenticação para o usuário
+                    SecurityContextHolder.getContext().setAuthentication(authentication); // Configura o contexto de segurança do Spring com os detalhes do usuário autenticado
+                }
             }
 
             filterChain.doFilter(request, response); // Passa a requisição para o próximo filtro na cadeia
@@ -102,13 +109,13 @@ public class SecurityFilter extends OncePerRequestFilter {
     }
 
     /**
-     * Converte um objeto User em um AuthUser para ser utilizado na autenticação.
+     * Converte a projeção do usuário em um AuthUser para ser utilizado na autenticação.
      *
-     * @param user Objeto User recuperado do banco de dados.
+     * @param user Projeção do usuário recuperada do cache ou do banco de dados.
      * @return Objeto AuthUser contendo as informações essenciais do usuário.
      */
-    private AuthUser enrichAuthUser(User user) {
-        return new AuthUser(user.getId(), user.getUsername(), user.getRole());
+    private AuthUser enrichAuthUser(UserPrincipal user) {
+        return new AuthUser(user.id(), user.email(), user.role());
     }
 
     /**
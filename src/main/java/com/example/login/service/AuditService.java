@@ -0,0 +1,19 @@
+package com.example.login.service;
+
+import com.example.login.audit.stream.AuditStreamFilter;
+import com.example.login.model.collection.AuditLog;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AuditService {
+
+    List<AuditLog> findArchived(LocalDateTime from, LocalDateTime to, int limit);
+
+    SseEmitter stream(AuditStreamFilter filter);
+
+    List<AuditLog> findUserTimeline(Long userId, LocalDateTime from, LocalDateTime to);
+
+    List<AuditLog> search(String query, LocalDateTime from, LocalDateTime to, int limit);
+}
@@ -0,0 +1,10 @@
+package com.example.login.service;
+
+import java.util.Map;
+
+public interface ShardService {
+
+    Map<Integer, String> plan(int shardCount);
+
+    Map<Integer, Long> rebalance();
+}
@@ -0,0 +1,20 @@
+package com.example.login.service;
+
+import com.example.login.dto.request.UserFilter;
+import com.example.login.dto.request.UserStatusRequest;
+import com.example.login.dto.response.BulkJobStatus;
+import com.example.login.dto.response.UserImportReport;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+
+public interface UserAdminService {
+
+    UserImportReport importUsers(InputStream input, String contentType, boolean enabled);
+
+    StreamingResponseBody listUsers(UserFilter filter, String cursor, int limit, String view);
+
+    BulkJobStatus updateStatus(UserStatusRequest request);
+
+    BulkJobStatus findJob(String jobId);
+}
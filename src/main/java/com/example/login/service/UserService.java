@@ -1,6 +1,7 @@
 package com.example.login.service;
 
 import com.example.login.dto.request.UserRequest;
+import com.example.login.dto.response.UserProfile;
 import com.example.login.model.User;
 
 public interface UserService {
@@ -8,4 +9,6 @@ public interface UserService {
     void registerUser(UserRequest user);
 
     User findUser();
+
+    UserProfile findProfile(String view, String ifNoneMatch);
 }
@@ -0,0 +1,124 @@
+package com.example.login.service.impl;
+
+import com.example.login.audit.archive.AuditArchive;
+import com.example.login.audit.search.AuditSearchIndex;
+import com.example.login.audit.stream.AuditEventBroadcaster;
+import com.example.login.audit.stream.AuditStreamFilter;
+import com.example.login.audit.stream.SseAuditStreamSender;
+import com.example.login.exception.BadRequestException;
+import com.example.login.model.collection.AuditLog;
+import com.example.login.repository.mongo.AuditBucketRepository;
+import com.example.login.service.AuditService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class AuditServiceImpl implements AuditService {
+
+    public static final int MAX_LIMIT = 10_000;
+
+    private final AuditArchive auditArchive;
+    private final AuditEventBroadcaster auditEventBroadcaster;
+    private final AuditBucketRepository auditBucketRepository;
+    private final ObjectProvider<AuditSearchIndex> auditSearchIndex;
+
+    @Value("${audit.stream.timeout:30m}")
+    private Duration streamTimeout;
+
+    /**
+     * Consulta os registros de auditoria já movidos para o armazenamento frio.
+     *
+     * @param from  Início do intervalo (inclusivo).
+     * @param to    Fim do intervalo (inclusivo).
+     * @param limit Quantidade máxima de registros retornados.
+     * @return Os registros arquivados no intervalo, ordenados por {@code startTime}.
+     * @throws BadRequestException Caso o intervalo ou o limite sejam inválidos.
+     */
+    @Override
+    public List<AuditLog> findArchived(LocalDateTime from, LocalDateTime to, int limit) {
+        validateRange(from, to);
+        validateLimit(limit);
+        return auditArchive.scan(from, to, limit);
+    }
+
+    /**
+     * Abre uma conexão SSE que recebe os registros de auditoria à medida que são gerados, sem consultar o MongoDB.
+     *
+     * @param filter Filtro aplicado aos eventos enviados.
+     * @return O emissor SSE da conexão.
+     */
+    @Override
+    public SseEmitter stream(AuditStreamFilter filter) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        var subscription = auditEventBroadcaster.subscribe(filter, new SseAuditStreamSender(emitter));
+
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+
+    /**
+     * Monta a linha do tempo de um usuário a partir dos documentos agrupados por hora
+     * ({@code audit.sink.type=bucket}).
+     *
+     * @param userId ID do usuário.
+     * @param from   Início do intervalo (inclusivo).
+     * @param to     Fim do intervalo (inclusivo).
+     * @return Os eventos do usuário no intervalo, em ordem cronológica.
+     */
+    @Override
+    public List<AuditLog> findUserTimeline(Long userId, LocalDateTime from, LocalDateTime to) {
+        validateRange(from, to);
+
+        return auditBucketRepository.findByUserIdAndBucketStartBetweenOrderByBucketStartAsc(
+                        userId, from.truncatedTo(ChronoUnit.HOURS), to)
+                .stream()
+                .flatMap(bucket -> bucket.getEvents().stream())
+                .filter(event -> !event.getStartTime().isBefore(from) && !event.getStartTime().isAfter(to))
+                .toList();
+    }
+
+    /**
+     * Busca textual nos registros de auditoria indexados por esta instância ({@code audit.search.enabled=true}).
+     *
+     * @param query Consulta na sintaxe do Lucene (ex: {@code level:ERROR AND timeout}).
+     * @param from  Início do intervalo (inclusivo).
+     * @param to    Fim do intervalo (inclusivo).
+     * @param limit Quantidade máxima de registros retornados.
+     * @return Os registros encontrados, do mais recente para o mais antigo.
+     * @throws BadRequestException Caso a busca esteja desabilitada ou a consulta, o intervalo ou o limite sejam inválidos.
+     */
+    @Override
+    public List<AuditLog> search(String query, LocalDateTime from, LocalDateTime to, int limit) {
+        validateRange(from, to);
+        validateLimit(limit);
+
+        AuditSearchIndex index = auditSearchIndex.getIfAvailable();
+        if (index == null) {
+            throw new BadRequestException("A busca textual de auditoria está desabilitada.");
+        }
+        return index.search(query, from, to, limit);
+    }
+
+    private void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("O início do intervalo deve ser anterior ao fim.");
+        }
+    }
+
+    private void validateLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("O limite deve estar entre 1 e " + MAX_LIMIT + ".");
+        }
+    }
+}
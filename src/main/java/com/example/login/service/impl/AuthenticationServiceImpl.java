@@ -1,13 +1,20 @@
 package com.example.login.service.impl;
 
+import com.example.login.archive.UserArchive;
 import com.example.login.cache.TokenCache;
-import com.example.login.cache.ValidationCodeCache;
+import com.example.login.cache.UserCache;
+import com.example.login.cache.VerificationCodeStore;
 import com.example.login.dto.request.AlterPassRequest;
 import com.example.login.dto.response.TokenData;
 import com.example.login.dto.response.TokenResponse;
 import com.example.login.exception.BadRequestException;
+import com.example.login.exception.ConflictException;
 import com.example.login.exception.ForbiddenException;
+import com.example.login.mail.template.EmailTemplate;
+import com.example.login.mail.template.EmailTemplates;
+import com.example.login.mail.template.RenderedEmail;
 import com.example.login.model.User;
+import com.example.login.model.projection.PasswordState;
 import com.example.login.repository.UserRepository;
 import com.example.login.security.AuthAuditorAware;
 import com.example.login.security.TokenService;
@@ -28,7 +35,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
-import static com.example.login.cache.ValidationCodeCache.CODE_LENGTH;
+import static com.example.login.cache.VerificationCodeStore.CODE_LENGTH;
+import static com.example.login.cache.VerificationCodeStore.Purpose.PASSWORD_RESET;
 import static com.example.login.security.TokenService.ACCESS_TOKEN;
 import static com.example.login.security.TokenService.REFRESH_TOKEN;
 
@@ -59,7 +67,10 @@ public class AuthenticationServiceImpl implements UserDetailsService, Authentica
     private final PasswordEncoder passEncoder;
     private final UserRepository userRepository;
     private final AuthAuditorAware authAuditorAware;
-    private final ValidationCodeCache validationCodeCache;
+    private final VerificationCodeStore verificationCodeStore;
+    private final UserCache userCache;
+    private final UserArchive userArchive;
+    private final EmailTemplates emailTemplates;
 
     /**
      * Carrega os detalhes do usuário com base no nome de usuário fornecido.
@@ -73,7 +84,7 @@ public class AuthenticationServiceImpl implements UserDetailsService, Authentica
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return getUser(username);
+        return getUser(username, true);
     }
 
     /**
@@ -143,7 +154,8 @@ public class AuthenticationServiceImpl implements UserDetailsService, Authentica
      * Inicia o processo de recuperação de senha, enviando um código de redefinição para o e-mail do usuário.
      * <p>
      * Este método verifica se o usuário solicitou recentemente uma mudança de senha (verificando a hora da última alteração).
-     * Caso o tempo limite tenha sido excedido, um e-mail com um link de redefinição de senha será enviado para o usuário.
+     * Caso o tempo limite tenha sido excedido, um e-mail com um link de redefinição de senha será enviado para o usuário,
+     * no idioma da requisição.
      *
      * @param email do usuário que solicitou a recuperação de senha.
      * @throws BadRequestException Caso o usuário tenha solicitado alteração de senha recentemente.
@@ -157,15 +169,12 @@ public class AuthenticationServiceImpl implements UserDetailsService, Authentica
             throw new BadRequestException("É necessário aguardar pelo menos 1 hora para alterar a senha novamente.");
         }
 
-        String resetCode = validationCodeCache.generateValidationCode(email);
+        String resetCode = verificationCodeStore.issue(PASSWORD_RESET, email);
         TokenData resetToken = tokenService.generateToken(user, ACCESS_TOKEN);
 
-        String resetLink = "http://localhost:8080/auth/reset-password?token=" + resetToken.token() + resetCode;
-        String subject = "Redefinição de Senha";
-        String text = "Clique no link para redefinir sua senha: " + resetLink + "<br><br>"
-                + "<b>Este link é exclusivo e deve ser usado apenas por você. Não o compartilhe com ninguém.<b>";
+        RenderedEmail resetEmail = emailTemplates.render(EmailTemplate.PASSWORD_RESET, resetToken.token() + resetCode);
 
-        emailService.sendValidationEmail(email, subject, text);
+        emailService.sendValidationEmail(email, resetEmail.subject(), resetEmail.body());
     }
 
     /**
@@ -173,41 +182,62 @@ public class AuthenticationServiceImpl implements UserDetailsService, Authentica
      * <p>
      * Este método valida o código de redefinição fornecido pelo usuário e altera sua senha. Caso a senha fornecida seja a mesma que a anterior, ou se o código de validação for inválido ou expirado, uma exceção será gerada.
      * Após a redefinição da senha, o usuário tem o histórico da última senha e a data da última alteração de senha atualizados.
+     * A alteração é feita com uma atualização condicionada à versão lida, detectando redefinições concorrentes.
      *
      * @param recovery Objeto contendo os dados necessários para a recuperação de senha, incluindo o código de validação e a nova senha.
      * @throws BadRequestException Caso o código de validação seja inválido ou expirado, ou se a nova senha for igual à anterior.
+     * @throws ConflictException Caso o usuário tenha sido alterado por outra operação durante a redefinição.
      */
     @Override
     @Transactional
     public void resetPassword(AlterPassRequest recovery) {
         String code = recovery.code().substring(recovery.code().length() -CODE_LENGTH);
         String token = recovery.code().substring(0, recovery.code().length() -CODE_LENGTH);
-        User user = getUser(null);
+        PasswordState user = getPasswordState(authAuditorAware.getAuthUser().username());
 
-        if (passEncoder.matches(recovery.password(), user.getPassword()) ||
-                (user.getLastPassword() != null
-                        && passEncoder.matches(recovery.password(), user.getLastPassword()))) {
+        if (passEncoder.matches(recovery.password(), user.password()) ||
+                (user.lastPassword() != null
+                        && passEncoder.matches(recovery.password(), user.lastPassword()))) {
             throw new BadRequestException("Senha já utilizada, insira uma senha diferente.");
         }
 
-        String cachedCode = validationCodeCache.getValidationCode(user.getEmail());
-        if (!code.equals(cachedCode)) {
-            throw new BadRequestException("Código de validação expirado ou inválido.");
-        }
+        verificationCodeStore.consume(PASSWORD_RESET, user.email(), code);
 
-        validationCodeCache.invalidateValidationCode(user.getEmail());
+        int updated = userRepository.updatePassword(user.id(), user.version(), passEncoder.encode(recovery.password()),
+                LocalDateTime.now());
+        if (updated == 0) {
+            throw new ConflictException("A senha foi alterada por outra operação; solicite um novo código.");
+        }
 
-        user.setLastPassword(user.getPassword());
-        user.setPassword(passEncoder.encode(recovery.password()));
-        user.setLastAlterPass(LocalDateTime.now());
+        userCache.invalidate(user.id(), user.email());
     }
 
     private User getUser(String username) {
+        return getUser(username, false);
+    }
+
+    /**
+     * Busca o usuário pelo e-mail; um usuário arquivado é restaurado de forma transparente. Os hashes de senha
+     * só são carregados quando solicitados (autenticação).
+     */
+    private User getUser(String username, boolean withPassword) {
         if (username == null) {
             username = authAuditorAware.getAuthUser().username();
         }
 
-        return Optional.ofNullable(userRepository.findByEmail(username))
+        User user = withPassword ? userCache.findByEmailWithPassword(username) : userCache.findByEmail(username);
+        if (user == null && userArchive.restore(username, UserArchive.Trigger.LOGIN)) {
+            user = withPassword ? userCache.findByEmailWithPassword(username) : userCache.findByEmail(username);
+        }
+        return Optional.ofNullable(user)
+                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado."));
+    }
+
+    /**
+     * Busca diretamente no banco as senhas e a versão do usuário, para fluxos que alteram a senha.
+     */
+    private PasswordState getPasswordState(String username) {
+        return Optional.ofNullable(userRepository.findPasswordStateByEmail(username))
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado."));
     }
 
@@ -1,125 +1,112 @@
 package com.example.login.service.impl;
 
-import com.example.login.cache.ValidationCodeCache;
+import com.example.login.cache.UserCache;
+import com.example.login.cache.VerificationCodeStore;
 import com.example.login.exception.BadRequestException;
-import com.example.login.exception.InternalServerErrorException;
+import com.example.login.mail.EmailOutbox;
+import com.example.login.mail.template.EmailTemplate;
+import com.example.login.mail.template.EmailTemplates;
+import com.example.login.mail.template.RenderedEmail;
 import com.example.login.repository.UserRepository;
 import com.example.login.service.EmailService;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import static com.example.login.cache.VerificationCodeStore.Purpose.REGISTRATION;
+
 @Service
 @RequiredArgsConstructor
 public class EmailServiceImpl implements EmailService {
 
-    private final JavaMailSender mailSender;
-
     private final UserRepository userRepository;
 
-    private final ValidationCodeCache validationCodeCache;
+    private final VerificationCodeStore verificationCodeStore;
+
+    private final UserCache userCache;
+
+    private final EmailOutbox emailOutbox;
 
-    /** Busca um valor de uma propriedade no properties e armazena na variável */
-    @Value("${spring.mail.username}")
-    private String senderEmail;
+    private final EmailTemplates emailTemplates;
 
     /**
-     * Envia um e-mail de registro ao usuário com um código de validação.
+     * Envia um e-mail de registro ao usuário com um código de validação, no idioma da requisição.
      *
      * @param receiverEmail O e-mail do destinatário que receberá o código de validação.
      */
     @Override
     public void sendRegisterEmail(String receiverEmail) {
-        String code = validationCodeCache.generateValidationCode(receiverEmail);
-        String subject = "Código de Validação";
-        String text = "Seu código de validação é: <b>" + code + "</b>";
+        String code = verificationCodeStore.issue(REGISTRATION, receiverEmail);
+        RenderedEmail email = emailTemplates.render(EmailTemplate.REGISTER_CODE, code);
 
-        sendValidationEmail(receiverEmail, subject, text);
+        sendValidationEmail(receiverEmail, email.subject(), email.body());
     }
 
     /**
      * Valida o código de validação fornecido pelo usuário.
      * <p>
-     * Este método verifica se o código de validação fornecido corresponde ao código armazenado em cache
-     * para o e-mail do usuário. Caso o código esteja expirado ou inválido, lança uma exceção.
-     * Após a validação bem-sucedida, o código é removido do cache, e o usuário é habilitado para login.
+     * Este método verifica se o código de validação fornecido corresponde ao código armazenado no Redis
+     * para o e-mail do usuário, consumindo-o na mesma operação; cada erro conta como uma tentativa.
+     * Após a validação bem-sucedida, o usuário é habilitado para login com uma
+     * atualização somente da coluna {@code enabled}, sem carregar a entidade.
      *
      * @param email do usuário para validação.
      * @param code código para validação.
-     * @throws BadRequestException Se o usuário não for encontrado, ou se o código de validação for inválido ou expirado.
+     * @throws BadRequestException Se o usuário não for encontrado, se o código de validação for inválido ou expirado,
+     *                             ou se as tentativas tiverem se esgotado.
      */
     @Override
     @Transactional
     public void validationCode(String email, String code) {
-        var user = userRepository.findByEmail(email);
+        var user = userRepository.findPrincipalByEmail(email);
         if (user == null) {
             throw new BadRequestException("Usuário não encontrado!");
         }
 
-        String cachedCode = validationCodeCache.getValidationCode(email);
-        if (!code.equals(cachedCode)) {
-            throw new BadRequestException("Código de validação expirado ou inválido.");
-        }
-
-        validationCodeCache.invalidateValidationCode(code);
+        verificationCodeStore.consume(REGISTRATION, email, code);
 
-        user.setEnabled(true);
-        userRepository.save(user);
+        if (userRepository.updateEnabledByEmail(user.email()) > 0) {
+            userCache.invalidate(user.id(), user.email());
+        }
     }
 
     /**
      * Gera e envia um novo código de validação para o e-mail do usuário.
      * <p>
-     * Este método invalida qualquer código de validação previamente armazenado
-     * em cache para o e-mail e gera um novo código a ser enviado ao usuário.
+     * O novo código substitui o anterior do e-mail e zera as tentativas.
      *
      * @param receiverEmail O e-mail do destinatário que receberá o novo código de validação.
+     * @throws BadRequestException Se o usuário não for encontrado (inclusive arquivado) ou já estiver habilitado.
      */
     @Override
     public void sendRefreshCode(String receiverEmail) {
-        var user = userRepository.findByEmail(receiverEmail);
+        var user = userCache.findPrincipalByEmail(receiverEmail);
+        if (user == null) {
+            throw new BadRequestException("Usuário não encontrado!");
+        }
 
-        if (Boolean.TRUE.equals(user.getEnabled())) {
+        if (Boolean.TRUE.equals(user.enabled())) {
             throw new BadRequestException("Usuário já habilitado.");
         }
 
-        validationCodeCache.invalidateValidationCode(receiverEmail);
+        String code = verificationCodeStore.issue(REGISTRATION, receiverEmail);
+        RenderedEmail email = emailTemplates.render(EmailTemplate.REFRESH_CODE, code);
 
-        String code = validationCodeCache.generateValidationCode(receiverEmail);
-        String subject = "Novo Código de Validação";
-        String text = "Seu código de validação atualizado é: <b>" + code + "</b>";
-
-        sendValidationEmail(receiverEmail, subject, text);
+        sendValidationEmail(receiverEmail, email.subject(), email.body());
     }
 
     /**
-     * Envia um e-mail de validação com um código gerado.
+     * Agenda o envio de um e-mail pela fila transacional.
      * <p>
-     * Este método gera um novo código de validação para o e-mail fornecido e o
-     * envia ao destinatário. A mensagem contém o código em formato HTML.
+     * O e-mail é gravado na transação atual e enviado em segundo plano após o commit, sem que a requisição aguarde
+     * o servidor SMTP. A mensagem contém o texto em formato HTML.
      *
-     * @param receiverEmail O e-mail do destinatário que receberá o código de validação.
-     * @throws InternalServerErrorException Se ocorrer um erro durante o envio do e-mail.
+     * @param receiverEmail O e-mail do destinatário.
+     * @param subject       Assunto do e-mail.
+     * @param text          Corpo do e-mail em HTML.
      */
     @Override
     public void sendValidationEmail(String receiverEmail, String subject, String text) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
-
-            helper.setFrom(senderEmail);
-            helper.setTo(receiverEmail);
-            helper.setSubject(subject);
-            helper.setText(text, true);
-
-            mailSender.send(message);
-        } catch (MessagingException e) {
-            throw new InternalServerErrorException("Erro durante o envio de e-mail");
-        }
+        emailOutbox.enqueue(receiverEmail, subject, text);
     }
 }
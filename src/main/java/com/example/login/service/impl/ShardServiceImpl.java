@@ -0,0 +1,58 @@
+package com.example.login.service.impl;
+
+import com.example.login.datasource.shard.ShardRebalancer;
+import com.example.login.exception.BadRequestException;
+import com.example.login.exception.InternalServerErrorException;
+import com.example.login.service.ShardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class ShardServiceImpl implements ShardService {
+
+    private final ObjectProvider<ShardRebalancer> shardRebalancer;
+
+    /**
+     * Prepara a adição de shards fixando no shard atual os buckets que mudarão de dono.
+     *
+     * @param shardCount Quantidade de shards da nova topologia.
+     * @return Os buckets fixados e o shard em que permanecem até o {@link #rebalance()}.
+     * @throws BadRequestException Caso o particionamento esteja desabilitado ou a quantidade seja menor que a atual.
+     */
+    @Override
+    public Map<Integer, String> plan(int shardCount) {
+        try {
+            return rebalancer().plan(shardCount);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    /**
+     * Move os buckets fixados para os shards definidos pela topologia em execução.
+     *
+     * @return A quantidade de usuários movidos por bucket.
+     * @throws BadRequestException Caso o particionamento esteja desabilitado.
+     */
+    @Override
+    public Map<Integer, Long> rebalance() {
+        try {
+            return rebalancer().rebalance();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InternalServerErrorException("Reparticionamento interrompido.");
+        }
+    }
+
+    private ShardRebalancer rebalancer() {
+        ShardRebalancer rebalancer = shardRebalancer.getIfAvailable();
+        if (rebalancer == null) {
+            throw new BadRequestException("O particionamento de usuários está desabilitado.");
+        }
+        return rebalancer;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.login.service.impl;
+
+import com.example.login.aspect.view.Views;
+import com.example.login.bulk.UserStatusUpdater;
+import com.example.login.datasource.shard.ShardContext;
+import com.example.login.datasource.shard.ShardRouter;
+import com.example.login.dto.request.UserFilter;
+import com.example.login.dto.request.UserStatusRequest;
+import com.example.login.dto.response.BulkJobStatus;
+import com.example.login.dto.response.UserImportReport;
+import com.example.login.exception.BadRequestException;
+import com.example.login.exception.InternalServerErrorException;
+import com.example.login.importer.UserImportReader;
+import com.example.login.importer.UserImporter;
+import com.example.login.model.User;
+import com.example.login.repository.UserCursor;
+import com.example.login.repository.UserListingRepository;
+import com.example.login.service.UserAdminService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+@Service
+@RequiredArgsConstructor
+public class UserAdminServiceImpl implements UserAdminService {
+
+    public static final int MAX_LIST_LIMIT = 10_000;
+
+    private final UserImporter userImporter;
+    private final UserListingRepository userListingRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final UserStatusUpdater userStatusUpdater;
+
+    /**
+     * Importa usuários em massa a partir de um arquivo CSV ou NDJSON lido em fluxo.
+     *
+     * @param input       Conteúdo do arquivo.
+     * @param contentType Tipo do conteúdo ({@code text/csv} ou {@code application/x-ndjson}).
+     * @param enabled     Se os usuários importados já ficam habilitados.
+     * @return O resumo da importação com os erros por linha.
+     * @throws BadRequestException Caso o formato não seja suportado ou o cabeçalho do CSV seja inválido.
+     */
+    @Override
+    public UserImportReport importUsers(InputStream input, String contentType, boolean enabled) {
+        UserImportReader.Format format = UserImportReader.Format.of(contentType);
+        try {
+            return userImporter.importUsers(input, format, enabled);
+        } catch (IOException e) {
+            throw new InternalServerErrorException("Falha ao ler o arquivo de importação.");
+        }
+    }
+
+    /**
+     * Lista os usuários que atendem ao filtro, em ordem de criação, com paginação por chave.
+     * <p>
+     * A resposta é escrita em fluxo à medida que as linhas são lidas do banco, no formato
+     * {@code {"users": [...], "next": "<cursor>"}}; {@code next} é nulo na última página. Com o particionamento
+     * habilitado, cada shard é consultado e os resultados são intercalados antes da escrita.
+     *
+     * @param filter Filtro aplicado.
+     * @param cursor Cursor {@code next} da página anterior, ou {@code null} para a primeira página.
+     * @param limit  Quantidade máxima de usuários na página.
+     * @param view   Nome da visualização JSON (basic, regular, details ou complete).
+     * @return O corpo da resposta, escrito em fluxo.
+     * @throws BadRequestException Caso o limite, a janela de criação ou o cursor sejam inválidos.
+     */
+    @Override
+    public StreamingResponseBody listUsers(UserFilter filter, String cursor, int limit, String view) {
+        if (limit < 1 || limit > MAX_LIST_LIMIT) {
+            throw new BadRequestException("O limite deve estar entre 1 e " + MAX_LIST_LIMIT + ".");
+        }
+        validateWindow(filter);
+
+        UserCursor after = cursor != null && !cursor.isBlank() ? UserCursor.decode(cursor) : null;
+        ObjectWriter writer = objectMapper.writerWithView(Views.resolve(view))
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        ShardRouter router = shardRouter.getIfAvailable();
+
+        return output -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("users");
+
+                Page page = new Page();
+                Consumer<User> write = user -> {
+                    try {
+                        writer.writeValue(generator, user);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    page.last = cursorOf(user);
+                    page.count++;
+                };
+                if (router == null) {
+                    userListingRepository.forEach(filter, after, limit, write);
+                } else {
+                    listShards(router, filter, after, limit).forEach(write);
+                }
+
+                generator.writeEndArray();
+                generator.writeStringField("next", page.count == limit ? page.last.encode() : null);
+                generator.writeEndObject();
+            }
+        };
+    }
+
+    /**
+     * Agenda a habilitação ou desabilitação em massa dos usuários informados por IDs ou por filtro.
+     * <p>
+     * A alteração é executada em segundo plano, em blocos; na desabilitação, os tokens dos usuários são revogados.
+     * O progresso pode ser consultado por {@link #findJob(String)}.
+     *
+     * @param request IDs ou filtro dos usuários e o novo status.
+     * @return O progresso inicial da operação.
+     * @throws BadRequestException Caso não seja informado exatamente um entre IDs e filtro, ou o filtro seja vazio.
+     */
+    @Override
+    public BulkJobStatus updateStatus(UserStatusRequest request) {
+        boolean hasIds = request.ids() != null && !request.ids().isEmpty();
+        if (hasIds == (request.filter() != null)) {
+            throw new BadRequestException("Informe os IDs ou o filtro dos usuários.");
+        }
+
+        if (hasIds) {
+            if (request.ids().stream().anyMatch(Objects::isNull)) {
+                throw new BadRequestException("Os IDs dos usuários não podem ser nulos.");
+            }
+            return userStatusUpdater.start(request.enabled(), request.ids());
+        }
+
+        UserFilter filter = request.filter();
+        if (filter.role() == null && filter.enabled() == null && filter.createdFrom() == null
+                && filter.createdTo() == null && (filter.emailPrefix() == null || filter.emailPrefix().isBlank())) {
+            throw new BadRequestException("O filtro deve ter ao menos um critério.");
+        }
+        validateWindow(filter);
+        return userStatusUpdater.start(request.enabled(), filter);
+    }
+
+    /**
+     * Obtém o progresso de uma operação em massa.
+     *
+     * @param jobId ID da operação.
+     * @return O progresso da operação.
+     * @throws BadRequestException Caso a operação não exista ou tenha expirado.
+     */
+    @Override
+    public BulkJobStatus findJob(String jobId) {
+        return userStatusUpdater.status(jobId)
+                .orElseThrow(() -> new BadRequestException("Operação não encontrada."));
+    }
+
+    private static void validateWindow(UserFilter filter) {
+        if (filter.createdFrom() != null && filter.createdTo() != null
+                && !filter.createdFrom().isBefore(filter.createdTo())) {
+            throw new BadRequestException("O início da janela de criação deve ser anterior ao fim.");
+        }
+    }
+
+    private List<User> listShards(ShardRouter router, UserFilter filter, UserCursor after, int limit) {
+        List<User> users = new ArrayList<>();
+        for (String shard : router.shards()) {
+            ShardContext.call(shard, () -> {
+                userListingRepository.forEach(filter, after, limit, users::add);
+                return null;
+            });
+        }
+        return users.stream()
+                .sorted(Comparator.comparing(UserAdminServiceImpl::cursorOf))
+                .limit(limit)
+                .toList();
+    }
+
+    private static UserCursor cursorOf(User user) {
+        return new UserCursor(user.getCreatedAt(), user.getId());
+    }
+
+    private static class Page {
+        private UserCursor last;
+        private int count;
+    }
+}
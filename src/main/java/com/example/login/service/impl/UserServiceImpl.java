@@ -1,6 +1,12 @@
 package com.example.login.service.impl;
 
+import com.example.login.archive.UserArchive;
+import com.example.login.aspect.view.Views;
+import com.example.login.cache.ProfileCache;
+import com.example.login.cache.RegisteredEmails;
+import com.example.login.cache.UserCache;
 import com.example.login.dto.request.UserRequest;
+import com.example.login.dto.response.UserProfile;
 import com.example.login.enums.Role;
 import com.example.login.exception.BadRequestException;
 import com.example.login.model.User;
@@ -9,10 +15,13 @@ import com.example.login.security.AuthAuditorAware;
 import com.example.login.service.EmailService;
 import com.example.login.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
@@ -21,9 +30,18 @@ public class UserServiceImpl implements UserService {
     private final PasswordEncoder passEncoder;
     private final EmailService emailService;
     private final AuthAuditorAware authAuditorAware;
+    private final ProfileCache profileCache;
+    private final UserCache userCache;
+    private final UserArchive userArchive;
+    private final RegisteredEmails registeredEmails;
 
     /**
      * Registra um novo usuário no sistema e envia um e-mail de validação.
+     * <p>
+     * Se o e-mail pertencer a um usuário arquivado, o usuário é restaurado e o cadastro é recusado como duplicado.
+     * Quando o filtro de e-mails cadastrados garante que o e-mail é novo, as consultas de existência são
+     * dispensadas e o índice único de {@code email} é a verificação final. A inclusão é enviada ao banco com
+     * {@code saveAndFlush}, que recebe o usuário e, com sharding, é roteada ao shard do e-mail.
      *
      * @param user Um objeto 'UserRequest' contendo as informações do novo usuário, como e-mail e senha.
      * @throws BadRequestException Se já existir um usuário com o mesmo e-mail cadastrado.
@@ -31,9 +49,13 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public void registerUser(UserRequest user) {
-        var existUser = userRepository.existsByEmail(user.email());
-        if (existUser) {
-            throw new BadRequestException("Usuário já existe!");
+        if (registeredEmails.mightContain(user.email())) {
+            var existUser = userRepository.existsByEmail(user.email())
+                    || userArchive.restore(user.email(), UserArchive.Trigger.REGISTRATION);
+            if (existUser) {
+                throw new BadRequestException("Usuário já existe!");
+            }
+            registeredEmails.falsePositive();
         }
 
         Role role = Role.getRole(user.role());
@@ -43,8 +65,14 @@ public class UserServiceImpl implements UserService {
         newUser.setPassword(passEncoder.encode(user.password()));
         newUser.setRole(role);
         newUser.setEnabled(user.isExperimental());
+        newUser.setVerifiedAt(user.isExperimental() ? LocalDateTime.now() : null);
 
-        userRepository.save(newUser);
+        try {
+            userRepository.saveAndFlush(newUser);
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException("Usuário já existe!");
+        }
+        registeredEmails.add(user.email());
 
         if (!user.isExperimental()) {
             emailService.sendRegisterEmail(user.email());
@@ -55,7 +83,36 @@ public class UserServiceImpl implements UserService {
     public User findUser() {
         var userId = authAuditorAware.getAuthUser().id();
 
-        return userRepository.findById(userId)
+        return findUser(userId);
+    }
+
+    /**
+     * Busca o perfil do usuário logado já serializado na visualização solicitada.
+     * <p>
+     * A versão (coluna {@code version} do usuário, que compõe o ETag) vem do cache de usuários, e o perfil é lido
+     * do cache de perfis; a serialização só é utilizada quando a versão atual ainda não foi renderizada. Se o
+     * cliente já possuir a versão atual ({@code If-None-Match}), nem o cache de conteúdo é consultado.
+     *
+     * @param view        Nome da visualização (basic, regular, details ou complete).
+     * @param ifNoneMatch Valor do cabeçalho {@code If-None-Match}, ou {@code null}.
+     * @return O perfil com seu ETag, sem corpo quando o cliente já possui a versão atual.
+     */
+    @Override
+    public UserProfile findProfile(String view, String ifNoneMatch) {
+        var userId = authAuditorAware.getAuthUser().id();
+        Class<?> viewClass = Views.resolve(view);
+
+        User user = findUser(userId);
+        String eTag = ProfileCache.eTag(userId, viewClass, user.getVersion());
+        if (ProfileCache.matches(ifNoneMatch, eTag)) {
+            return new UserProfile(eTag, null);
+        }
+
+        return new UserProfile(eTag, profileCache.get(user, viewClass));
+    }
+
+    private User findUser(Long userId) {
+        return userCache.findById(userId)
                 .orElseThrow(() -> new BadRequestException("Usuário inexistente!"));
     }
 
@@ -0,0 +1,30 @@
+package com.example.login.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Executa ações somente após o commit da transação atual, ou imediatamente quando não há transação ativa.
+ * <p>
+ * Usado na invalidação de caches: invalidar antes do commit permitiria que um leitor concorrente recarregasse
+ * o estado antigo do banco e o guardasse novamente.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.login.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de Bloom de strings, seguro para inserções e consultas concorrentes sem bloqueio.
+ * <p>
+ * Uma resposta negativa de {@link #mightContain(String)} é definitiva; uma positiva pode ser falsa, com
+ * probabilidade estimada por {@link #expectedFpp()}. Usa hashing duplo (Kirsch-Mitzenmacher) de 64 bits a partir
+ * de um hash do valor em UTF-8; as posições são reduzidas sem sinal ao tamanho do filtro, de modo que todos os bits
+ * são alcançáveis mesmo acima de 2<sup>31</sup>.
+ */
+public final class BloomFilter {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final LongAdder bitsSet = new LongAdder();
+
+    private BloomFilter(long bitCount, int hashCount) {
+        this.words = new AtomicLongArray(Math.toIntExact((bitCount + 63) / 64));
+        this.bitCount = (long) words.length() * 64;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Cria um filtro dimensionado para a quantidade esperada de valores e a taxa de falsos positivos desejada.
+     */
+    public static BloomFilter create(long expectedInsertions, double fpp) {
+        if (expectedInsertions < 1 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("Dimensionamento inválido do filtro de Bloom");
+        }
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+        return new BloomFilter(bits, hashes);
+    }
+
+    public void put(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 + GOLDEN_GAMMA);
+        for (int i = 1; i <= hashCount; i++) {
+            set(index(h1 + i * h2));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 + GOLDEN_GAMMA);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Probabilidade atual de falso positivo, estimada pela fração de bits ligados.
+     */
+    public double expectedFpp() {
+        return Math.pow((double) bitsSet.sum() / bitCount, hashCount);
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    private long index(long combined) {
+        return Long.remainderUnsigned(combined, bitCount);
+    }
+
+    private void set(long bit) {
+        int word = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long current;
+        do {
+            current = words.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(word, current, current | mask));
+        bitsSet.increment();
+    }
+
+    /** FNV-1a de 64 bits seguido da finalização do SplitMix64, para espalhar os bits. */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /** Finalização do SplitMix64. */
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
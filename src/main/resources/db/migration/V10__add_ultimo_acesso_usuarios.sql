@@ -0,0 +1,3 @@
+-- Último acesso autenticado, gravado em lotes pelo LastSeenTracker (sem alterar updated_at nem version).
+ALTER TABLE tb_users ADD COLUMN last_seen_at TIMESTAMP NULL;
+ALTER TABLE tb_users_archive ADD COLUMN last_seen_at TIMESTAMP NULL;
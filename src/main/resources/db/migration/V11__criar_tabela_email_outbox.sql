@@ -0,0 +1,15 @@
+-- Fila transacional (outbox) dos e-mails: gravada na mesma transação da operação que gera o e-mail
+-- e enviada em segundo plano pelo EmailDispatcher. Os e-mails enviados são removidos.
+CREATE TABLE tb_email_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    recipient VARCHAR(150) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(10) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    last_error VARCHAR(500) NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_email_outbox_pending ON tb_email_outbox (status, next_attempt_at);
@@ -0,0 +1,11 @@
+-- Primeira habilitação do usuário (validação do e-mail, cadastro experimental, importação ou habilitação
+-- administrativa); nula enquanto o cadastro nunca foi validado. Distingue os cadastros não validados dos usuários
+-- desabilitados por um administrador no arquivamento.
+ALTER TABLE tb_users ADD COLUMN verified_at TIMESTAMP NULL;
+ALTER TABLE tb_users_archive ADD COLUMN verified_at TIMESTAMP NULL;
+
+-- Usuários já habilitados, com acesso registrado ou com troca de senha foram validados em algum momento.
+UPDATE tb_users SET verified_at = COALESCE(last_seen_at, updated_at, created_at), updated_at = updated_at
+WHERE enabled = true OR last_seen_at IS NOT NULL OR last_alter_pass IS NOT NULL;
+UPDATE tb_users_archive SET verified_at = COALESCE(last_seen_at, updated_at, created_at)
+WHERE enabled = true OR last_seen_at IS NOT NULL OR last_alter_pass IS NOT NULL;
@@ -0,0 +1,5 @@
+-- Os e-mails com falha definitiva não guardam mais o corpo (códigos de validação) e são removidos após
+-- email.outbox.failed-retention; o índice atende a essa limpeza e à expiração dos pendentes.
+UPDATE tb_email_outbox SET body = '' WHERE status = 'FAILED';
+
+CREATE INDEX idx_email_outbox_created ON tb_email_outbox (status, created_at);
@@ -0,0 +1,3 @@
+-- Índice de cobertura para a projeção UserPrincipal (email -> id, role, enabled).
+-- O InnoDB inclui a chave primária (id) em todo índice secundário.
+CREATE INDEX idx_users_email_principal ON tb_users (email, role, enabled);
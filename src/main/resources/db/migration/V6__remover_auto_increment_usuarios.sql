@@ -0,0 +1,2 @@
+-- Os IDs dos usuários passam a ser gerados pela aplicação (ver UserIds), permitindo inserções em lote via JDBC.
+ALTER TABLE tb_users MODIFY id BIGINT NOT NULL;
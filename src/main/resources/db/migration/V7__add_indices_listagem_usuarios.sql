@@ -0,0 +1,5 @@
+-- Índices da listagem administrativa de usuários, paginada por (created_at, id).
+-- O InnoDB inclui a chave primária (id) em todo índice secundário, completando a ordenação.
+CREATE INDEX idx_users_created ON tb_users (created_at);
+CREATE INDEX idx_users_enabled_created ON tb_users (enabled, created_at);
+CREATE INDEX idx_users_role_enabled_created ON tb_users (role, enabled, created_at);
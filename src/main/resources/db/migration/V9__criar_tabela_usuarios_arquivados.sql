@@ -0,0 +1,16 @@
+-- Usuários inativos ou nunca validados, movidos de tb_users pela tarefa de arquivamento
+-- e restaurados no próximo login ou tentativa de cadastro.
+CREATE TABLE tb_users_archive (
+    id BIGINT NOT NULL PRIMARY KEY,
+    username VARCHAR(100) NOT NULL,
+    email VARCHAR(150) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    last_password VARCHAR(255) NULL,
+    last_alter_pass TIMESTAMP NULL,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    enabled BOOLEAN NOT NULL,
+    role VARCHAR(255),
+    version BIGINT NOT NULL DEFAULT 0,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,158 @@
+package com.example.login.benchmark;
+
+import com.example.login.model.id.UserIds;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compara inserções por segundo em {@code tb_users} com IDs gerados pelo banco e pela aplicação.
+ * <p>
+ * {@code strategy=identity} reproduz o comportamento do Hibernate com {@code GenerationType.IDENTITY}: um INSERT por
+ * linha, lendo a chave gerada. {@code strategy=global} usa {@link UserIds} e envia as linhas em lotes JDBC, como o
+ * Hibernate faz com {@code hibernate.jdbc.batch_size}.
+ * <p>
+ * Requer um MySQL acessível; as tabelas temporárias são criadas no banco informado por {@code -Dbenchmark.jdbc.url}
+ * (padrão: {@code db_login_bench} em localhost, usuário e senha {@code login}). Execução: {@code mvn test-compile
+ * exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.login.benchmark.UserInsertBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UserInsertBenchmark {
+
+    private static final int ROWS = 500;
+    private static final int BATCH_SIZE = 50;
+
+    @Param({"identity", "global"})
+    private String strategy;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private Connection connection;
+
+    @Setup
+    public void setUp() throws SQLException {
+        String url = System.getProperty("benchmark.jdbc.url",
+                "jdbc:mysql://localhost/db_login_bench?createDatabaseIfNotExist=true&serverTimezone=UTC"
+                        + "&rewriteBatchedStatements=true");
+        connection = DriverManager.getConnection(url,
+                System.getProperty("benchmark.jdbc.username", "login"),
+                System.getProperty("benchmark.jdbc.password", "login"));
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_users");
+            statement.execute("CREATE TABLE bench_users (" +
+                    "id BIGINT " + (strategy.equals("identity") ? "AUTO_INCREMENT" : "NOT NULL") + " PRIMARY KEY, " +
+                    "username VARCHAR(100) NOT NULL, " +
+                    "email VARCHAR(150) NOT NULL UNIQUE, " +
+                    "password VARCHAR(255) NOT NULL, " +
+                    "enabled BOOLEAN, " +
+                    "role VARCHAR(255), " +
+                    "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE bench_users");
+        }
+        connection.commit();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE bench_users");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long insert() throws SQLException {
+        return strategy.equals("identity") ? insertIdentity() : insertBatched();
+    }
+
+    private long insertIdentity() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO bench_users (username, email, password, enabled, role) VALUES (?, ?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ROWS; i++) {
+                String email = nextEmail();
+                bind(statement, 1, email);
+                statement.executeUpdate();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    keys.next();
+                    lastId = keys.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    private long insertBatched() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO bench_users (id, username, email, password, enabled, role) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                String email = nextEmail();
+                lastId = UserIds.next(UserIds.bucketOf(email));
+                statement.setLong(1, lastId);
+                bind(statement, 2, email);
+                statement.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    private String nextEmail() {
+        return "bench" + sequence.incrementAndGet() + "@email.com";
+    }
+
+    private static void bind(PreparedStatement statement, int index, String email) throws SQLException {
+        statement.setString(index, email);
+        statement.setString(index + 1, email);
+        statement.setString(index + 2, "$2a$10$abcdefghijklmnopqrstuuQ0B6o9w7b5mJj3t6aU6Xl3Ck0s9pFa");
+        statement.setBoolean(index + 3, true);
+        statement.setString(index + 4, "USER");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UserInsertBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.login.benchmark;
+
+import com.example.login.aspect.view.JsonViewHttpMessageConverter;
+import com.example.login.aspect.view.Views;
+import com.example.login.cache.ProfileCache;
+import com.example.login.controller.UserController;
+import com.example.login.factory.UserFactory;
+import com.example.login.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a produção do corpo de {@link UserController#findUser} em cada nível de visualização.
+ * <p>
+ * {@code mode=default} serializa com o conversor padrão do Spring sem Blackbird; {@code mode=cached} usa o
+ * conversor com writers por visualização e o módulo Blackbird; {@code mode=profile} lê o perfil já serializado
+ * da memória local do {@link ProfileCache}, como ocorre a partir da segunda requisição da mesma versão.
+ * <p>
+ * Execução: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.login.benchmark.UserViewBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserViewBenchmark {
+
+    @Param({"basic", "regular", "details", "complete"})
+    private String view;
+
+    @Param({"default", "cached", "profile"})
+    private String mode;
+
+    private User user;
+    private Class<?> viewClass;
+    private MappingJackson2HttpMessageConverter messageConverter;
+    private ProfileCache profileCache;
+
+    @Setup
+    public void setUp() {
+        user = UserFactory.createUser(1L);
+        viewClass = Views.resolve(view);
+
+        ObjectMapper blackbirdMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build();
+        messageConverter = mode.equals("default")
+                ? new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build())
+                : new JsonViewHttpMessageConverter(blackbirdMapper);
+
+        StringRedisTemplate redisTemplate = Mockito.mock(StringRedisTemplate.class, Mockito.RETURNS_DEEP_STUBS);
+        profileCache = new ProfileCache(redisTemplate, blackbirdMapper, Duration.ofHours(1), 100);
+    }
+
+    @Benchmark
+    public byte[] findUser() throws IOException {
+        if (mode.equals("profile")) {
+            return profileCache.get(user, viewClass);
+        }
+
+        var body = new MappingJacksonValue(user);
+        body.setSerializationView(viewClass);
+
+        var output = new MockHttpOutputMessage();
+        messageConverter.write(body, null, MediaType.APPLICATION_JSON, output);
+        return output.getBodyAsBytes();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UserViewBenchmark.class.getSimpleName()).build()).run();
+    }
+}
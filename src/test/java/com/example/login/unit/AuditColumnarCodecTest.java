@@ -0,0 +1,56 @@
+package com.example.login.unit;
+
+import com.example.login.audit.archive.AuditColumnarCodec;
+import com.example.login.enums.Role;
+import com.example.login.model.collection.AuditLog;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuditColumnarCodecTest {
+
+    @Test
+    @DisplayName("Deve gravar e ler registros no formato colunar preservando todos os campos")
+    public void testWriteRead_RoundTrip() throws IOException {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 10, 8, 30, 15, 123_000_000);
+        AuditLog first = AuditLog.builder()
+                .id("a1").level("INFO").className("UserController").methodName("findUser")
+                .details("Iniciando método").parameters("[]").userId(7L).userRole(Role.ADMIN).ip("127.0.0.1")
+                .startTime(start).endTime(start.plusNanos(5_000_000)).timeExecution(5L)
+                .build();
+        AuditLog second = AuditLog.builder()
+                .id("a2").level("ERROR").className("UserController").methodName("findUser")
+                .details("Falha ção").exception("stack").startTime(start.minusSeconds(10))
+                .build();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AuditColumnarCodec.write(List.of(first, second), out);
+
+        List<AuditLog> read = AuditColumnarCodec.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(List.of(first, second), read);
+    }
+
+    @Test
+    @DisplayName("Deve expor no cabeçalho o intervalo de startTime do arquivo")
+    public void testReadHeader_Range() throws IOException {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 10, 0, 0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AuditColumnarCodec.write(List.of(
+                AuditLog.builder().id("1").startTime(start).build(),
+                AuditLog.builder().id("2").startTime(start.plusHours(5)).build()), out);
+
+        var header = AuditColumnarCodec.readHeader(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(2, header.rowCount());
+        assertTrue(header.overlaps(start.plusHours(1), start.plusHours(2)));
+        assertFalse(header.overlaps(start.plusHours(6), start.plusHours(7)));
+    }
+}
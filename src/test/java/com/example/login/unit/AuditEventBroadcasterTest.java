@@ -0,0 +1,122 @@
+package com.example.login.unit;
+
+import com.example.login.audit.stream.AuditEventBroadcaster;
+import com.example.login.audit.stream.AuditStreamFilter;
+import com.example.login.audit.stream.AuditStreamSender;
+import com.example.login.exception.BadRequestException;
+import com.example.login.model.collection.AuditLog;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuditEventBroadcasterTest {
+
+    @Test
+    @DisplayName("Deve entregar ao assinante apenas os eventos que atendem ao filtro")
+    public void testSubscribe_Filter() throws InterruptedException {
+        var broadcaster = new AuditEventBroadcaster(16, 2, Duration.ofMillis(1), Duration.ofMinutes(1));
+        var sender = new RecordingSender(2);
+        var subscription = broadcaster.subscribe(new AuditStreamFilter("error", null, null), sender);
+
+        broadcaster.onAudit(AuditLog.builder().id("1").level("INFO").build());
+        broadcaster.onAudit(AuditLog.builder().id("2").level("ERROR").build());
+        broadcaster.onAudit(AuditLog.builder().id("3").level("ERROR").build());
+
+        assertTrue(sender.latch.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("2", "3"), sender.received.stream().map(AuditLog::getId).toList());
+        subscription.cancel();
+        assertTrue(sender.closed);
+    }
+
+    @Test
+    @DisplayName("Deve descartar eventos sobrescritos quando o assinante é lento")
+    public void testSubscribe_SlowConsumer_Drops() throws InterruptedException {
+        var broadcaster = new AuditEventBroadcaster(4, 2, Duration.ofMillis(1), Duration.ofMinutes(1));
+        var release = new CountDownLatch(1);
+        var sender = new RecordingSender(1) {
+            @Override
+            public void send(AuditLog auditLog) {
+                awaitQuietly(release);
+                super.send(auditLog);
+            }
+        };
+        var subscription = broadcaster.subscribe(new AuditStreamFilter(null, null, null), sender);
+
+        broadcaster.onAudit(AuditLog.builder().id("0").build());
+        Thread.sleep(50); // O assinante fica bloqueado no envio do primeiro evento.
+        for (int i = 1; i <= 20; i++) {
+            broadcaster.onAudit(AuditLog.builder().id(String.valueOf(i)).build());
+        }
+        release.countDown();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (sender.received.size() < 5 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(5, sender.received.size());
+        assertEquals("20", sender.received.get(4).getId());
+        assertEquals(16, subscription.dropped());
+        assertEquals(16, sender.dropped.get());
+        subscription.cancel();
+    }
+
+    @Test
+    @DisplayName("Deve recusar assinantes além do limite configurado")
+    public void testSubscribe_Limit() {
+        var broadcaster = new AuditEventBroadcaster(16, 1, Duration.ofMillis(1), Duration.ofMinutes(1));
+        var subscription = broadcaster.subscribe(new AuditStreamFilter(null, null, null), new RecordingSender(0));
+
+        assertThrows(BadRequestException.class,
+                () -> broadcaster.subscribe(new AuditStreamFilter(null, null, null), new RecordingSender(0)));
+        subscription.cancel();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class RecordingSender implements AuditStreamSender {
+
+        final List<AuditLog> received = new CopyOnWriteArrayList<>();
+        final AtomicLong dropped = new AtomicLong();
+        final CountDownLatch latch;
+        volatile boolean closed;
+
+        RecordingSender(int expected) {
+            this.latch = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void send(AuditLog auditLog) {
+            received.add(auditLog);
+            latch.countDown();
+        }
+
+        @Override
+        public void dropped(long count) {
+            dropped.addAndGet(count);
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.login.unit;
+
+import com.example.login.audit.search.AuditSearchIndex;
+import com.example.login.exception.BadRequestException;
+import com.example.login.model.collection.AuditLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.LockObtainFailedException;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuditSearchIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 10, 12, 0);
+
+    @TempDir
+    private Path directory;
+
+    private AuditSearchIndex index;
+
+    @BeforeEach
+    public void setUp() throws InterruptedException {
+        index = new AuditSearchIndex(directory, 30, 100, Duration.ofMillis(20), Duration.ofMillis(100));
+        index.start();
+
+        index.onAudit(log("1", "ERROR", "login", 1L, "Connection timeout ao acessar o Redis", NOW.minusDays(1)));
+        index.onAudit(log("2", "INFO", "login", 2L, "Login realizado com sucesso", NOW));
+        index.onAudit(log("3", "WARN", "registerUser", 1L, "Email já cadastrado", NOW.plusMinutes(1)));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (index.search(null, NOW.minusDays(2), NOW.plusDays(1), 10).size() < 3
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        index.stop();
+    }
+
+    @Test
+    @DisplayName("Deve buscar por termos e campos em vários dias, do mais recente para o mais antigo")
+    public void testSearch_Success() {
+        List<AuditLog> byUser = index.search("userId:1", NOW.minusDays(2), NOW.plusDays(1), 10);
+        assertEquals(List.of("3", "1"), byUser.stream().map(AuditLog::getId).toList());
+
+        List<AuditLog> byText = index.search("timeout AND level:ERROR", NOW.minusDays(2), NOW.plusDays(1), 10);
+        assertEquals(1, byText.size());
+        assertEquals("login", byText.get(0).getMethodName());
+        assertEquals(NOW.minusDays(1), byText.get(0).getStartTime());
+    }
+
+    @Test
+    @DisplayName("Deve restringir a busca ao intervalo informado")
+    public void testSearch_Range() {
+        List<AuditLog> result = index.search("methodName:login", NOW.minusHours(1), NOW.plusHours(1), 10);
+
+        assertEquals(1, result.size());
+        assertEquals("2", result.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Deve lançar BadRequestException para consulta inválida")
+    public void testSearch_InvalidQuery() {
+        assertThrows(BadRequestException.class, () -> index.search("level:(ERROR", NOW.minusDays(1), NOW, 10));
+    }
+
+    @Test
+    @DisplayName("Deve fechar o escritor de um dia passado após o período de inatividade, mantendo-o pesquisável")
+    public void testWriter_ClosedWhenIdle() throws Exception {
+        Path day = directory.resolve(NOW.minusDays(1).toLocalDate().toString());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!writerReleased(day) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertTrue(writerReleased(day));
+        assertEquals(1, index.search("timeout", NOW.minusDays(2), NOW.minusHours(1), 10).size());
+    }
+
+    @Test
+    @DisplayName("Deve manter as buscas funcionando enquanto um dia é reaberto para escrita")
+    public void testSearch_DuringReopen() throws Exception {
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CompletableFuture<Void> searches = CompletableFuture.runAsync(() -> {
+            while (writing.get()) {
+                index.search(null, NOW.minusDays(2), NOW.plusDays(1), 100);
+            }
+        });
+
+        for (int i = 0; i < 20; i++) {
+            index.onAudit(log("late-" + i, "INFO", "login", 3L, "Registro atrasado", NOW.minusDays(1).plusMinutes(i)));
+            Thread.sleep(150);
+        }
+        writing.set(false);
+        searches.get();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (index.search("userId:3", NOW.minusDays(2), NOW, 100).size() < 20
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(20, index.search("userId:3", NOW.minusDays(2), NOW, 100).size());
+    }
+
+    private static boolean writerReleased(Path day) throws IOException {
+        try (Directory dir = FSDirectory.open(day);
+             IndexWriter ignored = new IndexWriter(dir, new IndexWriterConfig(new StandardAnalyzer()))) {
+            return true;
+        } catch (LockObtainFailedException e) {
+            return false;
+        }
+    }
+
+    private static AuditLog log(String id, String level, String method, Long userId, String details, LocalDateTime start) {
+        return AuditLog.builder()
+                .id(id)
+                .level(level)
+                .methodName(method)
+                .userId(userId)
+                .details(details)
+                .startTime(start)
+                .build();
+    }
+}
@@ -1,11 +1,21 @@
 package com.example.login.unit;
 
+import com.example.login.archive.UserArchive;
 import com.example.login.cache.TokenCache;
+import com.example.login.cache.UserCache;
+import com.example.login.cache.VerificationCodeStore;
+import com.example.login.dto.request.AlterPassRequest;
+import com.example.login.dto.request.AuthUser;
 import com.example.login.dto.response.TokenData;
 import com.example.login.dto.response.TokenResponse;
+import com.example.login.enums.Role;
+import com.example.login.exception.BadRequestException;
+import com.example.login.exception.ConflictException;
 import com.example.login.factory.UserFactory;
 import com.example.login.model.User;
+import com.example.login.model.projection.PasswordState;
 import com.example.login.repository.UserRepository;
+import com.example.login.security.AuthAuditorAware;
 import com.example.login.security.TokenService;
 import com.example.login.service.impl.AuthenticationServiceImpl;
 import org.junit.jupiter.api.DisplayName;
@@ -18,6 +28,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 import static com.example.login.factory.UserFactory.EMAIL;
 import static com.example.login.factory.UserFactory.ENCODE_PASS;
@@ -40,6 +51,21 @@ public class AuthenticationServiceTest {
     @Mock
     private TokenCache tokenCache;
 
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private PasswordEncoder passEncoder;
+
+    @Mock
+    private AuthAuditorAware authAuditorAware;
+
+    @Mock
+    private VerificationCodeStore verificationCodeStore;
+
+    @Mock
+    private UserArchive userArchive;
+
     @InjectMocks
     private AuthenticationServiceImpl authenticationService;
 
@@ -47,7 +73,7 @@ public class AuthenticationServiceTest {
     @DisplayName("Deve carregar usuário com sucesso")
     public void testLoadUserByUsername_Success() {
         User user = UserFactory.createUser(1L);
-        when(userRepository.findByEmail(EMAIL)).thenReturn(user);
+        when(userCache.findByEmailWithPassword(EMAIL)).thenReturn(user);
 
         UserDetails userDetails = authenticationService.loadUserByUsername(EMAIL);
 
@@ -59,7 +85,7 @@ public class AuthenticationServiceTest {
     @Test
     @DisplayName("Deve lançar UsernameNotFoundException ao tentar carregar usuário")
     public void testLoadUserByUsername_Error() {
-        when(userRepository.findByEmail(EMAIL)).thenReturn(null);
+        when(userCache.findByEmailWithPassword(EMAIL)).thenReturn(null);
 
         assertThrows(UsernameNotFoundException.class, () -> authenticationService.loadUserByUsername(EMAIL));
     }
@@ -113,7 +139,7 @@ public class AuthenticationServiceTest {
 
         when(tokenCache.isTokenInvalidated(refreshTokenRequest)).thenReturn(false);
         when(tokenService.getSubject(refreshTokenRequest, "refreshToken")).thenReturn(user.getUsername());
-        when(userRepository.findByEmail(user.getEmail())).thenReturn(user);
+        when(userCache.findByEmail(user.getEmail())).thenReturn(user);
         when(tokenService.generateToken(user, "accessToken")).thenReturn(newAccessToken);
         when(tokenService.generateToken(user, "refreshToken")).thenReturn(newRefreshToken);
 
@@ -145,9 +171,51 @@ public class AuthenticationServiceTest {
 
         when(tokenCache.isTokenInvalidated(validRefreshToken)).thenReturn(false);
         when(tokenService.getSubject(validRefreshToken, "refreshToken")).thenReturn(user.getUsername());
-        when(userRepository.findByEmail(EMAIL)).thenReturn(null);
+        when(userCache.findByEmail(EMAIL)).thenReturn(null);
 
         assertThrows(UsernameNotFoundException.class,
                 () -> authenticationService.refreshToken(validRefreshToken));
     }
+
+    @Test
+    @DisplayName("Deve detectar redefinição de senha concorrente pela versão do usuário")
+    public void testResetPassword_Conflict() {
+        when(authAuditorAware.getAuthUser()).thenReturn(new AuthUser(1L, EMAIL, Role.USER));
+        when(userRepository.findPasswordStateByEmail(EMAIL))
+                .thenReturn(new PasswordState(1L, 3L, EMAIL, ENCODE_PASS, null));
+        when(passEncoder.encode("NovaSenha@123")).thenReturn("encoded");
+        when(userRepository.updatePassword(eq(1L), eq(3L), eq("encoded"), any())).thenReturn(0);
+
+        assertThrows(ConflictException.class,
+                () -> authenticationService.resetPassword(new AlterPassRequest("token123456", "NovaSenha@123")));
+        verify(userRepository, never()).save(any());
+        verifyNoInteractions(userCache);
+    }
+
+    @Test
+    @DisplayName("Não deve alterar a senha quando o código de verificação for recusado")
+    public void testResetPassword_InvalidCode() {
+        when(authAuditorAware.getAuthUser()).thenReturn(new AuthUser(1L, EMAIL, Role.USER));
+        when(userRepository.findPasswordStateByEmail(EMAIL))
+                .thenReturn(new PasswordState(1L, 3L, EMAIL, ENCODE_PASS, null));
+        doThrow(new BadRequestException("Tentativas esgotadas; solicite um novo código de validação."))
+                .when(verificationCodeStore).consume(VerificationCodeStore.Purpose.PASSWORD_RESET, EMAIL, "123456");
+
+        assertThrows(BadRequestException.class,
+                () -> authenticationService.resetPassword(new AlterPassRequest("token123456", "NovaSenha@123")));
+        verify(userRepository, never()).updatePassword(anyLong(), anyLong(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve restaurar o usuário arquivado ao tentar autenticar")
+    public void testLoadUserByUsername_RestoresArchived() {
+        User user = UserFactory.createUser(1L);
+        when(userCache.findByEmailWithPassword(EMAIL)).thenReturn(null, user);
+        when(userArchive.restore(EMAIL, UserArchive.Trigger.LOGIN)).thenReturn(true);
+
+        UserDetails userDetails = authenticationService.loadUserByUsername(EMAIL);
+
+        assertEquals(EMAIL, userDetails.getUsername());
+        verify(userCache, times(2)).findByEmailWithPassword(EMAIL);
+    }
 }
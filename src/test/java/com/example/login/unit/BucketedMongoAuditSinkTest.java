@@ -0,0 +1,127 @@
+package com.example.login.unit;
+
+import com.example.login.audit.sink.BucketedMongoAuditSink;
+import com.example.login.model.collection.AuditBucket;
+import com.example.login.model.collection.AuditLog;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BucketedMongoAuditSinkTest {
+
+    private static final LocalDateTime HOUR = LocalDateTime.of(2024, 5, 10, 14, 0);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations indexOps;
+
+    private BucketedMongoAuditSink sink;
+
+    @BeforeEach
+    public void setUp() {
+        when(mongoTemplate.indexOps(AuditBucket.class)).thenReturn(indexOps);
+        when(indexOps.getIndexInfo()).thenReturn(List.of());
+        sink = new BucketedMongoAuditSink(mongoTemplate, 200, 16);
+    }
+
+    @Test
+    @DisplayName("Deve criar o índice único parcial dos buckets abertos")
+    public void testConstructor_CreatesUniqueOpenIndex() {
+        ArgumentCaptor<IndexDefinition> indexes = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(indexOps, times(3)).ensureIndex(indexes.capture());
+
+        IndexDefinition open = indexes.getAllValues().get(2);
+        assertEquals("shardKey_open", open.getIndexOptions().getString("name"));
+        assertTrue(open.getIndexOptions().getBoolean("unique"));
+        assertTrue(open.getIndexOptions().containsKey("partialFilterExpression"));
+    }
+
+    @Test
+    @DisplayName("Deve recriar o índice dos buckets abertos quando o limite de eventos mudar")
+    public void testConstructor_RecreatesOpenIndexOnNewLimit() {
+        when(indexOps.getIndexInfo()).thenReturn(List.of(openIndex(200)));
+        new BucketedMongoAuditSink(mongoTemplate, 200, 16);
+        verify(indexOps, never()).dropIndex("shardKey_open");
+
+        when(indexOps.getIndexInfo()).thenReturn(List.of(openIndex(200)));
+        new BucketedMongoAuditSink(mongoTemplate, 20, 16);
+        verify(indexOps).dropIndex("shardKey_open");
+    }
+
+    @Test
+    @DisplayName("Deve distribuir os eventos anônimos entre várias chaves, de forma estável por IP")
+    public void testShardKey_SpreadsAnonymousByIp() {
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            keys.add(BucketedMongoAuditSink.shardKey(null, "10.0.0." + i, HOUR, 16));
+        }
+
+        assertTrue(keys.size() > 1);
+        assertTrue(keys.size() <= 16);
+        assertTrue(keys.stream().allMatch(key -> key.matches("anonymous-\\d+:2024051014")));
+        assertEquals(BucketedMongoAuditSink.shardKey(null, "10.0.0.1", HOUR, 16),
+                BucketedMongoAuditSink.shardKey(null, "10.0.0.1", HOUR, 16));
+        assertEquals("42:2024051014", BucketedMongoAuditSink.shardKey(42L, "10.0.0.1", HOUR, 16));
+    }
+
+    @Test
+    @DisplayName("Deve repetir o upsert quando outro nó criou o bucket aberto ao mesmo tempo")
+    public void testWrite_RetriesOnDuplicateKey() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(AuditBucket.class)))
+                .thenThrow(new DuplicateKeyException("shardKey_open"))
+                .thenReturn(null);
+
+        sink.write(auditLog(7L));
+
+        verify(mongoTemplate, times(2)).upsert(any(Query.class), any(Update.class), eq(AuditBucket.class));
+    }
+
+    @Test
+    @DisplayName("Deve propagar o erro de chave duplicada após esgotar as tentativas")
+    public void testWrite_GivesUpAfterRetries() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(AuditBucket.class)))
+                .thenThrow(new DuplicateKeyException("shardKey_open"));
+
+        assertThrows(DuplicateKeyException.class, () -> sink.write(auditLog(7L)));
+        verify(mongoTemplate, times(3)).upsert(any(Query.class), any(Update.class), eq(AuditBucket.class));
+    }
+
+    private AuditLog auditLog(Long userId) {
+        return AuditLog.builder()
+                .userId(userId)
+                .ip("10.0.0.1")
+                .startTime(HOUR.plusMinutes(5))
+                .build();
+    }
+
+    private static IndexInfo openIndex(int maxEvents) {
+        return IndexInfo.indexInfoOf(new Document("name", "shardKey_open")
+                .append("key", new Document("shardKey", 1))
+                .append("unique", true)
+                .append("partialFilterExpression", new Document("count", new Document("$lt", maxEvents))));
+    }
+}
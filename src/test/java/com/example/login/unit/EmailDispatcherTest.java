@@ -0,0 +1,138 @@
+package com.example.login.unit;
+
+import com.example.login.datasource.shard.ShardRouter;
+import com.example.login.mail.EmailDispatcher;
+import com.example.login.mail.MailDelivery;
+import com.example.login.mail.OutboxEmail;
+import com.example.login.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mail.MailSendException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailDispatcherTest {
+
+    @Mock
+    private EmailOutboxRepository outboxRepository;
+
+    @Mock
+    private MailDelivery mailDelivery;
+
+    @Mock
+    private MailDelivery.Batch batch;
+
+    @Mock
+    private ObjectProvider<ShardRouter> shardRouter;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private EmailDispatcher dispatcher;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new EmailDispatcher(outboxRepository, mailDelivery, shardRouter, meterRegistry,
+                1, 20, Duration.ofSeconds(1), Duration.ofMinutes(2), 3, Duration.ofSeconds(5), Duration.ofSeconds(12),
+                Duration.ofMinutes(10), Duration.ofDays(7));
+    }
+
+    @Test
+    @DisplayName("Deve remover da fila o e-mail enviado com sucesso")
+    public void testDispatch_Success() throws Exception {
+        OutboxEmail email = new OutboxEmail(1L, "user@example.com", "Assunto", "Corpo", 0, Instant.now());
+        when(outboxRepository.claim(eq(20), any(), eq(Duration.ofMinutes(10)))).thenReturn(List.of(email));
+        when(mailDelivery.open()).thenReturn(batch);
+
+        assertEquals(1, dispatcher.dispatch());
+
+        verify(batch).send(email);
+        verify(batch).close();
+        verify(outboxRepository).delete(1L);
+        verify(outboxRepository, never()).retry(anyLong(), anyInt(), any(), any());
+        assertEquals(1.0, meterRegistry.get("email.outbox.deliveries").tag("outcome", "sent").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve reagendar o e-mail com espera exponencial quando o envio falhar")
+    public void testDispatch_Retry() throws Exception {
+        OutboxEmail email = new OutboxEmail(1L, "user@example.com", "Assunto", "Corpo", 1, Instant.now());
+        when(outboxRepository.claim(eq(20), any(), eq(Duration.ofMinutes(10)))).thenReturn(List.of(email));
+        when(mailDelivery.open()).thenReturn(batch);
+        doThrow(new MailSendException("SMTP indisponível")).when(batch).send(email);
+
+        Instant before = Instant.now();
+        dispatcher.dispatch();
+
+        verify(outboxRepository).retry(eq(1L), eq(2), argThat(next ->
+                !next.isBefore(before.plusSeconds(9)) && !next.isAfter(Instant.now().plusSeconds(10))),
+                eq("SMTP indisponível"));
+        verify(outboxRepository, never()).delete(anyLong());
+        verify(outboxRepository, never()).fail(anyLong(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Deve marcar o e-mail como FAILED ao atingir o limite de tentativas")
+    public void testDispatch_Fail() throws Exception {
+        OutboxEmail email = new OutboxEmail(1L, "user@example.com", "Assunto", "Corpo", 2, Instant.now());
+        when(outboxRepository.claim(eq(20), any(), eq(Duration.ofMinutes(10)))).thenReturn(List.of(email));
+        when(mailDelivery.open()).thenReturn(batch);
+        doThrow(new MailSendException("Destinatário recusado")).when(batch).send(email);
+
+        dispatcher.dispatch();
+
+        verify(outboxRepository).fail(1L, 3, "Destinatário recusado");
+        verify(outboxRepository, never()).retry(anyLong(), anyInt(), any(), any());
+        assertEquals(1.0, meterRegistry.get("email.outbox.deliveries").tag("outcome", "failed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve marcar o e-mail como FAILED quando a próxima tentativa passar da validade do código")
+    public void testDispatch_Expired() throws Exception {
+        OutboxEmail email = new OutboxEmail(1L, "user@example.com", "Assunto", "Corpo", 0,
+                Instant.now().minus(Duration.ofMinutes(10)).plusSeconds(3));
+        when(outboxRepository.claim(eq(20), any(), eq(Duration.ofMinutes(10)))).thenReturn(List.of(email));
+        when(mailDelivery.open()).thenReturn(batch);
+        doThrow(new MailSendException("SMTP indisponível")).when(batch).send(email);
+
+        dispatcher.dispatch();
+
+        verify(outboxRepository).fail(1L, 1, "SMTP indisponível");
+        verify(outboxRepository, never()).retry(anyLong(), anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve expirar os pendentes e remover em lotes os e-mails FAILED fora da retenção")
+    public void testPurge() {
+        when(outboxRepository.purge(any(), eq(1000))).thenReturn(1000, 5);
+
+        Instant before = Instant.now().minus(Duration.ofDays(7));
+        dispatcher.purge();
+
+        verify(outboxRepository).expire(Duration.ofMinutes(10));
+        verify(outboxRepository, times(2)).purge(argThat(cutoff ->
+                !cutoff.isBefore(before) && !cutoff.isAfter(Instant.now().minus(Duration.ofDays(7)))), eq(1000));
+    }
+
+    @Test
+    @DisplayName("Deve limitar a espera entre tentativas ao máximo configurado")
+    public void testBackoff_Capped() {
+        Duration backoff = dispatcher.backoff(10);
+
+        assertTrue(backoff.compareTo(Duration.ofSeconds(12)) <= 0);
+        assertTrue(backoff.compareTo(Duration.ofMillis(10_800)) >= 0);
+    }
+}
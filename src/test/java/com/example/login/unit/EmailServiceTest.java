@@ -0,0 +1,52 @@
+package com.example.login.unit;
+
+import com.example.login.cache.UserCache;
+import com.example.login.cache.VerificationCodeStore;
+import com.example.login.exception.BadRequestException;
+import com.example.login.mail.EmailOutbox;
+import com.example.login.mail.template.EmailTemplates;
+import com.example.login.repository.UserRepository;
+import com.example.login.service.impl.EmailServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private VerificationCodeStore verificationCodeStore;
+
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private EmailOutbox emailOutbox;
+
+    @Mock
+    private EmailTemplates emailTemplates;
+
+    @InjectMocks
+    private EmailServiceImpl emailService;
+
+    @Test
+    @DisplayName("Deve recusar o reenvio do código para um usuário inexistente ou arquivado")
+    public void testSendRefreshCode_UserNotFound_Error() {
+        when(userCache.findPrincipalByEmail("user@example.com")).thenReturn(null);
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> emailService.sendRefreshCode("user@example.com"));
+
+        assertEquals("Usuário não encontrado!", exception.getMessage());
+        verifyNoInteractions(verificationCodeStore, emailOutbox);
+    }
+}
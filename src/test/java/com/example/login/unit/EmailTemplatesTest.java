@@ -0,0 +1,49 @@
+package com.example.login.unit;
+
+import com.example.login.mail.template.CompiledTemplate;
+import com.example.login.mail.template.EmailTemplate;
+import com.example.login.mail.template.EmailTemplates;
+import com.example.login.mail.template.RenderedEmail;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmailTemplatesTest {
+
+    private final EmailTemplates emailTemplates = new EmailTemplates(List.of("pt-BR", "en"), "pt-BR");
+
+    @Test
+    @DisplayName("Deve renderizar o modelo no idioma solicitado, recorrendo à língua e ao idioma padrão")
+    public void testRender_Locale() {
+        RenderedEmail portuguese = emailTemplates.render(EmailTemplate.REGISTER_CODE, Locale.forLanguageTag("pt-BR"), "123456");
+        RenderedEmail english = emailTemplates.render(EmailTemplate.REGISTER_CODE, Locale.forLanguageTag("en-GB"), "123456");
+        RenderedEmail fallback = emailTemplates.render(EmailTemplate.REGISTER_CODE, Locale.JAPANESE, "123456");
+
+        assertEquals("Código de Validação", portuguese.subject());
+        assertEquals("Seu código de validação é: <b>123456</b>", portuguese.body());
+        assertEquals("Verification Code", english.subject());
+        assertEquals("Your verification code is: <b>123456</b>", english.body());
+        assertEquals(portuguese, fallback);
+    }
+
+    @Test
+    @DisplayName("Deve escapar os valores no corpo HTML")
+    public void testRender_EscapesHtml() {
+        RenderedEmail email = emailTemplates.render(EmailTemplate.PASSWORD_RESET, Locale.forLanguageTag("pt-BR"), "a<b>&\"");
+
+        assertTrue(email.body().contains("?token=a&lt;b&gt;&amp;&quot;<br><br><b>Este link"));
+        assertEquals("Redefinição de Senha", email.subject());
+    }
+
+    @Test
+    @DisplayName("Deve recusar modelos com variáveis desconhecidas ou valores em quantidade errada")
+    public void testCompile_Invalid() {
+        assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("Olá ${nome}", List.of("code"), true));
+        assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("Olá ${code", List.of("code"), true));
+        assertThrows(IllegalArgumentException.class, () -> emailTemplates.render(EmailTemplate.REGISTER_CODE, Locale.ROOT));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.login.unit;
+
+import com.example.login.cache.HmacVerificationCodeStore;
+import com.example.login.cache.VerificationCodeStore.Purpose;
+import com.example.login.cache.VerificationCodeStore.Result;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class HmacVerificationCodeStoreTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+    private static final String EMAIL = "user@example.com";
+    private static final String SUBJECT = "verification:hmac:{registration:user@example.com}";
+    private static final long STEP = Duration.ofMinutes(5).toMillis();
+    private static final long WINDOW = 1_000;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private Clock clock;
+
+    private HmacVerificationCodeStore store;
+
+    @BeforeEach
+    public void setUp() {
+        store = new HmacVerificationCodeStore(redisTemplate, new SimpleMeterRegistry(), clock, SECRET,
+                Duration.ofMinutes(5), 3);
+    }
+
+    @Test
+    @DisplayName("Deve emitir o mesmo código dentro da janela, sem acessar o Redis")
+    public void testIssue_SameWithinWindow() {
+        when(clock.millis()).thenReturn(WINDOW * STEP, WINDOW * STEP + STEP - 1, (WINDOW + 1) * STEP);
+
+        String code = store.issue(Purpose.REGISTRATION, EMAIL);
+
+        assertEquals(code, store.issue(Purpose.REGISTRATION, " USER@example.com "));
+        assertNotEquals(code, store.issue(Purpose.REGISTRATION, EMAIL));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve aceitar o código na janela atual e na seguinte, marcando como usado o da janela de emissão")
+    public void testVerify_CurrentAndPreviousWindow() {
+        when(clock.millis()).thenReturn(WINDOW * STEP + 10);
+        String code = store.issue(Purpose.REGISTRATION, EMAIL);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any())).thenAnswer(invocation ->
+                "1".equals(invocation.getArgument(4)) ? 1L : 0L);
+
+        assertEquals(Result.VALID, store.verify(Purpose.REGISTRATION, EMAIL, code));
+        when(clock.millis()).thenReturn((WINDOW + 1) * STEP + STEP - 1);
+        assertEquals(Result.VALID, store.verify(Purpose.REGISTRATION, EMAIL, code));
+        when(clock.millis()).thenReturn((WINDOW + 2) * STEP);
+        assertEquals(Result.INVALID, store.verify(Purpose.REGISTRATION, EMAIL, code));
+
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class),
+                eq(List.of(SUBJECT + ":attempts", SUBJECT + ":used:" + WINDOW)), eq("3"), eq("600000"), eq("1"));
+        verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of(SUBJECT + ":attempts", SUBJECT + ":used:" + (WINDOW + 2))), eq("3"), eq("600000"), eq("0"));
+    }
+
+    @Test
+    @DisplayName("Deve recusar o código já usado e o e-mail bloqueado conforme o estado compartilhado no Redis")
+    public void testVerify_SharedState() {
+        when(clock.millis()).thenReturn(WINDOW * STEP);
+        String code = store.issue(Purpose.REGISTRATION, EMAIL);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any())).thenReturn(-1L, -2L);
+
+        assertEquals(Result.EXPIRED, store.verify(Purpose.REGISTRATION, EMAIL, code));
+        assertEquals(Result.EXHAUSTED, store.verify(Purpose.REGISTRATION, EMAIL, "short"));
+    }
+
+    @Test
+    @DisplayName("Deve exigir uma chave de ao menos 32 caracteres")
+    public void testConstructor_ShortSecret() {
+        assertThrows(IllegalStateException.class, () -> new HmacVerificationCodeStore(redisTemplate,
+                new SimpleMeterRegistry(), clock, "curta", Duration.ofMinutes(5), 3));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.login.unit;
+
+import com.example.login.activity.LastSeenTracker;
+import com.example.login.datasource.shard.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LastSeenTrackerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ObjectProvider<ShardRouter> shardRouter;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private LastSeenTracker tracker;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new LastSeenTracker(jdbcTemplate, new TransactionTemplate(transactionManager), shardRouter,
+                meterRegistry, 2);
+    }
+
+    @Test
+    @DisplayName("Deve agrupar os acessos repetidos e gravar cada usuário uma única vez, em lotes")
+    @SuppressWarnings("unchecked")
+    public void testFlush_CoalescesAndBatches() {
+        tracker.record(1L);
+        tracker.record(2L);
+        tracker.record(1L);
+        tracker.record(3L);
+
+        tracker.flush();
+        tracker.flush();
+
+        ArgumentCaptor<List<Object[]>> batches = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batches.capture());
+        assertEquals(3, batches.getAllValues().stream().mapToInt(List::size).sum());
+        assertEquals(3.0, meterRegistry.get("user.last-seen.flushed").counter().count());
+        assertEquals(0.0, meterRegistry.get("user.last-seen.pending").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Deve manter os acessos pendentes quando a gravação falha")
+    public void testFlush_RetriesAfterFailure() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new QueryTimeoutException("timeout"));
+        tracker.record(1L);
+
+        tracker.flush();
+
+        assertEquals(1.0, meterRegistry.get("user.last-seen.pending").gauge().value());
+    }
+}
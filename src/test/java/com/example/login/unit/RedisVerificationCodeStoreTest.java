@@ -0,0 +1,177 @@
+package com.example.login.unit;
+
+import com.example.login.cache.HmacVerificationCodeStore;
+import com.example.login.cache.RedisVerificationCodeStore;
+import com.example.login.cache.UserCache;
+import com.example.login.cache.VerificationCodeStore.Purpose;
+import com.example.login.cache.VerificationCodeStore.Result;
+import com.example.login.enums.Role;
+import com.example.login.exception.BadRequestException;
+import com.example.login.mail.EmailOutbox;
+import com.example.login.mail.template.EmailTemplate;
+import com.example.login.mail.template.EmailTemplates;
+import com.example.login.mail.template.RenderedEmail;
+import com.example.login.model.projection.UserPrincipal;
+import com.example.login.repository.UserRepository;
+import com.example.login.service.impl.EmailServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Executa os scripts Lua de {@link RedisVerificationCodeStore} e {@link HmacVerificationCodeStore} em um Redis real
+ * (contêiner), ignorado sem Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class RedisVerificationCodeStoreTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    @Container
+    private static final GenericContainer<?> REDIS =
+            new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+
+    private StringRedisTemplate redisTemplate;
+
+    private RedisVerificationCodeStore store;
+
+    @BeforeAll
+    public static void connect() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+    }
+
+    @AfterAll
+    public static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.getRequiredConnectionFactory().getConnection().serverCommands().flushAll();
+        store = new RedisVerificationCodeStore(redisTemplate, new SimpleMeterRegistry(), Duration.ofMinutes(10), 3);
+    }
+
+    @Test
+    @DisplayName("Deve consumir o código válido, que não pode ser usado de novo nem em outra finalidade")
+    public void testVerify_ValidOnce() {
+        String code = store.issue(Purpose.REGISTRATION, EMAIL);
+
+        assertEquals(Result.EXPIRED, store.verify(Purpose.PASSWORD_RESET, EMAIL, code));
+        assertEquals(Result.VALID, store.verify(Purpose.REGISTRATION, " USER@example.com ", code));
+        assertEquals(Result.EXPIRED, store.verify(Purpose.REGISTRATION, EMAIL, code));
+        assertFalse(redisTemplate.hasKey("verification:code:registration:" + EMAIL));
+    }
+
+    @Test
+    @DisplayName("Deve descartar o código ao atingir o limite de tentativas erradas")
+    public void testVerify_Exhausted() {
+        String code = store.issue(Purpose.REGISTRATION, EMAIL);
+        String wrong = wrong(code);
+
+        assertEquals(Result.INVALID, store.verify(Purpose.REGISTRATION, EMAIL, wrong));
+        assertEquals(Result.INVALID, store.verify(Purpose.REGISTRATION, EMAIL, wrong));
+        assertEquals(Result.EXHAUSTED, store.verify(Purpose.REGISTRATION, EMAIL, wrong));
+        assertEquals(Result.EXPIRED, store.verify(Purpose.REGISTRATION, EMAIL, code));
+    }
+
+    @Test
+    @DisplayName("Deve substituir o código anterior e zerar as tentativas ao emitir um novo")
+    public void testIssue_ReplacesCode() {
+        String first = store.issue(Purpose.REGISTRATION, EMAIL);
+        assertEquals(Result.INVALID, store.verify(Purpose.REGISTRATION, EMAIL, wrong(first)));
+        assertEquals(Result.INVALID, store.verify(Purpose.REGISTRATION, EMAIL, wrong(first)));
+
+        String second = store.issue(Purpose.REGISTRATION, EMAIL);
+
+        assertEquals("0", redisTemplate.opsForHash().get("verification:code:registration:" + EMAIL, "attempts"));
+        if (!first.equals(second)) {
+            assertEquals(Result.INVALID, store.verify(Purpose.REGISTRATION, EMAIL, first));
+        }
+        assertEquals(Result.VALID, store.verify(Purpose.REGISTRATION, EMAIL, second));
+    }
+
+    @Test
+    @DisplayName("Deve expirar o código após verification.code.ttl")
+    public void testVerify_Expired() throws Exception {
+        store = new RedisVerificationCodeStore(redisTemplate, new SimpleMeterRegistry(), Duration.ofMillis(300), 3);
+        String code = store.issue(Purpose.REGISTRATION, EMAIL);
+
+        Long ttl = redisTemplate.getExpire("verification:code:registration:" + EMAIL, TimeUnit.MILLISECONDS);
+        assertTrue(ttl != null && ttl > 0 && ttl <= 300);
+
+        Thread.sleep(500);
+
+        assertEquals(Result.EXPIRED, store.verify(Purpose.REGISTRATION, EMAIL, code));
+    }
+
+    @Test
+    @DisplayName("Deve compartilhar entre as instâncias os códigos usados e as tentativas do modo hmac")
+    public void testHmac_SharedBetweenInstances() {
+        String secret = "0123456789abcdef0123456789abcdef";
+        HmacVerificationCodeStore first = new HmacVerificationCodeStore(redisTemplate, new SimpleMeterRegistry(),
+                Clock.systemUTC(), secret, Duration.ofMinutes(5), 3);
+        HmacVerificationCodeStore second = new HmacVerificationCodeStore(redisTemplate, new SimpleMeterRegistry(),
+                Clock.systemUTC(), secret, Duration.ofMinutes(5), 3);
+        String code = first.issue(Purpose.PASSWORD_RESET, EMAIL);
+
+        assertEquals(Result.VALID, first.verify(Purpose.PASSWORD_RESET, EMAIL, code));
+        assertEquals(Result.EXPIRED, second.verify(Purpose.PASSWORD_RESET, EMAIL, code));
+
+        String wrong = wrong(first.issue(Purpose.REGISTRATION, EMAIL));
+        assertEquals(Result.INVALID, first.verify(Purpose.REGISTRATION, EMAIL, wrong));
+        assertEquals(Result.INVALID, second.verify(Purpose.REGISTRATION, EMAIL, wrong));
+        assertEquals(Result.EXHAUSTED, first.verify(Purpose.REGISTRATION, EMAIL, wrong));
+        assertEquals(Result.EXHAUSTED, second.verify(Purpose.REGISTRATION, EMAIL,
+                second.issue(Purpose.REGISTRATION, EMAIL)));
+    }
+
+    @Test
+    @DisplayName("Não deve habilitar o usuário duas vezes com o mesmo código de validação")
+    public void testValidationCode_CodeConsumed() {
+        UserRepository userRepository = mock(UserRepository.class);
+        UserCache userCache = mock(UserCache.class);
+        EmailTemplates emailTemplates = mock(EmailTemplates.class);
+        EmailServiceImpl emailService = new EmailServiceImpl(userRepository, store, userCache, mock(EmailOutbox.class),
+                emailTemplates);
+        ArgumentCaptor<String> code = ArgumentCaptor.forClass(String.class);
+        when(emailTemplates.render(eq(EmailTemplate.REGISTER_CODE), code.capture()))
+                .thenReturn(new RenderedEmail("Assunto", "Corpo"));
+        when(userRepository.findPrincipalByEmail(EMAIL)).thenReturn(new UserPrincipal(1L, EMAIL, Role.USER, false));
+        when(userRepository.updateEnabledByEmail(EMAIL)).thenReturn(1);
+
+        emailService.sendRegisterEmail(EMAIL);
+        emailService.validationCode(EMAIL, code.getValue());
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> emailService.validationCode(EMAIL, code.getValue()));
+        assertEquals("Código de validação expirado ou inválido.", exception.getMessage());
+        verify(userRepository).updateEnabledByEmail(EMAIL);
+        verify(userCache).invalidate(1L, EMAIL);
+    }
+
+    private static String wrong(String code) {
+        return code.equals("AAAAAA") ? "BBBBBB" : "AAAAAA";
+    }
+}
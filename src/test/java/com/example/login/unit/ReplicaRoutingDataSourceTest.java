@@ -0,0 +1,105 @@
+package com.example.login.unit;
+
+import com.example.login.datasource.ReadYourWrites;
+import com.example.login.datasource.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        DataSource primary = mock(DataSource.class);
+        DataSource replica = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, List.of(replica), new ReadYourWrites(Duration.ofSeconds(5)));
+        routingDataSource.afterPropertiesSet();
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.clear();
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Deve enviar transações somente leitura e acessos sem transação para a réplica")
+    public void testRoute_Replica() throws Exception {
+        assertSame(replicaConnection, routingDataSource.getConnection());
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertSame(replicaConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    @DisplayName("Deve enviar escritas ao principal e manter as leituras seguintes da mesma origem no principal")
+    public void testRoute_ReadYourWrites() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        assertSame(primaryConnection, routingDataSource.getConnection());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clear();
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+
+        MockHttpServletRequest otherClient = new MockHttpServletRequest();
+        otherClient.setRemoteAddr("10.0.0.2");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(otherClient));
+        assertSame(replicaConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    @DisplayName("Deve manter no principal o usuário autenticado que escreveu, e não outros usuários do mesmo endereço")
+    public void testRoute_ReadYourWritesByUser() throws Exception {
+        authenticate("a@email.com");
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        routingDataSource.getConnection();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clear();
+
+        authenticate("b@email.com");
+        assertSame(replicaConnection, routingDataSource.getConnection());
+
+        MockHttpServletRequest otherAddress = new MockHttpServletRequest();
+        otherAddress.setRemoteAddr("10.0.0.2");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(otherAddress));
+        authenticate("a@email.com");
+        assertSame(primaryConnection, routingDataSource.getConnection());
+    }
+
+    private static void authenticate(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+}
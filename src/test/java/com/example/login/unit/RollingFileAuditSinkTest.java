@@ -0,0 +1,144 @@
+package com.example.login.unit;
+
+import com.example.login.audit.sink.RollingFileAuditSink;
+import com.example.login.model.collection.AuditLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RollingFileAuditSinkTest {
+
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    @DisplayName("Deve gravar registros em NDJSON comprimido e publicar o arquivo ao fechar")
+    public void testWrite_Gzip_Success() throws IOException {
+        var sink = new RollingFileAuditSink(directory, 1024 * 1024, Duration.ofHours(1), true,
+                objectMapper.writer(), Clock.systemUTC());
+
+        sink.write(AuditLog.builder().level("INFO").details("primeiro").build());
+        sink.write(AuditLog.builder().level("WARN").details("segundo").build());
+        sink.close();
+
+        List<Path> files = listFiles();
+        assertEquals(1, files.size());
+        assertTrue(files.get(0).toString().endsWith(".ndjson.gz"));
+
+        List<String> lines = readGzip(files.get(0));
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("\"details\":\"primeiro\""));
+        assertTrue(lines.get(1).contains("\"level\":\"WARN\""));
+    }
+
+    @Test
+    @DisplayName("Deve rotacionar o arquivo quando o tamanho máximo é atingido")
+    public void testWrite_RotateBySize() throws IOException {
+        var sink = new RollingFileAuditSink(directory, 10, Duration.ofHours(1), false,
+                objectMapper.writer(), Clock.systemUTC());
+
+        sink.write(AuditLog.builder().details("a").build());
+        sink.write(AuditLog.builder().details("b").build());
+        sink.write(AuditLog.builder().details("c").build());
+        sink.close();
+
+        assertEquals(3, listFiles().size());
+    }
+
+    @Test
+    @DisplayName("Deve rotacionar o arquivo no flush quando o intervalo expira")
+    public void testFlush_RotateByTime() throws IOException {
+        var clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        var sink = new RollingFileAuditSink(directory, 1024 * 1024, Duration.ofMinutes(5), false,
+                objectMapper.writer(), clock);
+
+        sink.write(AuditLog.builder().details("a").build());
+        sink.flush();
+        assertTrue(listFiles().isEmpty(), "Arquivo em uso não deve ser publicado");
+
+        clock.now = clock.now.plus(Duration.ofMinutes(5));
+        sink.flush();
+
+        assertEquals(1, listFiles().size());
+    }
+
+    @Test
+    @DisplayName("Deve finalizar arquivos .part interrompidos e continuar a numeração na inicialização")
+    public void testStartup_RecoversLeftovers() throws IOException {
+        Path leftover = directory.resolve("audit-20250101-000000-4.ndjson.gz.part");
+        var gzip = new GZIPOutputStream(Files.newOutputStream(leftover), 512, true);
+        gzip.write("{\"details\":\"interrompido\"}\n".getBytes(StandardCharsets.UTF_8));
+        gzip.flush(); // sem close: o arquivo fica sem o final do gzip, como após uma queda
+
+        var sink = new RollingFileAuditSink(directory, 1024 * 1024, Duration.ofHours(1), true,
+                objectMapper.writer(), Clock.systemUTC());
+        sink.write(AuditLog.builder().details("novo").build());
+        sink.close();
+
+        List<Path> files = listFiles();
+        assertEquals(2, files.size());
+        assertFalse(Files.exists(leftover));
+        assertEquals(List.of("{\"details\":\"interrompido\"}"),
+                readGzip(directory.resolve("audit-20250101-000000-4.ndjson.gz")));
+        assertTrue(files.stream().anyMatch(f -> f.getFileName().toString().endsWith("-5.ndjson.gz")));
+    }
+
+    private List<Path> listFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(f -> !f.toString().endsWith(".part")).sorted().toList();
+        }
+    }
+
+    private List<String> readGzip(Path file) throws IOException {
+        try (var reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        }
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
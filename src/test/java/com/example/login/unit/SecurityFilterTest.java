@@ -0,0 +1,71 @@
+package com.example.login.unit;
+
+import com.example.login.activity.LastSeenTracker;
+import com.example.login.cache.TokenCache;
+import com.example.login.cache.UserCache;
+import com.example.login.security.SecurityFilter;
+import com.example.login.security.TokenService;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import static com.example.login.security.TokenService.ACCESS_TOKEN;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SecurityFilterTest {
+
+    @Mock
+    private TokenService tokenService;
+
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private HandlerExceptionResolver handlerExceptionResolver;
+
+    @Mock
+    private TokenCache tokenCache;
+
+    @Mock
+    private LastSeenTracker lastSeenTracker;
+
+    @Mock
+    private FilterChain filterChain;
+
+    @InjectMocks
+    private SecurityFilter securityFilter;
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Deve seguir sem autenticação quando o usuário do token não existe mais (arquivado)")
+    public void testDoFilter_ArchivedUser_Unauthenticated() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/me");
+        request.addHeader("Authorization", "Bearer token");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(tokenService.getSubject("token", ACCESS_TOKEN)).thenReturn("user@example.com");
+        when(userCache.findPrincipalByEmail("user@example.com")).thenReturn(null);
+
+        securityFilter.doFilter(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(lastSeenTracker, never()).record(anyLong());
+        verifyNoInteractions(handlerExceptionResolver);
+    }
+}
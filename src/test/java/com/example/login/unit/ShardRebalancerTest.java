@@ -0,0 +1,167 @@
+package com.example.login.unit;
+
+import com.example.login.datasource.shard.ShardRebalancer;
+import com.example.login.datasource.shard.ShardRing;
+import com.example.login.datasource.shard.ShardRouter;
+import com.example.login.datasource.shard.ShardRoutingDataSource;
+import com.example.login.model.id.UserIds;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedConstruction;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ShardRebalancerTest {
+
+    private static final int BATCH_SIZE = 2;
+    private static final List<String> SHARDS = List.of("shard-0", "shard-1");
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Mock
+    private DataSource source;
+
+    @Mock
+    private DataSource target;
+
+    private int bucket;
+
+    private ShardRebalancer rebalancer;
+
+    @BeforeEach
+    public void setUp() {
+        ShardRing ring = new ShardRing(SHARDS, 64);
+        bucket = 1;
+        while (!ring.ownerOf(bucket).equals("shard-1")) {
+            bucket++;
+        }
+        String key = Integer.toString(bucket);
+
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(hashOperations.entries("shards:pinned")).thenReturn(Map.of(key, "shard-0"));
+        when(setOperations.members("shards:frozen")).thenReturn(Set.of());
+        when(setOperations.isMember("shards:frozen", key)).thenReturn(false);
+
+        ShardRouter shardRouter = new ShardRouter(ring, redisTemplate, listenerContainer);
+        shardRouter.reload();
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        shards.put("shard-0", source);
+        shards.put("shard-1", target);
+        rebalancer = new ShardRebalancer(shardRouter, new ShardRoutingDataSource(shards), 64,
+                Duration.ofMillis(200), BATCH_SIZE);
+    }
+
+    @Test
+    @DisplayName("Deve copiar o bucket em lotes após a confirmação de todas as instâncias e removê-lo da origem")
+    public void testRebalance_DrainedAndPaged() throws Exception {
+        String key = Integer.toString(bucket);
+        when(hashOperations.entries("shards:nodes"))
+                .thenReturn(Map.of("node-a", Long.toString(System.currentTimeMillis())));
+        when(setOperations.members("shards:drained:" + key)).thenReturn(Set.of("node-a"));
+
+        List<Map<String, Object>> users = LongStream.rangeClosed(1, 3)
+                .mapToObj(id -> Map.<String, Object>of("id", id, "email", "usuario" + id + "@email.com"))
+                .toList();
+        AtomicInteger remaining = new AtomicInteger(users.size());
+        List<Long> afterIds = new ArrayList<>();
+        List<Integer> inserted = new ArrayList<>();
+        Map<Object, Object> dataSourceOf = new IdentityHashMap<>();
+
+        Answer<Object> jdbc = invocation -> {
+            String sql = invocation.getArgument(0);
+            boolean usersTable = !sql.contains("tb_users_archive");
+            return switch (invocation.getMethod().getName()) {
+                case "queryForList" -> {
+                    assertSame(source, dataSourceOf.get(invocation.getMock()));
+                    long after = invocation.getArgument(2);
+                    int limit = invocation.getArgument(3);
+                    if (usersTable) {
+                        afterIds.add(after);
+                    }
+                    yield !usersTable ? List.of() : users.stream()
+                            .filter(user -> (Long) user.get("id") > after)
+                            .limit(limit)
+                            .toList();
+                }
+                case "batchUpdate" -> {
+                    assertSame(target, dataSourceOf.get(invocation.getMock()));
+                    List<?> values = invocation.getArgument(1);
+                    inserted.add(values.size());
+                    yield new int[values.size()];
+                }
+                case "update" -> {
+                    assertSame(source, dataSourceOf.get(invocation.getMock()));
+                    yield usersTable ? Math.min(remaining.getAndAdd(-BATCH_SIZE), BATCH_SIZE) : 0;
+                }
+                default -> null;
+            };
+        };
+
+        Map<Integer, Long> moved;
+        try (MockedConstruction<JdbcTemplate> ignored = mockConstruction(JdbcTemplate.class,
+                withSettings().defaultAnswer(jdbc),
+                (mock, context) -> dataSourceOf.put(mock, context.arguments().getFirst()))) {
+            moved = rebalancer.rebalance();
+        }
+
+        assertEquals(Map.of(bucket, 3L), moved);
+        assertEquals(List.of(Long.MIN_VALUE, 2L), afterIds);
+        assertEquals(List.of(2, 1), inserted);
+        assertTrue(remaining.get() <= 0);
+        verify(setOperations).add("shards:frozen", key);
+        verify(hashOperations).delete("shards:pinned", key);
+        verify(setOperations).remove("shards:frozen", key);
+    }
+
+    @Test
+    @DisplayName("Deve interromper sem copiar quando alguma instância não confirma o congelamento a tempo")
+    public void testRebalance_DrainTimeout() {
+        String key = Integer.toString(bucket);
+        long now = System.currentTimeMillis();
+        when(hashOperations.entries("shards:nodes"))
+                .thenReturn(Map.of("node-a", Long.toString(now), "node-b", Long.toString(now)));
+        when(setOperations.members("shards:drained:" + key)).thenReturn(Set.of("node-a"));
+
+        try (MockedConstruction<JdbcTemplate> jdbc = mockConstruction(JdbcTemplate.class)) {
+            assertThrows(IllegalStateException.class, () -> rebalancer.rebalance());
+            assertTrue(jdbc.constructed().isEmpty());
+        }
+
+        verify(setOperations).remove("shards:frozen", key);
+        verify(hashOperations, never()).delete("shards:pinned", key);
+    }
+}
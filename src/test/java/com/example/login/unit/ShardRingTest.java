@@ -0,0 +1,47 @@
+package com.example.login.unit;
+
+import com.example.login.datasource.shard.ShardRing;
+import com.example.login.model.id.UserIds;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardRingTest {
+
+    @Test
+    @DisplayName("Deve mover apenas buckets para o novo shard ao adicionar um shard")
+    public void testOwnerOf_AddShard() {
+        ShardRing current = new ShardRing(List.of("shard-0", "shard-1", "shard-2"), 64);
+        ShardRing target = new ShardRing(List.of("shard-0", "shard-1", "shard-2", "shard-3"), 64);
+
+        int moved = 0;
+        for (int bucket = 1; bucket <= UserIds.BUCKETS; bucket++) {
+            String before = current.ownerOf(bucket);
+            String after = target.ownerOf(bucket);
+            if (!before.equals(after)) {
+                assertEquals("shard-3", after);
+                moved++;
+            }
+        }
+
+        assertTrue(moved > UserIds.BUCKETS / 8 && moved < UserIds.BUCKETS / 2, "buckets movidos: " + moved);
+    }
+
+    @Test
+    @DisplayName("Deve gerar IDs crescentes que carregam o bucket do e-mail")
+    public void testNextId() {
+        int bucket = UserIds.bucketOf("Usuario@Email.com");
+
+        long first = UserIds.next(bucket);
+        long second = UserIds.next(bucket);
+
+        assertEquals(UserIds.bucketOf("usuario@email.com"), bucket);
+        assertTrue(bucket >= 1 && bucket <= UserIds.BUCKETS);
+        assertTrue(first > 0 && second > first);
+        assertEquals(bucket, UserIds.bucketOf(first));
+        assertEquals(UserIds.LEGACY_BUCKET, UserIds.bucketOf(42L));
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.login.unit;
+
+import com.example.login.archive.UserArchive;
+import com.example.login.cache.ProfileCache;
+import com.example.login.cache.RegisteredEmails;
+import com.example.login.cache.UserCache;
+import com.example.login.datasource.shard.ShardContext;
+import com.example.login.datasource.shard.ShardRing;
+import com.example.login.datasource.shard.ShardRouter;
+import com.example.login.datasource.shard.ShardRoutingAspect;
+import com.example.login.dto.request.UserRequest;
+import com.example.login.exception.InternalServerErrorException;
+import com.example.login.model.User;
+import com.example.login.model.id.UserIds;
+import com.example.login.repository.UserRepository;
+import com.example.login.security.AuthAuditorAware;
+import com.example.login.service.EmailService;
+import com.example.login.service.impl.UserServiceImpl;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ShardRoutingAspectTest {
+
+    private static final String EMAIL = "usuario@email.com";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    @Mock
+    private Signature signature;
+
+    private ShardRouter shardRouter;
+
+    private ShardRoutingAspect aspect;
+
+    @BeforeEach
+    public void setUp() {
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(hashOperations.entries("shards:pinned")).thenReturn(Map.of());
+        when(setOperations.members("shards:frozen"))
+                .thenReturn(Set.of(Integer.toString(UserIds.bucketOf(EMAIL))));
+        lenient().when(joinPoint.getSignature()).thenReturn(signature);
+
+        shardRouter = new ShardRouter(new ShardRing(List.of("shard-0", "shard-1"), 64), redisTemplate,
+                listenerContainer);
+        shardRouter.reload();
+        aspect = new ShardRoutingAspect(shardRouter);
+    }
+
+    @Test
+    @DisplayName("Deve recusar a escrita de um usuário cujo bucket está congelado")
+    public void testRoute_FrozenWriteRejected() throws Throwable {
+        User user = new User();
+        user.setEmail(EMAIL);
+        when(signature.getName()).thenReturn("save");
+        when(joinPoint.getArgs()).thenReturn(new Object[]{user});
+
+        assertThrows(InternalServerErrorException.class, () -> aspect.route(joinPoint));
+        verify(joinPoint, never()).proceed();
+    }
+
+    @Test
+    @DisplayName("Deve permitir a leitura de um usuário cujo bucket está congelado, no shard do bucket")
+    public void testRoute_FrozenReadAllowed() throws Throwable {
+        String[] shard = new String[1];
+        when(signature.getName()).thenReturn("findByEmail");
+        when(joinPoint.getArgs()).thenReturn(new Object[]{EMAIL});
+        when(joinPoint.proceed()).thenAnswer(invocation -> {
+            shard[0] = ShardContext.current();
+            return null;
+        });
+
+        assertNull(aspect.route(joinPoint));
+        assertEquals(shardRouter.shardOfEmail(EMAIL), shard[0]);
+    }
+
+    @Test
+    @DisplayName("Deve permitir a escrita de um usuário cujo bucket não está congelado")
+    public void testRoute_WriteAllowed() throws Throwable {
+        String email = "outro@email.com";
+        assertNotEquals(UserIds.bucketOf(EMAIL), UserIds.bucketOf(email));
+        when(signature.getName()).thenReturn("updateEnabledByEmail");
+        when(joinPoint.getArgs()).thenReturn(new Object[]{email});
+        when(joinPoint.proceed()).thenReturn(1);
+
+        assertEquals(1, aspect.route(joinPoint));
+    }
+
+    @Test
+    @DisplayName("Deve cadastrar o usuário no shard do seu e-mail")
+    public void testRegisterUser_RoutedToEmailShard() {
+        String email = "novo@email.com";
+        assertNotEquals(UserIds.bucketOf(EMAIL), UserIds.bucketOf(email));
+        UserRepository target = mock(UserRepository.class);
+        String[] shard = new String[1];
+        when(target.saveAndFlush(any(User.class))).thenAnswer(invocation -> {
+            shard[0] = ShardContext.current();
+            return invocation.getArgument(0);
+        });
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(aspect);
+        UserRepository userRepository = proxyFactory.getProxy();
+        RegisteredEmails registeredEmails = mock(RegisteredEmails.class);
+        UserServiceImpl userService = new UserServiceImpl(userRepository, mock(PasswordEncoder.class),
+                mock(EmailService.class), mock(AuthAuditorAware.class), mock(ProfileCache.class), mock(UserCache.class),
+                mock(UserArchive.class), registeredEmails);
+
+        userService.registerUser(new UserRequest(true, "Novo", email, "USER", "Senha@123"));
+
+        assertEquals(shardRouter.shardOfEmail(email), shard[0]);
+        verify(registeredEmails).add(email);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.login.unit;
+
+import com.example.login.mail.MailDelivery;
+import com.example.login.mail.OutboxEmail;
+import com.example.login.mail.SmtpTransportPool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SmtpTransportPoolTest {
+
+    private FakeSmtpServer server;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new FakeSmtpServer();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Deve enviar várias mensagens pela mesma conexão e reutilizá-la entre lotes")
+    public void testSend_ReusesConnection() throws Exception {
+        SmtpTransportPool pool = pool(100);
+        MailDelivery delivery = new MailDelivery(pool, "noreply@example.com");
+
+        try (MailDelivery.Batch batch = delivery.open()) {
+            for (long id = 1; id <= 3; id++) {
+                batch.send(email(id));
+            }
+        }
+        try (MailDelivery.Batch batch = delivery.open()) {
+            batch.send(email(4));
+            batch.send(email(5));
+        }
+        pool.shutdown();
+
+        assertEquals(1, server.connections.get());
+        assertEquals(5, server.messages.get());
+        assertEquals(1.0, connections("opened"));
+        assertEquals(1.0, connections("reused"));
+        assertEquals(5, meterRegistry.get("email.smtp.send").tag("outcome", "sent").timer().count());
+    }
+
+    @Test
+    @DisplayName("Deve encerrar a conexão que atingiu o limite de mensagens")
+    public void testSend_RotatesConnection() throws Exception {
+        SmtpTransportPool pool = pool(2);
+        MailDelivery delivery = new MailDelivery(pool, "noreply@example.com");
+
+        try (MailDelivery.Batch batch = delivery.open()) {
+            batch.send(email(1));
+            batch.send(email(2));
+        }
+        try (MailDelivery.Batch batch = delivery.open()) {
+            batch.send(email(3));
+        }
+        pool.shutdown();
+
+        assertEquals(2, server.connections.get());
+        assertEquals(3, server.messages.get());
+        assertEquals(2.0, connections("opened"));
+        assertEquals(0.0, connections("reused"));
+    }
+
+    private SmtpTransportPool pool(int maxMessagesPerConnection) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(server.port());
+        return new SmtpTransportPool(mailSender, meterRegistry, 2, maxMessagesPerConnection, Duration.ofMinutes(1));
+    }
+
+    private double connections(String event) {
+        return meterRegistry.get("email.smtp.connections").tag("event", event).counter().count();
+    }
+
+    private static OutboxEmail email(long id) {
+        return new OutboxEmail(id, "user" + id + "@example.com", "Código de Validação", "<b>123456</b>", 0, Instant.now());
+    }
+
+    /**
+     * Servidor SMTP mínimo, sem autenticação nem TLS, que apenas conta conexões e mensagens recebidas.
+     */
+    private static class FakeSmtpServer implements AutoCloseable {
+
+        private final ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger messages = new AtomicInteger();
+
+        FakeSmtpServer() throws IOException {
+            Thread acceptor = new Thread(this::accept, "fake-smtp");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void accept() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    Thread session = new Thread(() -> serve(socket), "fake-smtp-session");
+                    session.setDaemon(true);
+                    session.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII))) {
+                OutputStream out = socket.getOutputStream();
+                reply(out, "220 localhost ESMTP");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase(Locale.ROOT) : line;
+                    switch (command) {
+                        case "DATA" -> {
+                            reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                            while ((line = in.readLine()) != null && !line.equals(".")) {
+                                // corpo da mensagem descartado
+                            }
+                            messages.incrementAndGet();
+                            reply(out, "250 OK");
+                        }
+                        case "QUIT" -> {
+                            reply(out, "221 Bye");
+                            return;
+                        }
+                        case "EHLO", "HELO", "MAIL", "RCPT", "RSET", "NOOP" -> reply(out, "250 OK");
+                        default -> reply(out, "502 Command not implemented");
+                    }
+                }
+            } catch (IOException ignored) {
+                // conexão encerrada pelo cliente
+            }
+        }
+
+        private static void reply(OutputStream out, String line) throws IOException {
+            out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.login.unit;
+
+import com.example.login.cache.TokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenCacheTest {
+
+    private static final String TOKEN = "token123";
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TokenCache tokenCache;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        tokenCache = new TokenCache(redisTemplate, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Não deve reaproveitar uma verificação iniciada antes da invalidação do token")
+    public void testIsTokenInvalidated_AfterInvalidate() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(setOperations.isMember("blacklist_tokens", TOKEN))
+                .thenAnswer(invocation -> {
+                    started.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return false;
+                })
+                .thenReturn(true);
+
+        CompletableFuture<Boolean> before = CompletableFuture.supplyAsync(() -> tokenCache.isTokenInvalidated(TOKEN));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        tokenCache.invalidateToken(TOKEN);
+        boolean after = tokenCache.isTokenInvalidated(TOKEN);
+        release.countDown();
+
+        assertTrue(after);
+        assertFalse(before.get(5, TimeUnit.SECONDS));
+        verify(setOperations).add("blacklist_tokens", TOKEN);
+    }
+
+    @Test
+    @DisplayName("Deve revogar em pipeline os tokens armazenados de vários usuários")
+    @SuppressWarnings("unchecked")
+    public void testRevokeAll() {
+        List<String> keys = List.of("user:1:access_token", "user:1:refresh_token",
+                "user:2:access_token", "user:2:refresh_token");
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(keys)).thenReturn(Arrays.asList("a1", "r1", null, "r2"));
+
+        int revoked = tokenCache.revokeAll(List.of(1L, 2L), "access_token", "refresh_token");
+
+        ArgumentCaptor<SessionCallback<Object>> callback = ArgumentCaptor.forClass(SessionCallback.class);
+        verify(redisTemplate).executePipelined(callback.capture());
+        RedisOperations<String, String> operations = mock(RedisOperations.class);
+        when(operations.opsForSet()).thenReturn(setOperations);
+        callback.getValue().execute(operations);
+
+        assertEquals(3, revoked);
+        verify(setOperations).add("blacklist_tokens", "a1", "r1", "r2");
+        verify(operations).delete(keys);
+    }
+
+    @Test
+    @DisplayName("Não deve acessar o Redis ao revogar os tokens de uma lista vazia de usuários")
+    public void testRevokeAll_Empty() {
+        assertEquals(0, tokenCache.revokeAll(List.of(), "access_token"));
+        verify(redisTemplate, never()).executePipelined(any(SessionCallback.class));
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.login.unit;
+
+import com.example.login.bulk.UserStatusUpdater;
+import com.example.login.datasource.shard.ShardRouter;
+import com.example.login.dto.request.UserFilter;
+import com.example.login.dto.request.UserStatusRequest;
+import com.example.login.dto.response.BulkJobStatus;
+import com.example.login.enums.Role;
+import com.example.login.exception.BadRequestException;
+import com.example.login.factory.UserFactory;
+import com.example.login.importer.UserImporter;
+import com.example.login.model.User;
+import com.example.login.repository.UserCursor;
+import com.example.login.repository.UserListingRepository;
+import com.example.login.service.impl.UserAdminServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserAdminServiceTest {
+
+    private static final UserFilter NO_FILTER = new UserFilter(null, null, null, null, null);
+
+    @Mock
+    private UserImporter userImporter;
+
+    @Mock
+    private UserListingRepository userListingRepository;
+
+    @Mock
+    private ObjectProvider<ShardRouter> shardRouter;
+
+    @Mock
+    private UserStatusUpdater userStatusUpdater;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private UserAdminServiceImpl userAdminService;
+
+    @BeforeEach
+    public void setUp() {
+        userAdminService = new UserAdminServiceImpl(userImporter, userListingRepository, objectMapper, shardRouter,
+                userStatusUpdater);
+    }
+
+    @Test
+    @DisplayName("Deve escrever a página na visualização solicitada e o cursor da próxima página")
+    @SuppressWarnings("unchecked")
+    public void testListUsers_FullPage() throws Exception {
+        User first = UserFactory.createUser(1L);
+        User second = UserFactory.createUser(2L);
+        doAnswer(invocation -> {
+            Consumer<User> action = invocation.getArgument(3);
+            action.accept(first);
+            action.accept(second);
+            return null;
+        }).when(userListingRepository).forEach(eq(NO_FILTER), isNull(), eq(2), any(Consumer.class));
+
+        JsonNode page = write(userAdminService.listUsers(NO_FILTER, null, 2, "basic"));
+
+        assertEquals(2, page.get("users").size());
+        assertEquals(1L, page.get("users").get(0).get("id").asLong());
+        assertFalse(page.get("users").get(0).has("email"));
+        assertEquals(new UserCursor(second.getCreatedAt(), 2L), UserCursor.decode(page.get("next").asText()));
+    }
+
+    @Test
+    @DisplayName("Deve indicar a última página com cursor nulo")
+    public void testListUsers_LastPage() throws Exception {
+        UserCursor after = new UserCursor(UserFactory.createUser(1L).getCreatedAt(), 1L);
+
+        JsonNode page = write(userAdminService.listUsers(NO_FILTER, after.encode(), 10, "regular"));
+
+        assertEquals(0, page.get("users").size());
+        assertTrue(page.get("next").isNull());
+        verify(userListingRepository).forEach(eq(NO_FILTER), eq(after), eq(10), any());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar cursor inválido")
+    public void testListUsers_InvalidCursor() {
+        assertThrows(BadRequestException.class, () -> userAdminService.listUsers(NO_FILTER, "???", 10, null));
+    }
+
+    @Test
+    @DisplayName("Deve agendar a desabilitação em massa pelos IDs informados")
+    public void testUpdateStatus_Ids() {
+        var status = new BulkJobStatus("job", BulkJobStatus.State.RUNNING, false, 0, 0, 0, null, Instant.now(), null);
+        when(userStatusUpdater.start(false, List.of(1L, 2L))).thenReturn(status);
+
+        assertSame(status, userAdminService.updateStatus(new UserStatusRequest(false, List.of(1L, 2L), null)));
+    }
+
+    @Test
+    @DisplayName("Deve exigir exatamente um entre IDs e filtro, e um filtro com ao menos um critério")
+    public void testUpdateStatus_InvalidSelection() {
+        var filter = new UserFilter(Role.USER, null, null, null, null);
+
+        assertThrows(BadRequestException.class,
+                () -> userAdminService.updateStatus(new UserStatusRequest(false, null, null)));
+        assertThrows(BadRequestException.class,
+                () -> userAdminService.updateStatus(new UserStatusRequest(false, List.of(1L), filter)));
+        assertThrows(BadRequestException.class,
+                () -> userAdminService.updateStatus(new UserStatusRequest(false, null, NO_FILTER)));
+        verifyNoInteractions(userStatusUpdater);
+    }
+
+    private JsonNode write(StreamingResponseBody body) throws Exception {
+        var output = new ByteArrayOutputStream();
+        body.writeTo(output);
+        return objectMapper.readTree(output.toByteArray());
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.login.unit;
+
+import com.example.login.archive.UserArchive;
+import com.example.login.cache.UserCache;
+import com.example.login.datasource.shard.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockedConstruction;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserArchiveTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private ObjectProvider<ShardRouter> shardRouter;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private MockedConstruction<NamedParameterJdbcTemplate> namedJdbcTemplates;
+
+    private UserArchive userArchive;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        namedJdbcTemplates = mockConstruction(NamedParameterJdbcTemplate.class);
+        userArchive = new UserArchive(jdbcTemplate, transactionManager, userCache, shardRouter, meterRegistry);
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(1L, 2L);
+        when(rs.getString("email")).thenReturn("a@email.com", "b@email.com");
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(rs);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(), any(), any());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        namedJdbcTemplates.close();
+    }
+
+    @Test
+    @DisplayName("Deve arquivar somente cadastros nunca validados e informar os usuários movidos")
+    public void testArchive_Unverified() {
+        NamedParameterJdbcTemplate namedJdbcTemplate = namedJdbcTemplates.constructed().getFirst();
+        when(namedJdbcTemplate.update(anyString(), any(SqlParameterSource.class))).thenReturn(2);
+
+        int archived = userArchive.archive(UserArchive.Reason.UNVERIFIED, LocalDateTime.now(), 10);
+
+        ArgumentCaptor<String> select = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(select.capture(), any(RowCallbackHandler.class), any(), any(), eq(10));
+        assertTrue(select.getValue().contains("verified_at IS NULL"));
+        assertEquals(2, archived);
+        verify(namedJdbcTemplate).update(startsWith("INSERT INTO tb_users_archive"), any(SqlParameterSource.class));
+        Map<Long, String> users = new LinkedHashMap<>();
+        users.put(1L, "a@email.com");
+        users.put(2L, "b@email.com");
+        verify(userCache).invalidateAll(users);
+        assertEquals(2.0, meterRegistry.get("user.archive.archived").tag("reason", "unverified").counter().count());
+    }
+
+    @Test
+    @DisplayName("Não deve remover de tb_users o usuário cujo e-mail já está arquivado")
+    public void testArchive_DuplicateEmail() {
+        NamedParameterJdbcTemplate namedJdbcTemplate = namedJdbcTemplates.constructed().getFirst();
+        when(namedJdbcTemplate.update(startsWith("INSERT INTO tb_users_archive"), any(SqlParameterSource.class)))
+                .thenThrow(new DuplicateKeyException("Duplicate entry 'b@email.com'"));
+
+        assertThrows(DuplicateKeyException.class,
+                () -> userArchive.archive(UserArchive.Reason.INACTIVE, LocalDateTime.now(), 10));
+
+        ArgumentCaptor<String> select = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(select.capture(), any(RowCallbackHandler.class), any(), any(), eq(10));
+        assertTrue(select.getValue().contains("a.email = u.email"));
+        verify(namedJdbcTemplate, never()).update(startsWith("DELETE"), any(SqlParameterSource.class));
+        verify(transactionManager).rollback(any());
+        verifyNoInteractions(userCache);
+        assertEquals(0, meterRegistry.find("user.archive.archived").counters().size());
+    }
+
+    @Test
+    @DisplayName("Deve desfazer o arquivamento quando as linhas copiadas e removidas divergem")
+    public void testArchive_CountMismatch() {
+        NamedParameterJdbcTemplate namedJdbcTemplate = namedJdbcTemplates.constructed().getFirst();
+        when(namedJdbcTemplate.update(startsWith("INSERT INTO tb_users_archive"), any(SqlParameterSource.class)))
+                .thenReturn(2);
+        when(namedJdbcTemplate.update(startsWith("DELETE"), any(SqlParameterSource.class))).thenReturn(1);
+
+        assertThrows(IllegalStateException.class,
+                () -> userArchive.archive(UserArchive.Reason.INACTIVE, LocalDateTime.now(), 10));
+
+        verify(transactionManager).rollback(any());
+        verifyNoInteractions(userCache);
+    }
+}
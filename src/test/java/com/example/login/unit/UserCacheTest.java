@@ -0,0 +1,243 @@
+package com.example.login.unit;
+
+import com.example.login.cache.UserCache;
+import com.example.login.enums.Role;
+import com.example.login.factory.UserFactory;
+import com.example.login.model.User;
+import com.example.login.model.projection.UserPrincipal;
+import com.example.login.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.login.factory.UserFactory.EMAIL;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class UserCacheTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private UserCache userCache;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        userCache = new UserCache(redisTemplate, userRepository, new ObjectMapper().registerModule(new JavaTimeModule()),
+                listenerContainer, meterRegistry, 100, Duration.ofMinutes(5), Duration.ofMinutes(30));
+    }
+
+    @Test
+    @DisplayName("Deve carregar do banco uma única vez e atender as próximas leituras pela memória local")
+    public void testFindByEmail_LocalHit() {
+        User user = UserFactory.createUser(1L);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(user);
+
+        User first = userCache.findByEmail(EMAIL);
+        User second = userCache.findByEmail(EMAIL.toUpperCase());
+        Optional<User> byId = userCache.findById(1L);
+
+        assertEquals(1L, first.getId());
+        assertEquals(EMAIL, second.getEmail());
+        assertTrue(byId.isPresent());
+        assertNotSame(first, second);
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+        verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of("users:gen:email:" + EMAIL, "users:id:1", "users:email:" + EMAIL)),
+                eq("0"), eq("1800000"), anyString(), eq("1"));
+
+        assertEquals(2.0, requests("local", "hit"));
+        assertEquals(1.0, requests("local", "miss"));
+        assertEquals(1.0, requests("redis", "miss"));
+    }
+
+    @Test
+    @DisplayName("Deve usar o Redis quando o usuário não está na memória local")
+    public void testFindById_RedisHit() throws Exception {
+        String json = "{\"id\":2,\"username\":\"b@email.com\",\"email\":\"b@email.com\",\"enabled\":true,\"role\":\"USER\"}";
+        when(valueOperations.get("users:id:2")).thenReturn(json);
+
+        Optional<User> user = userCache.findById(2L);
+
+        assertTrue(user.isPresent());
+        assertEquals("b@email.com", user.get().getEmail());
+        verifyNoInteractions(userRepository);
+        assertEquals(1.0, requests("redis", "hit"));
+    }
+
+    @Test
+    @DisplayName("Deve carregar a projeção de autenticação sem buscar a entidade completa")
+    public void testFindPrincipalByEmail() {
+        when(userRepository.findPrincipalByEmail(EMAIL)).thenReturn(new UserPrincipal(1L, EMAIL, Role.USER, true));
+
+        UserPrincipal first = userCache.findPrincipalByEmail(EMAIL);
+        UserPrincipal second = userCache.findPrincipalByEmail(EMAIL);
+
+        assertEquals(first, second);
+        assertEquals(List.of(Role.USER), first.authorities());
+        verify(userRepository, times(1)).findPrincipalByEmail(EMAIL);
+        verify(userRepository, never()).findByEmail(any());
+    }
+
+    @Test
+    @DisplayName("Deve remover o usuário do Redis e da memória local e publicar a invalidação")
+    public void testInvalidate() {
+        User user = UserFactory.createUser(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        userCache.findById(1L);
+
+        userCache.invalidate(1L, EMAIL);
+        userCache.findById(1L);
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("users:gen:id:1", "users:gen:email:" + EMAIL,
+                "users:id:1", "users:email:" + EMAIL, "users:principal:" + EMAIL)), eq("1800000"), eq("2"));
+        verify(redisTemplate).convertAndSend(UserCache.CHANNEL, "1|" + EMAIL);
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Deve invalidar vários usuários com um único script e publicar cada invalidação em pipeline")
+    public void testInvalidateAll() {
+        User user = UserFactory.createUser(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        userCache.findById(1L);
+
+        Map<Long, String> users = new LinkedHashMap<>();
+        users.put(1L, EMAIL);
+        users.put(2L, "b@email.com");
+        userCache.invalidateAll(users);
+        userCache.findById(1L);
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(
+                "users:gen:id:1", "users:gen:email:" + EMAIL, "users:gen:id:2", "users:gen:email:b@email.com",
+                "users:id:1", "users:email:" + EMAIL, "users:principal:" + EMAIL,
+                "users:id:2", "users:email:b@email.com", "users:principal:b@email.com")), eq("1800000"), eq("4"));
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Não deve guardar localmente o resultado de uma carga iniciada antes da invalidação")
+    public void testFindById_JoinsFlightStartedBeforeInvalidation() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findById(1L))
+                .thenAnswer(invocation -> {
+                    started.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return Optional.of(UserFactory.createUser(1L));
+                })
+                .thenReturn(Optional.of(UserFactory.createUser(1L)));
+
+        CompletableFuture<Optional<User>> owner = CompletableFuture.supplyAsync(() -> userCache.findById(1L));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        userCache.invalidate(1L, EMAIL);
+
+        // Chamada posterior à invalidação, agrupada na carga já em andamento.
+        CompletableFuture<Optional<User>> waiter = CompletableFuture.supplyAsync(() -> userCache.findById(1L));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("singleflight.collapsed").tag("name", "user").counter().count() < 1
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        owner.get(5, TimeUnit.SECONDS);
+        waiter.get(5, TimeUnit.SECONDS);
+
+        userCache.findById(1L);
+
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Deve gravar no Redis o usuário sem os hashes de senha")
+    public void testStore_WithoutPasswords() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(UserFactory.createUser(1L)));
+
+        userCache.findById(1L);
+
+        ArgumentCaptor<String> value = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).execute(any(RedisScript.class), anyList(), anyString(), anyString(), value.capture(),
+                anyString());
+        String json = value.getValue();
+        assertTrue(json.contains("\"email\":\"" + EMAIL + "\""));
+        assertTrue(json.contains("\"password\":null"));
+        assertFalse(json.contains(UserFactory.ENCODE_PASS));
+    }
+
+    @Test
+    @DisplayName("Deve buscar o hash de senha no banco quando a cópia local veio do Redis")
+    public void testFindByEmailWithPassword_LoadsFromDatabase() {
+        String json = "{\"id\":2,\"username\":\"b@email.com\",\"email\":\"b@email.com\",\"enabled\":true,\"role\":\"USER\"}";
+        when(valueOperations.get("users:email:b@email.com")).thenReturn("2");
+        when(valueOperations.get("users:id:2")).thenReturn(json);
+        User fromDatabase = UserFactory.createUser(2L);
+        fromDatabase.setEmail("b@email.com");
+        when(userRepository.findByEmail("b@email.com")).thenReturn(fromDatabase);
+
+        assertNull(userCache.findByEmail("b@email.com").getPassword());
+        User first = userCache.findByEmailWithPassword("b@email.com");
+        User second = userCache.findByEmailWithPassword("b@email.com");
+
+        assertEquals(UserFactory.ENCODE_PASS, first.getPassword());
+        assertEquals(UserFactory.ENCODE_PASS, second.getPassword());
+        verify(userRepository, times(1)).findByEmail("b@email.com");
+    }
+
+    @Test
+    @DisplayName("Deve descartar a gravação no Redis quando a geração mudou durante a carga")
+    public void testStore_GenerationChanged() {
+        when(valueOperations.get("users:gen:id:1")).thenReturn("4");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(UserFactory.createUser(1L)));
+
+        userCache.findById(1L);
+
+        verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of("users:gen:id:1", "users:id:1", "users:email:" + EMAIL)),
+                eq("4"), eq("1800000"), anyString(), eq("1"));
+    }
+
+    private double requests(String tier, String result) {
+        return meterRegistry.get("user.cache.requests").tag("tier", tier).tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.login.unit;
+
+import com.example.login.exception.BadRequestException;
+import com.example.login.importer.UserImportReader;
+import com.example.login.importer.UserImportRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserImportReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Deve ler o CSV em blocos, respeitando aspas e a função padrão")
+    public void testNext_Csv() throws Exception {
+        String csv = """
+                email,password,role
+                a@email.com,"Senha,123!A",ADMIN
+
+                b@email.com,Senha123!B,
+                """;
+
+        try (UserImportReader reader = reader(csv, UserImportReader.Format.CSV)) {
+            List<UserImportRow> first = reader.next(1);
+            List<UserImportRow> second = reader.next(10);
+
+            assertEquals(1, first.size());
+            assertEquals(2, first.getFirst().line());
+            assertEquals("Senha,123!A", first.getFirst().request().password());
+            assertEquals("ADMIN", first.getFirst().request().role());
+
+            assertEquals(1, second.size());
+            assertEquals(4, second.getFirst().line());
+            assertEquals("USER", second.getFirst().request().role());
+            assertTrue(reader.next(10).isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve informar a linha NDJSON inválida e continuar a leitura")
+    public void testNext_NdjsonInvalidLine() throws Exception {
+        String ndjson = """
+                {"email":"a@email.com","password":"Senha123!A","role":"USER"}
+                {"email":
+                {"email":"b@email.com","password":"Senha123!B","role":"USER"}
+                """;
+
+        try (UserImportReader reader = reader(ndjson, UserImportReader.Format.NDJSON)) {
+            List<UserImportRow> rows = reader.next(10);
+
+            assertEquals(3, rows.size());
+            assertNull(rows.get(0).error());
+            assertNotNull(rows.get(1).error());
+            assertEquals(2, rows.get(1).line());
+            assertEquals("b@email.com", rows.get(2).email());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar CSV sem as colunas obrigatórias")
+    public void testNext_InvalidHeader() {
+        UserImportReader reader = reader("nome,senha\nA,B\n", UserImportReader.Format.CSV);
+
+        assertThrows(BadRequestException.class, () -> reader.next(10));
+    }
+
+    private UserImportReader reader(String content, UserImportReader.Format format) {
+        return new UserImportReader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format,
+                objectMapper);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.login.unit;
+
+import com.example.login.cache.RegisteredEmails;
+import com.example.login.datasource.shard.ShardRouter;
+import com.example.login.dto.response.UserImportReport;
+import com.example.login.importer.UserImportReader;
+import com.example.login.importer.UserImporter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockedConstruction;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserImporterTest {
+
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private ObjectProvider<ShardRouter> shardRouter;
+
+    @Mock
+    private RegisteredEmails registeredEmails;
+
+    private MockedConstruction<NamedParameterJdbcTemplate> namedJdbcTemplates;
+
+    private UserImporter importer;
+
+    @BeforeEach
+    public void setUp() {
+        namedJdbcTemplates = mockConstruction(NamedParameterJdbcTemplate.class);
+        importer = new UserImporter(jdbcTemplate, new TransactionTemplate(transactionManager), passwordEncoder,
+                VALIDATOR, new ObjectMapper(), shardRouter, registeredEmails, 500, 1, 10);
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        importer.shutdown();
+        namedJdbcTemplates.close();
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar e-mails já cadastrados ou arquivados e importar os demais")
+    @SuppressWarnings("unchecked")
+    public void testImportUsers_RejectsExistingAndArchived() throws Exception {
+        NamedParameterJdbcTemplate namedJdbcTemplate = namedJdbcTemplates.constructed().getFirst();
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        when(namedJdbcTemplate.queryForList(sql.capture(), any(SqlParameterSource.class), eq(String.class)))
+                .thenReturn(List.of("Ativo@email.com", "arquivado@email.com"));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+
+        UserImportReport report = importUsers("""
+                {"email":"ativo@email.com","password":"Senha123!A","role":"USER"}
+                {"email":"arquivado@email.com","password":"Senha123!B","role":"USER"}
+                {"email":"novo@email.com","password":"Senha123!C","role":"USER"}
+                """);
+
+        assertTrue(sql.getValue().contains("tb_users_archive"));
+        assertEquals(3, report.read());
+        assertEquals(1, report.imported());
+        assertEquals(2, report.rejected());
+        assertEquals(List.of("ativo@email.com", "arquivado@email.com"),
+                report.errors().stream().map(UserImportReport.RowError::email).toList());
+        ArgumentCaptor<List<Object[]>> values = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), values.capture());
+        assertEquals(1, values.getValue().size());
+        assertEquals("novo@email.com", values.getValue().getFirst()[2]);
+        verify(registeredEmails).add("novo@email.com");
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar e-mails repetidos no arquivo e os cadastrados durante a importação")
+    public void testImportUsers_RepeatedAndConcurrent() throws Exception {
+        NamedParameterJdbcTemplate namedJdbcTemplate = namedJdbcTemplates.constructed().getFirst();
+        when(namedJdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(String.class)))
+                .thenReturn(List.of());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 0});
+
+        UserImportReport report = importUsers("""
+                {"email":"a@email.com","password":"Senha123!A","role":"USER"}
+                {"email":"A@email.com","password":"Senha123!A","role":"USER"}
+                {"email":"b@email.com","password":"Senha123!B","role":"USER"}
+                """);
+
+        assertEquals(1, report.imported());
+        assertEquals(2, report.rejected());
+        assertEquals("E-mail repetido no arquivo", report.errors().get(0).message());
+        assertEquals("Usuário já existe!", report.errors().get(1).message());
+        verify(registeredEmails).add("a@email.com");
+        verify(registeredEmails, never()).add("b@email.com");
+    }
+
+    private UserImportReport importUsers(String ndjson) throws Exception {
+        return importer.importUsers(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)),
+                UserImportReader.Format.NDJSON, true);
+    }
+}
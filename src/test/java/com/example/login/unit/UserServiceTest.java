@@ -1,12 +1,21 @@
 package com.example.login.unit;
 
+import com.example.login.archive.UserArchive;
+import com.example.login.aspect.view.Views;
+import com.example.login.cache.ProfileCache;
+import com.example.login.cache.RegisteredEmails;
+import com.example.login.cache.UserCache;
+import com.example.login.dto.request.AuthUser;
 import com.example.login.dto.request.UserRequest;
+import com.example.login.dto.response.UserProfile;
 import com.example.login.enums.Role;
 import com.example.login.exception.BadRequestException;
 import com.example.login.model.User;
 import com.example.login.repository.UserRepository;
+import com.example.login.security.AuthAuditorAware;
 import com.example.login.service.EmailService;
 import com.example.login.service.impl.UserServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,8 +23,11 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Optional;
+
 import static com.example.login.factory.UserFactory.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -32,9 +44,29 @@ public class UserServiceTest {
     @Mock
     private EmailService emailService;
 
+    @Mock
+    private AuthAuditorAware authAuditorAware;
+
+    @Mock
+    private ProfileCache profileCache;
+
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private UserArchive userArchive;
+
+    @Mock
+    private RegisteredEmails registeredEmails;
+
     @InjectMocks
     private UserServiceImpl userService;
 
+    @BeforeEach
+    public void setUp() {
+        lenient().when(registeredEmails.mightContain(anyString())).thenReturn(true);
+    }
+
     @Test
     @DisplayName("Deve registrar um usuário com sucesso")
     public void testRegisterUser_UserNotExist_Success() {
@@ -51,7 +83,7 @@ public class UserServiceTest {
 
         // Então: verifica se o usuário foi salvo com os valores corretos
         ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(userCaptor.capture());
+        verify(userRepository).saveAndFlush(userCaptor.capture());
         User savedUser = userCaptor.getValue();
 
         assertEquals(EMAIL, savedUser.getEmail());
@@ -75,7 +107,7 @@ public class UserServiceTest {
         userService.registerUser(userRequest);
 
         ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(userCaptor.capture());
+        verify(userRepository).saveAndFlush(userCaptor.capture());
         User savedUser = userCaptor.getValue();
 
         assertEquals(EMAIL, savedUser.getEmail());
@@ -97,6 +129,33 @@ public class UserServiceTest {
         assertThrows(BadRequestException.class, () -> userService.registerUser(userRequest));
     }
 
+    @Test
+    @DisplayName("Deve dispensar as consultas de existência quando o filtro garante que o e-mail é novo")
+    public void testRegisterUser_FilterNegative_SkipsLookup() {
+        UserRequest userRequest = new UserRequest(true, USERNAME, EMAIL, "USER", PASS);
+        when(registeredEmails.mightContain(EMAIL)).thenReturn(false);
+        when(passEncoder.encode(userRequest.password())).thenReturn(ENCODE_PASS);
+
+        userService.registerUser(userRequest);
+
+        verify(userRepository, never()).existsByEmail(any());
+        verifyNoInteractions(userArchive);
+        verify(userRepository).saveAndFlush(any(User.class));
+        verify(registeredEmails).add(EMAIL);
+    }
+
+    @Test
+    @DisplayName("Deve recusar o cadastro duplicado detectado pelo índice único")
+    public void testRegisterUser_UniqueViolation_Error() {
+        UserRequest userRequest = new UserRequest(true, USERNAME, EMAIL, "USER", PASS);
+        when(registeredEmails.mightContain(EMAIL)).thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+
+        assertThrows(BadRequestException.class, () -> userService.registerUser(userRequest));
+        verify(registeredEmails, never()).add(any());
+    }
+
     @Test
     @DisplayName("Deve lançar exceção ao tentar registrar um usuário com função inexistente")
     public void testRegisterUser_NotExistRole_Error() {
@@ -106,4 +165,42 @@ public class UserServiceTest {
 
         assertThrows(BadRequestException.class, () -> userService.registerUser(userRequest));
     }
+
+    @Test
+    @DisplayName("Deve retornar o perfil sem corpo quando o ETag corresponde à versão atual")
+    public void testFindProfile_NotModified() {
+        when(authAuditorAware.getAuthUser()).thenReturn(new AuthUser(1L, EMAIL, Role.ADMIN));
+        when(userCache.findById(1L)).thenReturn(Optional.of(user(3L)));
+        String eTag = ProfileCache.eTag(1L, Views.Regular.class, 3L);
+
+        UserProfile profile = userService.findProfile("regular", eTag);
+
+        assertTrue(profile.isNotModified());
+        assertEquals(eTag, profile.eTag());
+        verifyNoInteractions(profileCache, userRepository);
+    }
+
+    @Test
+    @DisplayName("Deve retornar o perfil do cache com o ETag da nova versão")
+    public void testFindProfile_Modified() {
+        byte[] json = "{\"id\":1}".getBytes();
+        when(authAuditorAware.getAuthUser()).thenReturn(new AuthUser(1L, EMAIL, Role.ADMIN));
+        User user = user(4L);
+        when(userCache.findById(1L)).thenReturn(Optional.of(user));
+        when(profileCache.get(user, Views.Basic.class)).thenReturn(json);
+
+        UserProfile profile = userService.findProfile(null, ProfileCache.eTag(1L, Views.Basic.class, 3L));
+
+        assertFalse(profile.isNotModified());
+        assertEquals(ProfileCache.eTag(1L, Views.Basic.class, 4L), profile.eTag());
+        assertArrayEquals(json, profile.json());
+    }
+
+    private static User user(Long version) {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail(EMAIL);
+        user.setVersion(version);
+        return user;
+    }
 }
@@ -0,0 +1,155 @@
+package com.example.login.unit;
+
+import com.example.login.bulk.UserStatusUpdater;
+import com.example.login.cache.TokenCache;
+import com.example.login.cache.UserCache;
+import com.example.login.datasource.shard.ShardRouter;
+import com.example.login.dto.response.BulkJobStatus;
+import com.example.login.repository.UserListingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedConstruction;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.example.login.security.TokenService.ACCESS_TOKEN;
+import static com.example.login.security.TokenService.REFRESH_TOKEN;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserStatusUpdaterTest {
+
+    private static final String JOB_ID = "job-1";
+
+    @Mock
+    private UserListingRepository userListingRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TokenCache tokenCache;
+
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private ObjectProvider<ShardRouter> shardRouter;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private MockedConstruction<NamedParameterJdbcTemplate> namedJdbcTemplates;
+
+    private UserStatusUpdater updater;
+
+    @BeforeEach
+    public void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        namedJdbcTemplates = mockConstruction(NamedParameterJdbcTemplate.class);
+        updater = new UserStatusUpdater(userListingRepository, jdbcTemplate, new TransactionTemplate(transactionManager),
+                tokenCache, userCache, redisTemplate, objectMapper, shardRouter, 1000, Duration.ofDays(1));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        updater.shutdown();
+        namedJdbcTemplates.close();
+    }
+
+    @Test
+    @DisplayName("Deve desabilitar os usuários, invalidar os caches, revogar os tokens e concluir a operação")
+    public void testStart_DisablesUsers() throws Exception {
+        NamedParameterJdbcTemplate namedJdbcTemplate = namedJdbcTemplates.constructed().getFirst();
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(1L, 2L);
+        when(rs.getString("email")).thenReturn("a@email.com", "b@email.com");
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            handler.processRow(rs);
+            handler.processRow(rs);
+            return null;
+        }).when(namedJdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+        when(namedJdbcTemplate.update(anyString(), any(SqlParameterSource.class))).thenReturn(2);
+        when(tokenCache.revokeAll(Set.of(1L, 2L), ACCESS_TOKEN, REFRESH_TOKEN)).thenReturn(3);
+
+        BulkJobStatus started = updater.start(false, List.of(1L, 2L, 1L));
+
+        assertEquals(BulkJobStatus.State.RUNNING, started.state());
+        verify(valueOperations).set("users:jobs:lease:" + started.id(), "1", Duration.ofSeconds(30));
+        verify(valueOperations, timeout(5000)).set(eq("users:jobs:" + started.id()),
+                contains("\"COMPLETED\""), eq(Duration.ofDays(1)));
+
+        Map<Long, String> users = new LinkedHashMap<>();
+        users.put(1L, "a@email.com");
+        users.put(2L, "b@email.com");
+        verify(userCache).invalidateAll(users);
+        verify(namedJdbcTemplate).update(contains("UPDATE tb_users"), any(SqlParameterSource.class));
+    }
+
+    @Test
+    @DisplayName("Deve informar como falha a operação em andamento cuja instância deixou de renovar a posse")
+    public void testStatus_LeaseExpired() throws Exception {
+        when(valueOperations.get("users:jobs:" + JOB_ID)).thenReturn(running());
+        when(redisTemplate.hasKey("users:jobs:lease:" + JOB_ID)).thenReturn(false);
+
+        Optional<BulkJobStatus> status = updater.status(JOB_ID);
+
+        assertTrue(status.isPresent());
+        assertEquals(BulkJobStatus.State.FAILED, status.get().state());
+        assertEquals(5, status.get().matched());
+        assertNotNull(status.get().finishedAt());
+        verify(valueOperations).set(eq("users:jobs:" + JOB_ID), contains("\"FAILED\""), eq(Duration.ofDays(1)));
+    }
+
+    @Test
+    @DisplayName("Deve manter em andamento a operação cuja posse continua sendo renovada")
+    public void testStatus_LeaseActive() throws Exception {
+        when(valueOperations.get("users:jobs:" + JOB_ID)).thenReturn(running());
+        when(redisTemplate.hasKey("users:jobs:lease:" + JOB_ID)).thenReturn(true);
+
+        Optional<BulkJobStatus> status = updater.status(JOB_ID);
+
+        assertTrue(status.isPresent());
+        assertEquals(BulkJobStatus.State.RUNNING, status.get().state());
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    private String running() throws Exception {
+        return objectMapper.writeValueAsString(new BulkJobStatus(JOB_ID, BulkJobStatus.State.RUNNING, false, 5, 5, 0,
+                null, Instant.now(), null));
+    }
+}